@@ -1,16 +1,22 @@
 USE sfg_prod;
+create sequence container_seq start 1 increment 50
 create sequence hibernate_sequence start 1 increment 1
+create sequence persistent_record_seq start 1 increment 50
+create sequence record_seq start 1 increment 50
 create table container (container_id int8 not null, blob_name varchar(255), class_name varchar(255), csv_name varchar(255), description varchar(255) not null, frame_rate float8 not null, name varchar(255) not null, csv_csv_id int8, persistentcsv_persistent_csv_id int8, project_project_id int8, submission_id int8, primary key (container_id))
 create table container_classes (container_container_id int8 not null, classes varchar(255))
-create table csv (csv_id  bigserial not null, container_container_id int8, primary key (csv_id))
-create table persistent_csv (persistent_csv_id  bigserial not null, container_container_id int8, primary key (persistent_csv_id))
+create table csv (csv_id  bigserial not null, overlay boolean default false not null, version int8 default 0 not null, container_container_id int8, primary key (csv_id))
+create table persistent_csv (persistent_csv_id  bigserial not null, version int8 default 0 not null, container_container_id int8, primary key (persistent_csv_id))
 create table persistent_record (record_id int8 not null, frame_num int4 not null, label varchar(255), model_confidence float8 not null, object_id int4 not null, tracker_confidence float8 not null, trackerh int4 not null, trackerl int4 not null, trackert int4 not null, trackerw int4 not null, persistent_csv_persistent_csv_id int8 not null, primary key (record_id))
 create table project (project_id  bigserial not null, description varchar(255) not null, title varchar(255) not null, admin_id varchar(255), project_holder_project_holder_id int8, primary key (project_id))
 create table project_holder (project_holder_id  bigserial not null, client_id varchar(255), primary key (project_holder_id))
-create table record (record_id int8 not null, frame_num int4 not null, label varchar(255), model_confidence float8 not null, object_id int4 not null, tracker_confidence float8 not null, trackerh int4 not null, trackerl int4 not null, trackert int4 not null, trackerw int4 not null, csv_csv_id int8 not null, primary key (record_id))
+create table record (record_id int8 not null, frame_num int4 not null, label varchar(255), model_confidence float8 not null, object_id int4 not null, tracker_confidence float8 not null, trackerh int4 not null, trackerl int4 not null, trackert int4 not null, trackerw int4 not null, tombstone boolean default false not null, csv_csv_id int8 not null, primary key (record_id))
 create table submission (id int8 not null, client_id varchar(255), container_container_id int8, primary key (id))
 create table user_account (type varchar(31) not null, id varchar(255) not null, email varchar(255) not null, registration_date date not null, username varchar(255) not null, project_holder_project_holder_id int8, submission_id int8, primary key (id))
-create index IDX5b9y3occe9yuswf6u7nbq4app on record (csv_csv_id, object_id)
+create index idx_persistent_record_csv_frame_num on persistent_record (persistent_csv_persistent_csv_id, frame_num)
+create index idx_record_csv_frame_num on record (csv_csv_id, frame_num)
+create index idx_user_account_type on user_account (type, id)
+alter table if exists record add constraint uk_record_csv_object_id unique (csv_csv_id, object_id)
 alter table if exists user_account add constraint UK_hl02wv5hym99ys465woijmfib unique (email)
 alter table if exists container add constraint FKm7i3b7blob2pl4skqpvung2ik foreign key (csv_csv_id) references csv on delete cascade
 alter table if exists container add constraint FKid3ufjgkfehapmpwipqlxaj5o foreign key (persistentcsv_persistent_csv_id) references persistent_csv on delete cascade
@@ -0,0 +1,9 @@
+-- Adds the overlay storage of csvs. An overlay csv only stores the records that
+-- differ from the persistent csv of its container, a deleted record of the
+-- persistent csv is stored as a tombstone. Existing csvs keep all their records.
+
+alter table csv
+    add column if not exists overlay boolean default false not null;
+
+alter table record
+    add column if not exists tombstone boolean default false not null;
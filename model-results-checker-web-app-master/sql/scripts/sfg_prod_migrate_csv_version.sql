@@ -0,0 +1,8 @@
+-- Adds the version of the records of a csv, which is sent as ETag by the record
+-- endpoints. Existing csvs start at version 0.
+
+alter table csv
+    add column if not exists version int8 default 0 not null;
+
+alter table persistent_csv
+    add column if not exists version int8 default 0 not null;
@@ -0,0 +1,14 @@
+-- Moves container, record and persistent_record from the shared hibernate_sequence
+-- to their own pooled sequences. Every sequence value reserves a block of 50 ids,
+-- so the sequences start right after the highest id that is already in use.
+
+create sequence if not exists container_seq start 1 increment 50;
+create sequence if not exists record_seq start 1 increment 50;
+create sequence if not exists persistent_record_seq start 1 increment 50;
+
+select setval('container_seq',
+              coalesce((select max(container_id) from container), 0) + 1, false);
+select setval('record_seq',
+              coalesce((select max(record_id) from record), 0) + 1, false);
+select setval('persistent_record_seq',
+              coalesce((select max(record_id) from persistent_record), 0) + 1, false);
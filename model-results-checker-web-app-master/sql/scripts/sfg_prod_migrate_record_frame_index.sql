@@ -0,0 +1,8 @@
+-- Indexes the records of a csv by frame number, so the records of a frame
+-- window can be read with a range scan instead of loading the whole csv.
+
+create index if not exists idx_record_csv_frame_num
+    on record (csv_csv_id, frame_num);
+
+create index if not exists idx_persistent_record_csv_frame_num
+    on persistent_record (persistent_csv_persistent_csv_id, frame_num);
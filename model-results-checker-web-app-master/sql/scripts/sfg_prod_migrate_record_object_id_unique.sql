@@ -0,0 +1,17 @@
+-- Makes the object id of a record unique within its csv, so annotation saves
+-- can upsert on (csv_csv_id, object_id). Of duplicated object ids only the
+-- most recently inserted record is kept.
+
+delete from record older
+    using record newer
+    where older.csv_csv_id = newer.csv_csv_id
+      and older.object_id = newer.object_id
+      and older.record_id < newer.record_id;
+
+drop index if exists idx5b9y3occe9yuswf6u7nbq4app;
+
+alter table record
+    drop constraint if exists uk_record_csv_object_id;
+
+alter table record
+    add constraint uk_record_csv_object_id unique (csv_csv_id, object_id);
@@ -0,0 +1,5 @@
+-- Indexes the users by their type, so admins and basic users can be counted
+-- and listed without scanning the whole user_account table.
+
+create index if not exists idx_user_account_type
+    on user_account (type, id);
@@ -2,11 +2,15 @@ package nl.tudelft.sp.modelchecker.controller;
 
 import java.util.List;
 import javassist.NotFoundException;
-import lombok.SneakyThrows;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import nl.tudelft.sp.modelchecker.dto.Dto;
+import nl.tudelft.sp.modelchecker.dto.DtoFactory;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.entities.SuperEntity;
 import nl.tudelft.sp.modelchecker.services.CrudService;
 import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -14,6 +18,12 @@ import org.springframework.http.ResponseEntity;
 public abstract class AbstractController<I, T extends CrudService<K, I, D>,
         K extends SuperEntity<I>, D extends Dto<I>> {
 
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_ETAG = "W/";
+    private static final String GZIP = "gzip";
+    private static final String X_GZIP = "x-gzip";
+    private static final String ANY_ENCODING = "*";
+
     protected final T service;
     protected final ModelMapper modelMapper;
 
@@ -36,12 +46,106 @@ public abstract class AbstractController<I, T extends CrudService<K, I, D>,
      * @param entity entity
      * @return D
      */
-    @SneakyThrows
     @SuppressWarnings("unchecked")
     private D getSendBackDto(D dto, K entity) {
-        return (D) dto.getClass().getConstructor(entity.getClass()).newInstance(entity);
+        return DtoFactory.create((Class<D>) dto.getClass(), entity);
+    }
+
+
+    /**
+     * Get the strong ETag of the version of a csv.
+     *
+     * @param csvId   csvId
+     * @param version version
+     * @return ETag
+     */
+    protected String etag(Long csvId, long version) {
+        return "\"" + csvId + "-" + version + "\"";
+    }
+
+    /**
+     * Get the strong ETag of the version of the records of a csv in an encoding.
+     * The gzipped and the plain records differ byte for byte, so they get
+     * different ETags.
+     *
+     * @param csvId   csvId
+     * @param version version
+     * @param gzip    whether the records are gzipped
+     * @return ETag
+     */
+    protected String etag(Long csvId, long version, boolean gzip) {
+        return "\"" + csvId + "-" + version + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * Check if a client already has the representation with an ETag.
+     *
+     * @param etag        ETag
+     * @param ifNoneMatch If-None-Match header of the request, may be null
+     * @return true if one of the ETags of the client matches
+     */
+    protected boolean notModified(String etag, String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+
+        for (String match : ifNoneMatch.split(",")) {
+            String tag = match.trim();
+            if (tag.startsWith(WEAK_ETAG)) tag = tag.substring(WEAK_ETAG.length());
+            if (ANY_ETAG.equals(tag) || etag.equals(tag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a response can be gzipped, because the client accepts gzip. The
+     * response varies by the encodings a client accepts, which is set on it.
+     * Content-Encoding is left to the caller, as a 304 Not Modified has no content.
+     * Gzip is accepted if it is listed with a quality above 0, or if it is not
+     * listed and any encoding is accepted with a quality above 0.
+     *
+     * @param request  request
+     * @param response response
+     * @return true if the response is gzipped
+     */
+    protected boolean gzipResponse(HttpServletRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) return false;
+
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (GZIP.equalsIgnoreCase(name) || X_GZIP.equalsIgnoreCase(name)) {
+                gzip = Math.max(gzip, quality(parameters));
+            } else if (ANY_ENCODING.equals(name)) {
+                any = quality(parameters);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
     }
 
+    /**
+     * Get the quality of an encoding in Accept-Encoding, 1 if it has none.
+     * A quality that is no number counts as 0, so the encoding is not used.
+     *
+     * @param parameters name and parameters of the encoding
+     * @return quality
+     */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (!parameter.startsWith("q=") && !parameter.startsWith("Q=")) continue;
+
+            try {
+                return Double.parseDouble(parameter.substring(2).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 1;
+    }
 
     /**
      * Get specific item for the controller.
@@ -71,6 +175,21 @@ public abstract class AbstractController<I, T extends CrudService<K, I, D>,
         return new ResponseEntity<>(listDtos, HttpStatus.OK);
     }
 
+    /**
+     * Get a page of items, or all items if no page is requested.
+     *
+     * @param c    c
+     * @param page page
+     * @return page of items
+     * @throws NotFoundException NotFoundException
+     */
+    public ResponseEntity<List<D>> list(Class<D> c, PageDto<I> page) throws NotFoundException {
+        if (page == null) return list(c);
+
+        List<D> listDtos = service.findDtoPage(c, page);
+        return new ResponseEntity<>(listDtos, HttpStatus.OK);
+    }
+
     /**
      * Update an item.
      *
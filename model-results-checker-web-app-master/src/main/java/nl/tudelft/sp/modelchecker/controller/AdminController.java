@@ -3,10 +3,13 @@ package nl.tudelft.sp.modelchecker.controller;
 import java.util.List;
 import javassist.NotFoundException;
 import javax.validation.constraints.NotNull;
+import nl.tudelft.sp.modelchecker.dto.CacheStatisticsDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.Admin;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
 import nl.tudelft.sp.modelchecker.services.AdminService;
+import nl.tudelft.sp.modelchecker.services.CacheService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,6 +26,9 @@ public class AdminController {
     @Autowired
     AdminService adminService;
 
+    @Autowired
+    CacheService cacheService;
+
     @Autowired
     ModelMapper modelMapper;
 
@@ -79,16 +85,31 @@ public class AdminController {
     }
 
     /**
-     * Get a list of admins from database.
+     * Get a page of admins from database, or all admins if no page is requested.
      *
+     * @param pageDto pageDto
      * @return list of admmins
+     * @throws NotFoundException NotFoundException
      */
     @PostMapping("list/admin")
     @ResponseBody
-    public ResponseEntity<List<UserDto>> listAdmin() {
+    public ResponseEntity<List<UserDto>> listAdmin(
+            @RequestBody(required = false) PageDto<String> pageDto) throws NotFoundException {
 
-        List<UserDto> userDtos = adminService.convertToUserDtos();
+        List<UserDto> userDtos = pageDto == null ? adminService.convertToUserDtos()
+                : adminService.convertToUserDtos(pageDto);
         return new ResponseEntity<>(userDtos, HttpStatus.OK);
     }
 
+    /**
+     * Get the hits, misses and evictions of the second level cache regions.
+     *
+     * @return list of cache statistics
+     */
+    @GetMapping("get/cache")
+    @ResponseBody
+    public ResponseEntity<List<CacheStatisticsDto>> getCacheStatistics() {
+        return new ResponseEntity<>(cacheService.getStatistics(), HttpStatus.OK);
+    }
+
 }
@@ -4,6 +4,7 @@ package nl.tudelft.sp.modelchecker.controller;
 import java.util.List;
 import javassist.NotFoundException;
 import javax.validation.constraints.NotNull;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.BasicUser;
 import nl.tudelft.sp.modelchecker.services.AdminService;
@@ -86,16 +87,20 @@ public class BasicUserController {
     }
 
     /**
-     * Get a list of users from database.
+     * Get a page of users from database, or all users if no page is requested.
      *
+     * @param pageDto pageDto
      * @return list of users.
+     * @throws NotFoundException NotFoundException
      */
     @PostMapping("list/user")
     @PreAuthorize("hasAuthority('APPROLE_ADMIN')")
     @ResponseBody
-    public ResponseEntity<List<UserDto>> listUser() {
+    public ResponseEntity<List<UserDto>> listUser(
+            @RequestBody(required = false) PageDto<String> pageDto) throws NotFoundException {
 
-        List<UserDto> userDtos = basicUserJpaService.convertToUserDtos();
+        List<UserDto> userDtos = pageDto == null ? basicUserJpaService.convertToUserDtos()
+                : basicUserJpaService.convertToUserDtos(pageDto);
 
         return new ResponseEntity<>(userDtos, HttpStatus.OK);
     }
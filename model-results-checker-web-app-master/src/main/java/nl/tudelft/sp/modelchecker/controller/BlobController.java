@@ -8,6 +8,7 @@ import nl.tudelft.sp.modelchecker.cloud.Connection;
 import nl.tudelft.sp.modelchecker.dto.BlobDto;
 import nl.tudelft.sp.modelchecker.dto.BlobListDto;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.services.AzureBlobService;
 import nl.tudelft.sp.modelchecker.services.AzureContainerService;
@@ -38,17 +39,24 @@ public class BlobController {
     Connection connection;
 
     /**
-     * get blob names in azure container.
+     * get a page of blob names in azure container, or all of them if no page is requested.
      *
+     * @param pageDto pageDto
      * @return BlobListDto
      * @throws URISyntaxException URISyntaxException
      * @throws StorageException StorageException
      */
     @PostMapping("/get/blobList")
     @ResponseBody
-    public ResponseEntity<BlobListDto> getBlobNames()
+    public ResponseEntity<BlobListDto> getBlobNames(
+            @RequestBody(required = false) PageDto<String> pageDto)
         throws URISyntaxException, StorageException {
 
+        if (pageDto != null) {
+            return new ResponseEntity<>(azureContainerService
+                    .listBlobs(connection.getDefaultContainer(), pageDto), HttpStatus.OK);
+        }
+
         BlobListDto blobListDto = new BlobListDto();
         blobListDto.setBlobs(azureContainerService.listBlobs(connection.getDefaultContainer()));
 
@@ -3,25 +3,43 @@ package nl.tudelft.sp.modelchecker.controller;
 import com.microsoft.azure.storage.StorageException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javassist.NotFoundException;
+import javax.servlet.http.HttpServletRequest;
 import lombok.Setter;
 import nl.tudelft.sp.modelchecker.cloud.Connection;
 import nl.tudelft.sp.modelchecker.dto.BlobDto;
 import nl.tudelft.sp.modelchecker.dto.BlobListDto;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
+import nl.tudelft.sp.modelchecker.dto.CsvDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Project;
+import nl.tudelft.sp.modelchecker.parsers.FileParser.Adapter;
 import nl.tudelft.sp.modelchecker.services.*;
 import nl.tudelft.sp.modelchecker.videoprocessing.VideoProcessor;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 @RestController
 @RequestMapping("/api/")
@@ -50,6 +68,9 @@ public class ContainerController
     @Autowired
     AzureContainerService azureContainerService;
 
+    @Autowired
+    MultipartProperties multipartProperties;
+
     @Setter
     VideoProcessor videoProcessor;
 
@@ -88,7 +109,9 @@ public class ContainerController
             @RequestParam String name) throws Exception {
 
         Project project = projectService.findById(projectId);
-        ProjectDto projectDto = modelMapper.map(project, ProjectDto.class);
+        if (project == null) throw new NotFoundException("Project not found");
+
+        ProjectDto projectDto = new ProjectDto(project);
         Double frameRate = azureBlobService.getFps(blobName, connection.getDefaultContainer());
 
         Container container = Container.builder()
@@ -105,6 +128,115 @@ public class ContainerController
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    /**
+     * Create a container while the upload is still arriving.
+     * The csv part is parsed and persisted straight from the request stream,
+     * so the form fields and the classes part have to be sent before it.
+     * The multipart size limits apply like they do to the other uploads.
+     *
+     * @param request request
+     * @return response entity
+     * @throws Exception Exception
+     */
+    @PostMapping("/create/container/stream")
+    @ResponseBody
+    @PreAuthorize("hasAuthority('APPROLE_ADMIN')")
+    public ResponseEntity<Void> createStreaming(HttpServletRequest request) throws Exception {
+
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            throw new MissingServletRequestPartException("csv");
+        }
+
+        ServletFileUpload upload = new ServletFileUpload();
+        upload.setFileSizeMax(multipartProperties.getMaxFileSize().toBytes());
+        upload.setSizeMax(multipartProperties.getMaxRequestSize().toBytes());
+
+        try {
+            return createFromParts(upload.getItemIterator(request));
+        } catch (Exception e) {
+            FileUploadBase.FileSizeLimitExceededException fileTooLarge = ExceptionUtils
+                    .throwableOfType(e, FileUploadBase.FileSizeLimitExceededException.class);
+            if (fileTooLarge != null) {
+                throw new MaxUploadSizeExceededException(fileTooLarge.getPermittedSize(), e);
+            }
+
+            FileUploadBase.SizeLimitExceededException requestTooLarge = ExceptionUtils
+                    .throwableOfType(e, FileUploadBase.SizeLimitExceededException.class);
+            if (requestTooLarge != null) {
+                throw new MaxUploadSizeExceededException(requestTooLarge.getPermittedSize(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Create a container from the parts of a streamed upload.
+     *
+     * @param parts parts
+     * @return response entity
+     * @throws Exception Exception
+     */
+    private ResponseEntity<Void> createFromParts(FileItemIterator parts) throws Exception {
+
+        Map<String, String> fields = new HashMap<>();
+        List<String> classes = null;
+        String className = null;
+
+        while (parts.hasNext()) {
+            FileItemStream part = parts.next();
+
+            if (part.isFormField()) {
+                fields.put(part.getFieldName(),
+                        Streams.asString(part.openStream(), StandardCharsets.UTF_8.name()));
+            } else if ("classes".equals(part.getFieldName())) {
+                classes = new Adapter(part.getContentType()).getClasses(part.openStream());
+                className = part.getName();
+            } else if ("csv".equals(part.getFieldName())) {
+                if (classes == null) throw new MissingServletRequestPartException("classes");
+
+                String blobName = getField(fields, "blobName");
+                Project project = projectService.findById(Long.valueOf(getField(fields,
+                        "projectId")));
+                if (project == null) throw new NotFoundException("Project not found");
+
+                ProjectDto projectDto = new ProjectDto(project);
+                Double frameRate = azureBlobService.getFps(blobName,
+                        connection.getDefaultContainer());
+
+                Container container = Container.builder()
+                        .frameRate(frameRate)
+                        .name(getField(fields, "name"))
+                        .blobName(blobName)
+                        .description(getField(fields, "description"))
+                        .csvName(part.getName())
+                        .className(className)
+                        .build();
+
+                containerService.fillContainer(part.openStream(), part.getContentType(),
+                        classes, container, projectDto);
+
+                return new ResponseEntity<>(HttpStatus.OK);
+            }
+        }
+
+        throw new MissingServletRequestPartException("csv");
+    }
+
+    /**
+     * Get a form field that was sent before the csv.
+     *
+     * @param fields fields
+     * @param name   name
+     * @return value
+     * @throws MissingServletRequestParameterException MissingServletRequestParameterException
+     */
+    private String getField(Map<String, String> fields, String name)
+            throws MissingServletRequestParameterException {
+        String value = fields.get(name);
+        if (value == null) throw new MissingServletRequestParameterException(name, "String");
+        return value;
+    }
+
     /**
      * Update a container.
      *
@@ -150,29 +282,46 @@ public class ContainerController
     }
 
     /**
-     * List all the containers.
+     * List a page of the containers, or all containers if no page is requested.
      *
-     * @return all containers
+     * @param pageDto pageDto
+     * @return containers
      * @throws NotFoundException NotFoundException
      */
     @PostMapping("/list/container")
     @ResponseBody
     @PreAuthorize("hasAuthority('APPROLE_ADMIN')")
-    public ResponseEntity<List<ContainerDto>> getContainers() throws NotFoundException {
-        return super.list(ContainerDto.class);
+    public ResponseEntity<List<ContainerDto>> getContainers(
+            @RequestBody(required = false) PageDto<Long> pageDto) throws NotFoundException {
+        return super.list(ContainerDto.class, pageDto);
     }
 
     /**
-     * Get all classes.
+     * Get all classes. Once the container has a csv, its version is sent as ETag
+     * and a client that already has it gets 304 Not Modified.
      *
      * @param containerDto containerDto
+     * @param ifNoneMatch  ifNoneMatch
      * @return classes
+     * @throws NotFoundException NotFoundException
      */
     @PostMapping("/get/classes")
     @ResponseBody
-    public ResponseEntity<List<String>> getClasses(@RequestBody ContainerDto containerDto) {
+    public ResponseEntity<List<String>> getClasses(@RequestBody ContainerDto containerDto,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                           required = false) String ifNoneMatch)
+            throws NotFoundException {
         Container container = service.findById(containerDto.getId());
-        return new ResponseEntity<>(container.getClasses(), HttpStatus.OK);
+        if (container.getCsv() == null) {
+            return new ResponseEntity<>(container.getClasses(), HttpStatus.OK);
+        }
+
+        CsvDto csvDto = new CsvDto(container.getCsv());
+        String etag = etag(csvDto.getId(), csvService.getVersion(csvDto));
+        if (notModified(etag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(container.getClasses());
     }
 
 }
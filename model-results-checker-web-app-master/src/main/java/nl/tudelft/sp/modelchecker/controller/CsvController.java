@@ -4,21 +4,28 @@ package nl.tudelft.sp.modelchecker.controller;
 import java.io.IOException;
 import java.util.List;
 import javassist.NotFoundException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import nl.tudelft.sp.modelchecker.dto.*;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.ContainerService;
 import nl.tudelft.sp.modelchecker.services.CsvService;
+import nl.tudelft.sp.modelchecker.services.RecordResponseService;
 import nl.tudelft.sp.modelchecker.services.servicebeans.RecordJpaService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
@@ -35,6 +42,9 @@ public class CsvController extends AbstractController<Long, CsvService, Csv, Csv
     @Autowired
     CsvService csvService;
 
+    @Autowired
+    RecordResponseService recordResponseService;
+
     /**
      * Initialize a csv controller.
      *
@@ -76,6 +86,23 @@ public class CsvController extends AbstractController<Long, CsvService, Csv, Csv
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    /**
+     * Patch the records of a container. Only the changed records are sent, with
+     * the version of the csv they are based on.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @return version of the csv after the patch
+     * @throws NotFoundException NotFoundException
+     * @throws ConflictException ConflictException if the csv changed since the base version
+     */
+    @PostMapping("/patch/csv")
+    @ResponseBody
+    public ResponseEntity<Long> patch(@RequestBody RecordPatchDto recordPatchDto)
+            throws NotFoundException, ConflictException {
+        long version = containerService.patchContainer(recordPatchDto);
+        return new ResponseEntity<>(version, HttpStatus.OK);
+    }
+
     /**
      * Delete a csv.
      *
@@ -105,34 +132,80 @@ public class CsvController extends AbstractController<Long, CsvService, Csv, Csv
     }
 
     /**
-     * List all csvs.
+     * List a page of the csvs, or all csvs if no page is requested.
      *
+     * @param pageDto pageDto
      * @return list
      * @throws NotFoundException NotFoundException
      */
     @PostMapping("/list/csv")
     @ResponseBody
     @PreAuthorize("hasAuthority('APPROLE_ADMIN')")
-    public ResponseEntity<List<CsvDto>> getCsvs() throws NotFoundException {
-        return super.list(CsvDto.class);
+    public ResponseEntity<List<CsvDto>> getCsvs(
+            @RequestBody(required = false) PageDto<Long> pageDto) throws NotFoundException {
+        return super.list(CsvDto.class, pageDto);
     }
 
     /**
-     * Get records of a csv.
+     * Get records of a csv, ordered by frame and object id whether or not the csv
+     * is an overlay of its persistent csv. The serialized records are kept gzipped
+     * in the response cache, so a csv is only read again after its records change.
+     * The version of the csv is sent as ETag, one for the gzipped and one for the
+     * plain records, and a client that already has it gets 304 Not Modified
+     * without the records being read.
      *
      * @param containerDto containerDto
-     * @return records of a csv
+     * @param ifNoneMatch  ifNoneMatch
+     * @param request      request
+     * @param response     response
      * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
      */
     @PostMapping("/records/csv")
+    public void getRecordDtosInCsv(@RequestBody ContainerDto containerDto,
+                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                           required = false) String ifNoneMatch,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response)
+            throws NotFoundException, IOException {
+
+        Container container = containerService.findById(containerDto.getId());
+        if (container == null || container.getCsv() == null)
+            throw new NotFoundException("Csv not found");
+
+        CsvDto csvDto = new CsvDto(container.getCsv());
+        boolean gzip = gzipResponse(request, response);
+        String etag = etag(csvDto.getId(), service.getVersion(csvDto), gzip);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (notModified(etag, ifNoneMatch)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        recordResponseService.writeCachedRecordsInCsv(csvDto, gzip, response.getOutputStream());
+    }
+
+    /**
+     * Get the records of a csv within a window of frames or timestamps.
+     *
+     * @param frameWindowDto frameWindowDto
+     * @return records in the window, ordered by frame and object id
+     * @throws NotFoundException NotFoundException
+     */
+    @PostMapping("/records/csv/frames")
     @ResponseBody
-    public ResponseEntity<List<RecordDto>> getRecordDtosInCsv(
-            @RequestBody ContainerDto containerDto)
+    public ResponseEntity<List<RecordDto>> getRecordDtosInFrameWindow(
+            @RequestBody FrameWindowDto frameWindowDto)
             throws NotFoundException {
 
-        Container container = containerService.findById(containerDto.getId());
-        Csv csv = container.getCsv();
-        List<RecordDto> recordDtos = service.getRecordsInCsv(new CsvDto(csv));
+        Container container = containerService.findById(frameWindowDto.getId());
+        if (container == null || container.getCsv() == null)
+            throw new NotFoundException("Csv not found");
+
+        List<RecordDto> recordDtos = service.getRecordsInCsv(new CsvDto(container.getCsv()),
+                frameWindowDto.firstFrame(container), frameWindowDto.lastFrame(container));
         return new ResponseEntity<>(recordDtos, HttpStatus.OK);
     }
 }
@@ -3,6 +3,8 @@ package nl.tudelft.sp.modelchecker.controller;
 import java.io.IOException;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.DateException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @ControllerAdvice
@@ -65,6 +68,18 @@ public class ExceptionController extends ResponseEntityExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * exception handler for ConflictException.
+     *
+     * @param ex exception
+     * @return Response entity
+     */
+    @ExceptionHandler
+    public ResponseEntity<String> handleException(ConflictException ex) {
+        return new ResponseEntity<>(ExceptionUtils.getStackTrace(ex),
+                HttpStatus.CONFLICT);
+    }
+
     /**
      * exception handler for AuthorityException.
      *
@@ -89,4 +104,28 @@ public class ExceptionController extends ResponseEntityExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * exception handler for BadRequestException.
+     *
+     * @param ex exception
+     * @return Response entity
+     */
+    @ExceptionHandler
+    public ResponseEntity<String> handleException(BadRequestException ex) {
+        return new ResponseEntity<>(ExceptionUtils.getStackTrace(ex),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * exception handler for MaxUploadSizeExceededException.
+     *
+     * @param ex exception
+     * @return Response entity
+     */
+    @ExceptionHandler
+    public ResponseEntity<String> handleException(MaxUploadSizeExceededException ex) {
+        return new ResponseEntity<>(ExceptionUtils.getStackTrace(ex),
+                HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
 }
@@ -1,18 +1,25 @@
 package nl.tudelft.sp.modelchecker.controller;
 
+import java.io.IOException;
 import java.util.List;
 import javassist.NotFoundException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
+import nl.tudelft.sp.modelchecker.dto.FrameWindowDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
 import nl.tudelft.sp.modelchecker.services.ContainerService;
 import nl.tudelft.sp.modelchecker.services.PersistentCsvService;
 import nl.tudelft.sp.modelchecker.services.PersistentRecordService;
+import nl.tudelft.sp.modelchecker.services.RecordResponseService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,6 +37,9 @@ public class PersistentCsvController
     @Autowired
     ContainerService containerService;
 
+    @Autowired
+    RecordResponseService recordResponseService;
+
 
     /**
      * Instantiate Abstract Controller.
@@ -43,22 +53,66 @@ public class PersistentCsvController
     }
 
     /**
-     * Get records of a persistent csv.
+     * Get records of a persistent csv. The serialized records are kept gzipped
+     * in the response cache, so a csv is only read again after its records change.
+     * The version of the csv is sent as ETag, one for the gzipped and one for the
+     * plain records, and a client that already has it gets 304 Not Modified
+     * without the records being read.
      *
      * @param containerDto containerDto
-     * @return records of a csv
+     * @param ifNoneMatch  ifNoneMatch
+     * @param request      request
+     * @param response     response
      * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
      */
     @PostMapping("/records/persistentCsv")
+    public void getRecordDtosInPersistentCsv(@RequestBody ContainerDto containerDto,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                     required = false) String ifNoneMatch,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response)
+            throws NotFoundException, IOException {
+
+        Container container = containerService.findById(containerDto.getId());
+        if (container == null || container.getPersistentCSv() == null)
+            throw new NotFoundException("Csv not found");
+
+        CsvDto csvDto = new CsvDto(container.getPersistentCSv());
+        boolean gzip = gzipResponse(request, response);
+        String etag = etag(csvDto.getId(), service.getVersion(csvDto), gzip);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (notModified(etag, ifNoneMatch)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        recordResponseService.writeCachedRecordsInPersistentCsv(csvDto, gzip,
+                response.getOutputStream());
+    }
+
+    /**
+     * Get the records of a persistent csv within a window of frames or timestamps.
+     *
+     * @param frameWindowDto frameWindowDto
+     * @return records in the window, ordered by frame
+     * @throws NotFoundException NotFoundException
+     */
+    @PostMapping("/records/persistentCsv/frames")
     @ResponseBody
-    public ResponseEntity<List<RecordDto>> getRecordDtosInPersistentCsv(
-            @RequestBody ContainerDto containerDto)
+    public ResponseEntity<List<RecordDto>> getRecordDtosInFrameWindow(
+            @RequestBody FrameWindowDto frameWindowDto)
             throws NotFoundException {
 
-        Container container = containerService.findById(containerDto.getId());
-        PersistentCsv persistentCsv = container.getPersistentCSv();
+        Container container = containerService.findById(frameWindowDto.getId());
+        if (container == null || container.getPersistentCSv() == null)
+            throw new NotFoundException("Csv not found");
+
         List<RecordDto> recordDtos = service
-                .getRecordsInPersistentCsv(new CsvDto(persistentCsv));
+                .getRecordsInPersistentCsv(new CsvDto(container.getPersistentCSv()),
+                        frameWindowDto.firstFrame(container), frameWindowDto.lastFrame(container));
         return new ResponseEntity<>(recordDtos, HttpStatus.OK);
     }
 }
@@ -3,6 +3,7 @@ package nl.tudelft.sp.modelchecker.controller;
 import java.util.List;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectHolderDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
@@ -62,7 +63,7 @@ public class ProjectController
 
         ProjectHolder projectHolder = projectHolderService
                 .findById(projectDto.getProjectHolderId());
-        Project project = modelMapper.map(projectDto, Project.class);
+        Project project = new Project(projectDto);
 
         Admin admin = adminService.findById(projectDto.getAdminId());
 
@@ -142,17 +143,19 @@ public class ProjectController
     }
 
     /**
-     * List all projects.
+     * List a page of the projects, or all projects if no page is requested.
      *
+     * @param pageDto pageDto
      * @return listed projects.
      * @throws NotFoundException NotFoundException
      */
     @PostMapping("/list/project")
     @ResponseBody
     @PreAuthorize("hasAuthority('APPROLE_ADMIN')")
-    public ResponseEntity<List<ProjectDto>> getProjects()
+    public ResponseEntity<List<ProjectDto>> getProjects(
+            @RequestBody(required = false) PageDto<Long> pageDto)
             throws NotFoundException {
-        return super.list(ProjectDto.class);
+        return super.list(ProjectDto.class, pageDto);
     }
 
     /**
@@ -187,8 +190,7 @@ public class ProjectController
             @RequestHeader("Authorization") String bearerToken)
             throws NotFoundException, AuthorityException {
 
-        Project project = service.findById(projectDto.getId());
-        String userId = project.getProjectHolder().getClient().getId();
+        String userId = service.getClientId(projectDto);
         authService.validate(bearerToken, oid, userId);
 
         List<ContainerDto> containerDtos = service.getContainerDtosInProject(projectDto);
@@ -2,6 +2,7 @@ package nl.tudelft.sp.modelchecker.controller;
 
 import java.util.List;
 import javassist.NotFoundException;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectHolderDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
@@ -58,17 +59,19 @@ public class ProjectHolderController extends
     }
 
     /**
-     * List all projectHolders.
+     * List a page of the projectHolders, or all projectHolders if no page is requested.
      *
+     * @param pageDto pageDto
      * @return projectHolder
      * @throws NotFoundException NotFoundException
      */
     @PostMapping("/list/projectholder")
     @ResponseBody
     @PreAuthorize("hasAuthority('APPROLE_ADMIN')")
-    public ResponseEntity<List<ProjectHolderDto>> getProjectHolders()
+    public ResponseEntity<List<ProjectHolderDto>> getProjectHolders(
+            @RequestBody(required = false) PageDto<Long> pageDto)
             throws NotFoundException {
-        return super.list(ProjectHolderDto.class);
+        return super.list(ProjectHolderDto.class, pageDto);
     }
 
     /**
@@ -3,9 +3,11 @@ package nl.tudelft.sp.modelchecker.controller;
 import java.io.IOException;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.RecordListDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.dto.SubmissionDto;
 import nl.tudelft.sp.modelchecker.entities.Submission;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.SubmissionService;
 import org.modelmapper.ModelMapper;
@@ -49,6 +51,26 @@ public class SubmissionController
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    /**
+     * create submission from a patch of the records of its container.
+     *
+     * @param clientId       clientId
+     * @param recordPatchDto recordPatchDto
+     * @return version of the csv of the container after the patch
+     * @throws NotFoundException  NotFoundException
+     * @throws ExistsException    ExistsException
+     * @throws AuthorityException AuthorityException
+     * @throws ConflictException  ConflictException
+     */
+    @PostMapping("/patch/submission")
+    public ResponseEntity<Long> patch(@RequestHeader("oid") String clientId,
+                                      @RequestBody RecordPatchDto recordPatchDto)
+            throws NotFoundException, ExistsException, AuthorityException, ConflictException {
+
+        long version = service.register(recordPatchDto, clientId);
+        return new ResponseEntity<>(version, HttpStatus.OK);
+    }
+
     /**
      * endpoint for deleting submission.
      *
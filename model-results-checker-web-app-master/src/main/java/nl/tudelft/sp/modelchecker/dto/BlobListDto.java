@@ -11,4 +11,14 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class BlobListDto implements Serializable {
     List<String> blobs;
+    String next;
+
+    /**
+     * Constructor for a complete list of blobs.
+     *
+     * @param blobs blobs
+     */
+    public BlobListDto(List<String> blobs) {
+        this.blobs = blobs;
+    }
 }
@@ -0,0 +1,32 @@
+package nl.tudelft.sp.modelchecker.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Statistics of a second level cache region since the application started.
+ * The hit percentage is between 0 and 100.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDto implements Serializable {
+
+    private String region;
+
+    private long hits;
+
+    private long misses;
+
+    private float hitPercentage;
+
+    private long puts;
+
+    private long removals;
+
+    private long evictions;
+}
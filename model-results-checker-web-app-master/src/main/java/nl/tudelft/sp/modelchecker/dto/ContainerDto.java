@@ -72,6 +72,37 @@ public class ContainerDto extends Dto<Long> {
         this.blobName  = blobName;
     }
 
+    /**
+     * Constructor for containerDto.
+     *
+     * @param id              id
+     * @param blobName        blobName
+     * @param csvId           csvId
+     * @param projectId       projectId
+     * @param persistentCsvId persistentCsvId
+     * @param submissionId    submissionId
+     * @param frameRate       frameRate
+     * @param name            name
+     * @param description     description
+     * @param csvName         csvName
+     * @param className       className
+     */
+    public ContainerDto(Long id, String blobName, Long csvId, Long projectId,
+                        Long persistentCsvId, Long submissionId, Double frameRate,
+                        String name, String description, String csvName, String className) {
+        super(id);
+        this.blobName = blobName;
+        this.csvId = csvId;
+        this.projectId = projectId;
+        this.persistentCsvId = persistentCsvId;
+        this.submissionId = submissionId;
+        this.frameRate = frameRate;
+        this.name = name;
+        this.description = description;
+        this.csvName = csvName;
+        this.className = className;
+    }
+
     /**
      * Constructor for containerDto.
      *
@@ -0,0 +1,88 @@
+package nl.tudelft.sp.modelchecker.dto;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.SneakyThrows;
+
+/**
+ * Creates dtos from entities with their one argument constructors. The constructor
+ * of a dto for an entity class is looked up once and kept as a method handle, so
+ * converting a list of entities does not search the constructors for every element.
+ * The constructor taking the most specific supertype of the entity class is used,
+ * which also finds the constructor for hibernate proxies and subclasses.
+ */
+public final class DtoFactory {
+
+    private static final int ARGUMENTS = 1;
+
+    private static final MethodType CONSTRUCTOR_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+
+    private static final Map<Class<?>, Map<Class<?>, MethodHandle>> CONSTRUCTORS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Utility class.
+     */
+    private DtoFactory() {
+    }
+
+    /**
+     * Create a dto of class dtoClass from an entity.
+     *
+     * @param dtoClass dtoClass
+     * @param entity   entity
+     * @param <D>      type of the dto
+     * @return dto
+     */
+    @SneakyThrows
+    public static <D> D create(Class<D> dtoClass, Object entity) {
+        return dtoClass.cast((Object) constructor(dtoClass, entity.getClass())
+                .invokeExact(entity));
+    }
+
+    /**
+     * Get the cached constructor of a dto class for an entity class.
+     *
+     * @param dtoClass    dtoClass
+     * @param entityClass entityClass
+     * @return constructor handle taking an Object and returning an Object
+     */
+    static MethodHandle constructor(Class<?> dtoClass, Class<?> entityClass) {
+        return CONSTRUCTORS.computeIfAbsent(dtoClass, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(entityClass, n -> lookup(dtoClass, n));
+    }
+
+    /**
+     * Find the one argument constructor of a dto class with the most specific
+     * parameter type the entity class can be assigned to.
+     *
+     * @param dtoClass    dtoClass
+     * @param entityClass entityClass
+     * @return constructor handle taking an Object and returning an Object
+     */
+    @SneakyThrows
+    private static MethodHandle lookup(Class<?> dtoClass, Class<?> entityClass) {
+        Constructor<?> found = null;
+        for (Constructor<?> constructor : dtoClass.getConstructors()) {
+            if (constructor.getParameterCount() != ARGUMENTS) continue;
+
+            Class<?> parameter = constructor.getParameterTypes()[0];
+            if (parameter.isAssignableFrom(entityClass) && (found == null
+                    || found.getParameterTypes()[0].isAssignableFrom(parameter))) {
+                found = constructor;
+            }
+        }
+
+        if (found == null) {
+            throw new IllegalStateException("No constructor of " + dtoClass.getName()
+                    + " for " + entityClass.getName());
+        }
+        return MethodHandles.publicLookup().unreflectConstructor(found)
+                .asType(CONSTRUCTOR_TYPE);
+    }
+}
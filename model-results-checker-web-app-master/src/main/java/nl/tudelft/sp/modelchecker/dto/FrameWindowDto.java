@@ -0,0 +1,76 @@
+package nl.tudelft.sp.modelchecker.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import nl.tudelft.sp.modelchecker.entities.GenericContainer;
+
+/**
+ * A window of frames of a container, given either as frame numbers
+ * or as timestamps in seconds. The id is the id of the container.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class FrameWindowDto extends Dto<Long> {
+
+    private Integer frameFrom;
+
+    private Integer frameTo;
+
+    private Double timeFrom;
+
+    private Double timeTo;
+
+    /**
+     * Constructor for a window of frame numbers.
+     *
+     * @param containerId containerId
+     * @param frameFrom   frameFrom
+     * @param frameTo     frameTo
+     */
+    public FrameWindowDto(Long containerId, Integer frameFrom, Integer frameTo) {
+        super(containerId);
+        this.frameFrom = frameFrom;
+        this.frameTo = frameTo;
+    }
+
+    /**
+     * Constructor for a window of timestamps.
+     *
+     * @param containerId containerId
+     * @param timeFrom    timeFrom
+     * @param timeTo      timeTo
+     */
+    public FrameWindowDto(Long containerId, Double timeFrom, Double timeTo) {
+        super(containerId);
+        this.timeFrom = timeFrom;
+        this.timeTo = timeTo;
+    }
+
+    /**
+     * Get the first frame of the window, the start of the video if it is open.
+     *
+     * @param container container
+     * @return first frame
+     */
+    public int firstFrame(GenericContainer container) {
+        if (frameFrom != null) return frameFrom;
+        if (timeFrom != null) return container.frameAt(timeFrom);
+        return 0;
+    }
+
+    /**
+     * Get the last frame of the window, the end of the video if it is open.
+     *
+     * @param container container
+     * @return last frame
+     */
+    public int lastFrame(GenericContainer container) {
+        if (frameTo != null) return frameTo;
+        if (timeTo != null) return container.frameAt(timeTo);
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,56 @@
+package nl.tudelft.sp.modelchecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A keyset page request. The next page starts after the entity with id after,
+ * in the order of the sort attribute, ties broken by id.
+ *
+ * @param <K> type of the id
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<K> {
+
+    /**
+     * Number of items in a page if no size is given.
+     */
+    public static final int DEFAULT_SIZE = 100;
+
+    /**
+     * Maximal number of items in a page.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    private Integer size;
+
+    private K after;
+
+    private String sort;
+
+    private boolean descending;
+
+    /**
+     * Constructor for a page ordered by id.
+     *
+     * @param size  size
+     * @param after after
+     */
+    public PageDto(Integer size, K after) {
+        this.size = size;
+        this.after = after;
+    }
+
+    /**
+     * Get the number of items in the page, bounded by the maximal size.
+     *
+     * @return size
+     */
+    public int limit() {
+        if (size == null || size <= 0) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+}
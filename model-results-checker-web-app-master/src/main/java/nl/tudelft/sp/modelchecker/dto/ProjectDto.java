@@ -70,10 +70,10 @@ public class ProjectDto extends Dto<Long> {
         if (project.getDescription() != null) {
             this.description = project.getDescription();
         }
-        if (project.getProjectHolder().getId() != null) {
+        if (project.getProjectHolder() != null) {
             this.projectHolderId = project.getProjectHolder().getId();
         }
-        if (project.getAdmin().getId() != null) {
+        if (project.getAdmin() != null) {
             this.adminId = project.getAdmin().getId();
         }
     }
@@ -1,7 +1,11 @@
 package nl.tudelft.sp.modelchecker.dto;
 
 
+import java.util.Comparator;
 import lombok.*;
+import nl.tudelft.sp.modelchecker.entities.GenericRecord;
+import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
+import nl.tudelft.sp.modelchecker.entities.Record;
 
 @Getter
 @Setter
@@ -40,14 +44,54 @@ public class RecordDto extends Dto<Long> implements Comparable<RecordDto> {
     }
 
     /**
-     * Compare to another Record.
+     * Constructor for RecordDto.
+     *
+     * @param record record
+     */
+    public RecordDto(Record record) {
+        this(record, record.getCsv() == null ? null : record.getCsv().getId());
+    }
+
+    /**
+     * Constructor for RecordDto.
+     *
+     * @param persistentRecord persistentRecord
+     */
+    public RecordDto(PersistentRecord persistentRecord) {
+        this(persistentRecord, persistentRecord.getPersistentCsv() == null
+                ? null : persistentRecord.getPersistentCsv().getId());
+    }
+
+    /**
+     * Constructor for RecordDto.
+     *
+     * @param record record
+     * @param csvId  csvId
+     */
+    private RecordDto(GenericRecord record, Long csvId) {
+        super(record.getId());
+        this.frameNum = record.getFrameNum();
+        this.objectId = record.getObjectId();
+        this.label = record.getLabel();
+        this.trackerL = record.getTrackerL();
+        this.trackerT = record.getTrackerT();
+        this.trackerW = record.getTrackerW();
+        this.trackerH = record.getTrackerH();
+        this.modelConfidence = record.getModelConfidence();
+        this.trackerConfidence = record.getTrackerConfidence();
+        this.csvId = csvId;
+    }
+
+    /**
+     * Compare to another Record by id. Records without an id, the records of the
+     * persistent csv in an overlay, come last.
      *
      * @param o o
      * @return record
      */
     @Override
     public int compareTo(RecordDto o) {
-        return this.id.compareTo(o.id);
+        return Comparator.nullsLast(Comparator.<Long>naturalOrder()).compare(this.id, o.id);
     }
 
 }
@@ -0,0 +1,24 @@
+package nl.tudelft.sp.modelchecker.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes to the records of a container since the version of its csv the client
+ * has loaded. Records are keyed by the csv of the container and their object id:
+ * saved records are created or overwrite the record with the same object id, and
+ * only the object ids of deleted records are used.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordPatchDto implements Serializable {
+    Long containerId;
+    Long baseVersion;
+    List<RecordDto> saved = new ArrayList<>();
+    List<RecordDto> deleted = new ArrayList<>();
+}
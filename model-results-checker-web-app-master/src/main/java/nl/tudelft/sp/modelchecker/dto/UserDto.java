@@ -31,6 +31,24 @@ public class UserDto extends Dto<String> {
     }
 
 
+    /**
+     * Constructor for UserDto, used by queries that select the columns of a user.
+     *
+     * @param id               id
+     * @param email            email
+     * @param username         username
+     * @param registrationDate registrationTime
+     */
+    public UserDto(String id, String email, String username,
+                   java.util.Date registrationDate) {
+        super(id);
+        this.email = email;
+        this.username = username;
+        if (registrationDate != null) {
+            this.registrationDate = new Date(registrationDate.getTime());
+        }
+    }
+
     /**
      * Constructor for user.
      *
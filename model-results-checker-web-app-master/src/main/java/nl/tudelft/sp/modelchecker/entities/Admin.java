@@ -20,7 +20,6 @@ import org.hibernate.annotations.FetchMode;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @DiscriminatorValue("Admin")
-@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Admin extends User {
 
 
@@ -28,8 +27,14 @@ public class Admin extends User {
             cascade = CascadeType.ALL,
             mappedBy = "admin")
     @Fetch(FetchMode.SELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Project> projects = new HashSet<>();
 
+    /**
+     * Set on removal of this admin, so its projects leave the collection as it is.
+     */
+    private transient boolean removed;
+
     /**
      * Constructor for admin.
      *
@@ -41,4 +46,12 @@ public class Admin extends User {
         super(id, username, email, registrationTime);
     }
 
+    /**
+     * Mark this admin as removed.
+     */
+    @PreRemove
+    void remove() {
+        removed = true;
+    }
+
 }
@@ -6,8 +6,6 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Cache;
-import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -15,7 +13,6 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @DiscriminatorValue("BasicUser")
-@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class BasicUser extends User {
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
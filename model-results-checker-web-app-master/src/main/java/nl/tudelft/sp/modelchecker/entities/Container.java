@@ -1,8 +1,6 @@
 package nl.tudelft.sp.modelchecker.entities;
 
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 import javax.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -16,7 +14,6 @@ import org.hibernate.annotations.OnDeleteAction;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(callSuper = true)
 @ToString
 @Table(name = "container")
 @SuperBuilder
@@ -28,20 +25,16 @@ public class Container extends GenericContainer {
 
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @EqualsAndHashCode.Exclude
     private Csv csv;
 
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @EqualsAndHashCode.Exclude
     private PersistentCsv persistentCSv;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @EqualsAndHashCode.Exclude
     private Project project;
 
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @EqualsAndHashCode.Exclude
     private Submission submission;
 
     /**
@@ -64,10 +57,9 @@ public class Container extends GenericContainer {
             submission.setContainer(null);
         }
 
-        Set<Container> containers = new LinkedHashSet<>(project.getContainers()) {
-        };
-        containers.remove(this);
-        project.setContainers(containers);
+        if (project != null && !project.isRemoved()) {
+            Entities.removeIfLoaded(project.getContainers(), this);
+        }
     }
 
 }
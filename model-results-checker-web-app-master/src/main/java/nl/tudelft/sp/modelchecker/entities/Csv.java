@@ -6,15 +6,13 @@ import javax.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode
 @Table(name = "CSV")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Csv implements SuperEntity<Long> {
@@ -24,22 +22,65 @@ public class Csv implements SuperEntity<Long> {
     @Column(name = "csv_id", unique = true, nullable = false)
     private Long id;
 
+    /**
+     * Version of the records, incremented in the database whenever they change.
+     * It is never written from the entity, so a loaded csv does not overwrite it.
+     */
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
+
+    /**
+     * True if only the records that differ from the persistent csv of the container
+     * are stored: changed and added records, and tombstones for deleted ones. The
+     * records of the csv are the merge of both. Like the version, it is never
+     * written from the entity once the csv is inserted.
+     */
+    @ColumnDefault("false")
+    @Column(name = "overlay", nullable = false, updatable = false)
+    private boolean overlay;
+
     @OneToOne(fetch = FetchType.LAZY)
     private Container container;
     @OneToMany(fetch = FetchType.LAZY,
             cascade = {CascadeType.ALL},
             mappedBy = "csv")
-    @Fetch(FetchMode.JOIN)
     private Set<Record> records = new HashSet<>();
 
+    /**
+     * Set on removal of this csv, so its records leave the collection as it is.
+     */
+    private transient boolean removed;
+
     /**
      * Remove foreignKey Constraints.
      */
     @PreRemove
     public void remove() {
+        removed = true;
         if (container != null) {
             container.setCsv(null);
         }
     }
 
+    /**
+     * Check if this csv is equal to another object, by class and id.
+     *
+     * @param o o
+     * @return true if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return Entities.sameEntity(this, o);
+    }
+
+    /**
+     * Get the hash code of this csv, which does not change with its attributes.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Entities.idHashCode(this);
+    }
 }
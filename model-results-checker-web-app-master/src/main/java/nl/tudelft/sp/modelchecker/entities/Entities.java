@@ -0,0 +1,78 @@
+package nl.tudelft.sp.modelchecker.entities;
+
+import java.util.Collection;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxyHelper;
+
+/**
+ * Identity and association helpers shared by the entities. Entities are equal
+ * when they are of the same class and have the same id, so their hash code does
+ * not change when their attributes do. Child collections are only kept in sync
+ * when they are already loaded, the owning side of an association is what gets
+ * written to the database. A new child is added to them after it is saved, once
+ * its id and so its hash code are fixed.
+ */
+public final class Entities {
+
+    /**
+     * Utility class.
+     */
+    private Entities() {
+    }
+
+    /**
+     * Check if an entity is equal to another object, by class and id.
+     * An entity without id is only equal to itself.
+     *
+     * @param entity entity
+     * @param o      o
+     * @return true if equal
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public static boolean sameEntity(SuperEntity<?> entity, Object o) {
+        if (entity == o) return true;
+        if (!(o instanceof SuperEntity)
+                || HibernateProxyHelper.getClassWithoutInitializingProxy(o) != entity.getClass()) {
+            return false;
+        }
+
+        Object id = entity.getId();
+        return id != null && id.equals(((SuperEntity<?>) o).getId());
+    }
+
+    /**
+     * Get the hash code of an entity from its id. An entity without id only
+     * equals itself, so it gets its identity hash code.
+     *
+     * @param entity entity
+     * @return hash code
+     */
+    public static int idHashCode(SuperEntity<?> entity) {
+        Object id = entity.getId();
+        return id == null ? System.identityHashCode(entity) : id.hashCode();
+    }
+
+    /**
+     * Add a child to a collection of its parent, if the collection is loaded.
+     *
+     * @param children children
+     * @param child    child
+     * @param <E>      type of the child
+     */
+    public static <E> void addIfLoaded(Collection<E> children, E child) {
+        if (Hibernate.isInitialized(children)) children.add(child);
+    }
+
+    /**
+     * Remove a child from a collection of its parent, if the collection is loaded.
+     * A child that is removed leaves the collection of a parent that is removed
+     * too as it is, because the cascade of the parent iterates it.
+     *
+     * @param children children
+     * @param child    child
+     * @param <E>      type of the child
+     */
+    public static <E> void removeIfLoaded(Collection<E> children, E child) {
+        if (Hibernate.isInitialized(children)) children.remove(child);
+    }
+}
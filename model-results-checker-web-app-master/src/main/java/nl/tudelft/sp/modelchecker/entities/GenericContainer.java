@@ -3,19 +3,32 @@ package nl.tudelft.sp.modelchecker.entities;
 import javax.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode
 @ToString
 @MappedSuperclass
 @SuperBuilder
 public abstract class GenericContainer implements SuperEntity<Long> {
 
+    /**
+     * Number of ids reserved by a single call to the container sequence.
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "container_id_generator")
+    @GenericGenerator(name = "container_id_generator",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                @Parameter(name = "prefer_sequence_per_entity", value = "true"),
+                @Parameter(name = "increment_size", value = "" + ID_BLOCK_SIZE),
+                @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     @Column(name = "container_id", unique = true, nullable = false)
     private Long id;
 
@@ -51,4 +64,34 @@ public abstract class GenericContainer implements SuperEntity<Long> {
         this.name = name;
     }
 
+    /**
+     * Get the number of the frame shown at a timestamp.
+     *
+     * @param seconds seconds
+     * @return frame number
+     */
+    public int frameAt(double seconds) {
+        return (int) Math.floor(seconds * frameRate);
+    }
+
+    /**
+     * Check if this container is equal to another object, by class and id.
+     *
+     * @param o o
+     * @return true if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return Entities.sameEntity(this, o);
+    }
+
+    /**
+     * Get the hash code of this container, which does not change with its attributes.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Entities.idHashCode(this);
+    }
 }
@@ -4,19 +4,32 @@ import javax.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode
 @MappedSuperclass
 @SuperBuilder
 public abstract class GenericRecord implements SuperEntity<Long> {
 
+    /**
+     * Number of ids reserved by a single call to the record sequence.
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "record_id_generator")
+    @GenericGenerator(name = "record_id_generator",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                @Parameter(name = "prefer_sequence_per_entity", value = "true"),
+                @Parameter(name = "increment_size", value = "" + ID_BLOCK_SIZE),
+                @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     @Column(name = "record_id", unique = true, nullable = false)
     private Long id;
 
@@ -55,4 +68,24 @@ public abstract class GenericRecord implements SuperEntity<Long> {
         setTrackerConfidence(newDto.getTrackerConfidence());
     }
 
+    /**
+     * Check if this record is equal to another object, by class and id.
+     *
+     * @param o o
+     * @return true if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return Entities.sameEntity(this, o);
+    }
+
+    /**
+     * Get the hash code of this record, which does not change with its attributes.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Entities.idHashCode(this);
+    }
 }
@@ -6,15 +6,13 @@ import javax.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode
 @Table(name = "persistent_csv")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PersistentCsv implements SuperEntity<Long> {
@@ -24,21 +22,55 @@ public class PersistentCsv implements SuperEntity<Long> {
     @Column(name = "persistent_csv_id", unique = true, nullable = false)
     private Long id;
 
+    /**
+     * Version of the persistent records, incremented in the database whenever they change.
+     * It is never written from the entity, so a loaded csv does not overwrite it.
+     */
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
+
     @OneToOne(fetch = FetchType.LAZY)
     private Container container;
     @OneToMany(fetch = FetchType.LAZY,
             cascade = {CascadeType.ALL},
             mappedBy = "persistentCsv")
-    @Fetch(FetchMode.JOIN)
     private Set<PersistentRecord> persistentRecords = new HashSet<>();
 
+    /**
+     * Set on removal of this persistent csv, so its records leave the collection as it is.
+     */
+    private transient boolean removed;
+
     /**
      * Remove foreignKey Constraints.
      */
     @PreRemove
     public void remove() {
+        removed = true;
         if (container != null) {
             container.setPersistentCSv(null);
         }
     }
+
+    /**
+     * Check if this persistent csv is equal to another object, by class and id.
+     *
+     * @param o o
+     * @return true if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return Entities.sameEntity(this, o);
+    }
+
+    /**
+     * Get the hash code of this persistent csv, which does not change with its attributes.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Entities.idHashCode(this);
+    }
 }
@@ -1,7 +1,5 @@
 package nl.tudelft.sp.modelchecker.entities;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
 import javax.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -13,23 +11,20 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(callSuper = true)
-@Table(name = "PersistentRecord")
+@Table(name = "PersistentRecord", indexes = {@Index(name = "idx_persistent_record_csv_frame_num",
+        columnList = "persistent_csv_persistent_csv_id, frameNum")})
 @SuperBuilder
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PersistentRecord extends GenericRecord {
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
-    @EqualsAndHashCode.Exclude
     private PersistentCsv persistentCsv;
 
 
     @PreRemove
     void remove() {
-        Set<PersistentRecord> persistentRecords = new LinkedHashSet<>(
-                persistentCsv.getPersistentRecords()) {
-        };
-        persistentRecords.remove(this);
-        persistentCsv.setPersistentRecords(persistentRecords);
+        if (!persistentCsv.isRemoved()) {
+            Entities.removeIfLoaded(persistentCsv.getPersistentRecords(), this);
+        }
     }
 }
@@ -1,10 +1,12 @@
 package nl.tudelft.sp.modelchecker.entities;
 
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.Set;
 import javax.persistence.*;
 import lombok.*;
+import nl.tudelft.sp.modelchecker.dto.ProjectDto;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -13,8 +15,8 @@ import org.hibernate.annotations.OnDeleteAction;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode
 @Table(name = "project")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Project implements SuperEntity<Long> {
 
     @Id
@@ -29,18 +31,22 @@ public class Project implements SuperEntity<Long> {
     private String description;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @EqualsAndHashCode.Exclude
     private Admin admin;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @EqualsAndHashCode.Exclude
     private ProjectHolder projectHolder;
 
     @OneToMany(mappedBy = "project", fetch = FetchType.LAZY,
             cascade = CascadeType.ALL)
     @OnDelete(action = OnDeleteAction.CASCADE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Container> containers = new HashSet<>();
 
+    /**
+     * Set on removal of this project, so its containers leave the collection as it is.
+     */
+    private transient boolean removed;
+
     /**
      * Constructor for Project.
      *
@@ -52,20 +58,49 @@ public class Project implements SuperEntity<Long> {
         this.description = description;
     }
 
+    /**
+     * Constructor for Project. The admin and projectHolder are not set.
+     *
+     * @param projectDto projectDto
+     */
+    public Project(ProjectDto projectDto) {
+        this.id = projectDto.getId();
+        this.title = projectDto.getTitle();
+        this.description = projectDto.getDescription();
+    }
+
     /**
      * Remove foreignKey Constraints.
      */
     @PreRemove
     public void remove() {
-        Set<Project> projects = new LinkedHashSet<>(projectHolder.getProjects()) {
-        };
-        projects.remove(this);
-        projectHolder.setProjects(projects);
+        removed = true;
+        if (projectHolder != null && !projectHolder.isRemoved()) {
+            Entities.removeIfLoaded(projectHolder.getProjects(), this);
+        }
+        if (admin != null && !admin.isRemoved()) {
+            Entities.removeIfLoaded(admin.getProjects(), this);
+        }
+    }
 
-        Set<Project> adminProjects = new LinkedHashSet<>(admin.getProjects()) {
-        };
-        adminProjects.remove(this);
-        admin.setProjects(adminProjects);
+    /**
+     * Check if this project is equal to another object, by class and id.
+     *
+     * @param o o
+     * @return true if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return Entities.sameEntity(this, o);
     }
 
+    /**
+     * Get the hash code of this project, which does not change with its attributes.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Entities.idHashCode(this);
+    }
 }
@@ -4,6 +4,8 @@ import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -13,6 +15,7 @@ import lombok.*;
 @EqualsAndHashCode
 @ToString
 @Table(name = "projectHolder")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ProjectHolder implements SuperEntity<Long> {
 
     @Id
@@ -26,13 +29,20 @@ public class ProjectHolder implements SuperEntity<Long> {
 
     @OneToMany(mappedBy = "projectHolder", fetch = FetchType.LAZY,
             cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Project> projects = new HashSet<>();
 
+    /**
+     * Set on removal of this project holder, so its projects leave the collection as it is.
+     */
+    private transient boolean removed;
+
     /**
      * Remove foreign key constraints.
      */
     @PreRemove
     void remove() {
+        removed = true;
         if (client != null) {
             client.setProjectHolder(null);
         }
@@ -1,12 +1,12 @@
 package nl.tudelft.sp.modelchecker.entities;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
 import javax.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 
 @Entity
@@ -14,24 +14,43 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(callSuper = true)
-@Table(name = "Record", indexes = {@Index(columnList = "csv_csv_id,objectId")})
+@Table(name = "Record", uniqueConstraints = {@UniqueConstraint(name = "uk_record_csv_object_id",
+        columnNames = {"csv_csv_id", "objectId"})},
+        indexes = {@Index(name = "idx_record_csv_frame_num", columnList = "csv_csv_id, frameNum")})
 @SuperBuilder
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Record extends GenericRecord {
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
-    @EqualsAndHashCode.Exclude
     private Csv csv;
 
+    /**
+     * Marks a record of the persistent csv as deleted from an overlay csv.
+     * Records of a csv that is not an overlay are never tombstones.
+     */
+    @ColumnDefault("false")
+    @Column(name = "tombstone", nullable = false)
+    private boolean tombstone;
+
+    /**
+     * Create a record with the id and attributes of a recordDto.
+     * The csv is not set.
+     *
+     * @param recordDto recordDto
+     * @return record
+     */
+    public static Record fromDto(RecordDto recordDto) {
+        Record record = new Record();
+        record.setId(recordDto.getId());
+        record.updateAttributes(recordDto);
+        return record;
+    }
+
     /**
      * Remove foreign key constraints.
      */
     @PreRemove
     void remove() {
-        Set<Record> records = new LinkedHashSet<>(csv.getRecords()) {
-        };
-        records.remove(this);
-        csv.setRecords(records);
+        if (!csv.isRemoved()) Entities.removeIfLoaded(csv.getRecords(), this);
     }
 }
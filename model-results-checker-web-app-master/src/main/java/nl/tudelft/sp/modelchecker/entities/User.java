@@ -4,6 +4,8 @@ import java.sql.Date;
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -15,7 +17,9 @@ import lombok.*;
 @DiscriminatorValue(value = "type")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @ToString
-@Table(name = "user_account")
+@Table(name = "user_account", indexes = {@Index(name = "idx_user_account_type",
+        columnList = "type, id")})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public abstract class User implements SuperEntity<String> {
 
     @Id
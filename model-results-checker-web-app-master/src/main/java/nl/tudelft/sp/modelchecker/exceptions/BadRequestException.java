@@ -0,0 +1,27 @@
+package nl.tudelft.sp.modelchecker.exceptions;
+
+/**
+ * Thrown when a request is invalid, such as a malformed csv or an unknown sort key.
+ * It is unchecked, so the parsers can throw it while iterating over records.
+ */
+public class BadRequestException extends IllegalArgumentException {
+
+    /**
+     * BadRequestException.
+     *
+     * @param errorMessage errorMessage
+     */
+    public BadRequestException(String errorMessage) {
+        super(errorMessage);
+    }
+
+    /**
+     * BadRequestException.
+     *
+     * @param errorMessage errorMessage
+     * @param cause        cause
+     */
+    public BadRequestException(String errorMessage, Throwable cause) {
+        super(errorMessage, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package nl.tudelft.sp.modelchecker.exceptions;
+
+public class ConflictException extends Exception {
+    /**
+     * ConflictException.
+     *
+     * @param errorMessage errorMessage
+     */
+    public ConflictException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -20,9 +20,18 @@ public abstract class AbstractAdaptor implements RecordConvertor<List<Record>> {
      * @param file file
      */
     public AbstractAdaptor(MultipartFile file) {
-        if (!hasCsvformat(file)) throw new AssertionError();
-
+        this(file.getContentType());
         this.file = file;
+    }
+
+    /**
+     * Initialize a AbstractAdaptor for a stream with the given content type.
+     *
+     * @param contentType contentType
+     */
+    public AbstractAdaptor(String contentType) {
+        if (!hasCsvformat(contentType)) throw new AssertionError();
+
         this.recordList = new ArrayList<>();
     }
 
@@ -33,9 +42,22 @@ public abstract class AbstractAdaptor implements RecordConvertor<List<Record>> {
      * @return boolean
      */
     public final boolean hasCsvformat(MultipartFile file) {
-        return TYPE.equals(file.getContentType())
-                || TYPEMS.equals(file.getContentType())
-                || EXCEL.equals(file.getContentType());
+        return hasCsvformat(file.getContentType());
+    }
+
+    /**
+     * Function to check if a content type is a csvFormat.
+     *
+     * @param contentType contentType
+     * @return boolean
+     */
+    public final boolean hasCsvformat(String contentType) {
+        return TYPE.equals(contentType)
+                || TYPEMS.equals(contentType)
+                || EXCEL.equals(contentType)
+                || GZIP.equals(contentType)
+                || XGZIP.equals(contentType)
+                || ZSTD.equals(contentType);
     }
 
 }
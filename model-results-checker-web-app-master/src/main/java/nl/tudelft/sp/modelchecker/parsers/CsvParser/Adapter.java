@@ -1,24 +1,56 @@
 package nl.tudelft.sp.modelchecker.parsers.CsvParser;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.List;
 import nl.tudelft.sp.modelchecker.entities.Record;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.config.CsvEngine;
 import org.springframework.web.multipart.MultipartFile;
 
 public class Adapter extends AbstractAdaptor {
 
+    private final CsvEngine csvEngine;
+
     /**
      * Initialize an adapter.
      *
      * @param file file
      */
     public Adapter(MultipartFile file) {
+        this(file, defaultEngine);
+    }
+
+    /**
+     * Initialize an adapter that parses with the given engine.
+     *
+     * @param file      file
+     * @param csvEngine csvEngine
+     */
+    public Adapter(MultipartFile file, CsvEngine csvEngine) {
         super(file);
+        this.csvEngine = csvEngine;
+    }
+
+    /**
+     * Initialize an adapter for a stream with the given content type.
+     *
+     * @param contentType contentType
+     */
+    public Adapter(String contentType) {
+        this(contentType, defaultEngine);
+    }
+
+    /**
+     * Initialize an adapter for a stream with the given content type, that parses
+     * with the given engine.
+     *
+     * @param contentType contentType
+     * @param csvEngine   csvEngine
+     */
+    public Adapter(String contentType, CsvEngine csvEngine) {
+        super(contentType);
+        this.csvEngine = csvEngine;
     }
 
     /**
@@ -28,36 +60,40 @@ public class Adapter extends AbstractAdaptor {
      * @return List of records
      * @throws IOException IOException
      */
-    @SuppressWarnings("PMD.CloseResource")
-    //PMD wants a try finally clause, but this is sufficient.
     private List<Record> storeCsv(InputStream stream) throws IOException {
 
-        BufferedReader fileReader = new BufferedReader(new InputStreamReader(stream, global));
-        CSVParser csvParser = new CSVParser(fileReader, csvFormat);
-
-        Iterable<CSVRecord> csvRecordIterable = csvParser.getRecords();
-
-        for (CSVRecord csvRecord : csvRecordIterable) {
-            Record record = Record.builder()
-                    .frameNum(Integer.parseInt(csvRecord.get("frame_num")))
-                    .objectId(Integer.parseInt(csvRecord.get("object_id")))
-                    .label((csvRecord.get("label")))
-                    .trackerL(Integer.parseInt(csvRecord.get("tracker_l")))
-                    .trackerT(Integer.parseInt(csvRecord.get("tracker_t")))
-                    .trackerW(Integer.parseInt(csvRecord.get("tracker_w")))
-                    .trackerH(Integer.parseInt(csvRecord.get("tracker_h")))
-                    .modelConfidence(Double.parseDouble(csvRecord.get("model_confidence")))
-                    .trackerConfidence(Double.parseDouble(csvRecord.get("tracker_confidence")))
-                    .build();
-
-            recordList.add(record);
+        try (RecordReader recordReader = iterateRecords(stream)) {
+            recordReader.forEachRemaining(recordList::add);
         }
 
-        fileReader.close();
-        csvParser.close();
         return recordList;
     }
 
+    /**
+     * Iterate lazily over the records of a multipartFile.
+     * The caller is responsible for closing the returned iterator.
+     *
+     * @param multipartFile multipartFile
+     * @return RecordReader
+     * @throws IOException IOException
+     */
+    public RecordReader iterateRecords(MultipartFile multipartFile) throws IOException {
+        return iterateRecords(multipartFile.getInputStream());
+    }
+
+    /**
+     * Iterate lazily over the records of a stream, which may be gzip or zstd compressed.
+     * The caller is responsible for closing the returned iterator. A malformed row
+     * is reported as a BadRequestException, whichever engine reads the stream.
+     *
+     * @param stream stream
+     * @return RecordReader
+     * @throws IOException IOException
+     */
+    public RecordReader iterateRecords(InputStream stream) throws IOException {
+        return new CheckedRecordReader(csvEngine.open(Decompressor.decompress(stream)));
+    }
+
     /**
      * Get all the records from a multipartFile.
      *
@@ -69,8 +105,64 @@ public class Adapter extends AbstractAdaptor {
     public List<Record> getRecords(MultipartFile multipartFile) throws IOException {
         return storeCsv(multipartFile.getInputStream());
     }
-}
 
+    /**
+     * Reader that reports the malformed rows of another reader as a bad request,
+     * as the csv comes from the client.
+     */
+    private static final class CheckedRecordReader implements RecordReader {
+
+        private final RecordReader recordReader;
+
+        /**
+         * Initialize a CheckedRecordReader.
+         *
+         * @param recordReader recordReader
+         */
+        private CheckedRecordReader(RecordReader recordReader) {
+            this.recordReader = recordReader;
+        }
 
+        /**
+         * Check if there is another row.
+         *
+         * @return boolean
+         */
+        @Override
+        public boolean hasNext() {
+            try {
+                return recordReader.hasNext();
+            } catch (BadRequestException e) {
+                throw e;
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Malformed csv: " + e.getMessage(), e);
+            }
+        }
 
+        /**
+         * Read the next row as a record.
+         *
+         * @return Record
+         */
+        @Override
+        public Record next() {
+            try {
+                return recordReader.next();
+            } catch (BadRequestException e) {
+                throw e;
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Malformed csv: " + e.getMessage(), e);
+            }
+        }
 
+        /**
+         * Close the underlying reader.
+         *
+         * @throws IOException IOException
+         */
+        @Override
+        public void close() throws IOException {
+            recordReader.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package nl.tudelft.sp.modelchecker.parsers.CsvParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.config.Configuration;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Lazily reads records from a csv stream through commons-csv,
+ * so that only the current row is held in memory.
+ */
+public class CommonsCsvReader implements RecordReader, Configuration {
+
+    private final CSVParser csvParser;
+    private final Iterator<CSVRecord> csvRecordIterator;
+
+    /**
+     * Initialize a CommonsCsvReader.
+     *
+     * @param stream stream
+     * @throws IOException IOException
+     */
+    public CommonsCsvReader(InputStream stream) throws IOException {
+        BufferedReader fileReader = new BufferedReader(new InputStreamReader(stream, global));
+        this.csvParser = new CSVParser(fileReader, csvFormat);
+        this.csvRecordIterator = csvParser.iterator();
+    }
+
+    /**
+     * Convert a csv row into a record.
+     *
+     * @param csvRecord csvRecord
+     * @return Record
+     */
+    public static Record toRecord(CSVRecord csvRecord) {
+        return Record.builder()
+                .frameNum(Integer.parseInt(csvRecord.get("frame_num")))
+                .objectId(Integer.parseInt(csvRecord.get("object_id")))
+                .label((csvRecord.get("label")))
+                .trackerL(Integer.parseInt(csvRecord.get("tracker_l")))
+                .trackerT(Integer.parseInt(csvRecord.get("tracker_t")))
+                .trackerW(Integer.parseInt(csvRecord.get("tracker_w")))
+                .trackerH(Integer.parseInt(csvRecord.get("tracker_h")))
+                .modelConfidence(Double.parseDouble(csvRecord.get("model_confidence")))
+                .trackerConfidence(Double.parseDouble(csvRecord.get("tracker_confidence")))
+                .build();
+    }
+
+    /**
+     * Check if there is another row.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            return csvRecordIterator.hasNext();
+        } catch (IllegalStateException e) {
+            throw malformed(e);
+        }
+    }
+
+    /**
+     * Read the next row as a record.
+     *
+     * @return Record
+     */
+    @Override
+    public Record next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return toRecord(csvRecordIterator.next());
+    }
+
+    /**
+     * Convert a lexer error of commons-csv, which it wraps in an IllegalStateException
+     * with a plain IOException as cause, into the IllegalArgumentException of other
+     * malformed rows. Failures of the stream itself are rethrown as they are.
+     *
+     * @param e e
+     * @return exception to throw
+     */
+    private static RuntimeException malformed(IllegalStateException e) {
+        Throwable cause = e.getCause();
+        if (cause == null || cause.getClass() != IOException.class) return e;
+        return new IllegalArgumentException(cause.getMessage(), cause);
+    }
+
+    /**
+     * Close the underlying parser and stream.
+     *
+     * @throws IOException IOException
+     */
+    @Override
+    public void close() throws IOException {
+        csvParser.close();
+    }
+}
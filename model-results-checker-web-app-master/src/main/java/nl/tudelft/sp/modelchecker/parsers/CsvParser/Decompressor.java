@@ -0,0 +1,59 @@
+package nl.tudelft.sp.modelchecker.parsers.CsvParser;
+
+import com.github.luben.zstd.ZstdInputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Detects gzip and zstd compressed csv streams by their magic bytes
+ * and decompresses them on the fly while they are read.
+ */
+public final class Decompressor {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int[] GZIP_MAGIC = {0x1f, 0x8b};
+    private static final int[] ZSTD_MAGIC = {0x28, 0xb5, 0x2f, 0xfd};
+
+    private Decompressor() {
+    }
+
+    /**
+     * Wrap a stream so that it is decompressed if it is gzip or zstd compressed.
+     * Other streams are returned buffered, but otherwise unchanged.
+     *
+     * @param stream stream
+     * @return decompressed stream
+     * @throws IOException IOException
+     */
+    public static InputStream decompress(InputStream stream) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(stream, BUFFER_SIZE);
+
+        if (startsWith(buffered, GZIP_MAGIC)) return new GZIPInputStream(buffered, BUFFER_SIZE);
+        if (startsWith(buffered, ZSTD_MAGIC)) return new ZstdInputStream(buffered);
+
+        return buffered;
+    }
+
+    /**
+     * Check if a stream starts with the given bytes, without consuming them.
+     *
+     * @param stream stream
+     * @param magic  magic
+     * @return boolean
+     * @throws IOException IOException
+     */
+    private static boolean startsWith(BufferedInputStream stream, int[] magic)
+            throws IOException {
+        stream.mark(magic.length);
+        try {
+            for (int b : magic) {
+                if (stream.read() != b) return false;
+            }
+            return true;
+        } finally {
+            stream.reset();
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package nl.tudelft.sp.modelchecker.parsers.CsvParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
+
+/**
+ * Reads records from a detection csv by scanning the raw UTF-8 bytes.
+ * The positions of the columns are resolved once from the header, and
+ * numbers are parsed straight from the buffer without creating a String per field.
+ * Produces the same records as {@link CommonsCsvReader}.
+ */
+public class DetectionCsvReader implements RecordReader {
+
+    private static final String[] COLUMNS = {"frame_num", "object_id", "label",
+        "tracker_l", "tracker_t", "tracker_w", "tracker_h",
+        "model_confidence", "tracker_confidence"};
+
+    private static final int FRAME_NUM = 0;
+    private static final int OBJECT_ID = 1;
+    private static final int LABEL = 2;
+    private static final int TRACKER_L = 3;
+    private static final int TRACKER_T = 4;
+    private static final int TRACKER_W = 5;
+    private static final int TRACKER_H = 6;
+    private static final int MODEL_CONFIDENCE = 7;
+    private static final int TRACKER_CONFIDENCE = 8;
+
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte NEWLINE = '\n';
+    private static final byte SPACE = ' ';
+
+    /**
+     * Quote states of a line scan: at the start of a field, inside an unquoted
+     * field, inside a quoted field, and just after a quote inside a quoted field.
+     */
+    static final int FIELD_START = 0;
+    static final int UNQUOTED = 1;
+    static final int QUOTED = 2;
+    static final int QUOTE_IN_QUOTED = 3;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_CACHED_LABELS = 64;
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final InputStream stream;
+    private final int[] starts = new int[COLUMNS.length];
+    private final int[] ends = new int[COLUMNS.length];
+    private final boolean[] quotedValues = new boolean[COLUMNS.length];
+    private final List<byte[]> labelBytes = new ArrayList<>();
+    private final List<String> labels = new ArrayList<>();
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private int scan;
+    private int quoteState = FIELD_START;
+    private boolean endOfStream;
+
+    private int lineStart;
+    private int lineEnd;
+    private boolean lineReady;
+
+    private int[] slots = new int[0];
+    private String missingColumn;
+
+    /**
+     * Initialize a DetectionCsvReader and read the header.
+     *
+     * @param stream stream
+     * @throws IOException IOException
+     */
+    public DetectionCsvReader(InputStream stream) throws IOException {
+        this.stream = stream;
+        this.buffer = new byte[BUFFER_SIZE];
+        if (advance()) readHeader();
+    }
+
+    /**
+     * Initialize a DetectionCsvReader over a range of rows that has already been read,
+     * using the columns of another reader's header.
+     *
+     * @param bytes  bytes
+     * @param from   first byte of the range
+     * @param to     end of the range
+     * @param header reader that has read the header
+     */
+    DetectionCsvReader(byte[] bytes, int from, int to, DetectionCsvReader header) {
+        this.stream = InputStream.nullInputStream();
+        this.buffer = bytes;
+        this.position = from;
+        this.scan = from;
+        this.limit = to;
+        this.endOfStream = true;
+        this.slots = header.slots;
+        this.missingColumn = header.missingColumn;
+    }
+
+    /**
+     * Check if there is another row.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean hasNext() {
+        if (!lineReady) {
+            try {
+                lineReady = advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return lineReady;
+    }
+
+    /**
+     * Read the next row as a record.
+     *
+     * @return Record
+     */
+    @Override
+    public Record next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        lineReady = false;
+        return parseLine();
+    }
+
+    /**
+     * Close the underlying stream.
+     *
+     * @throws IOException IOException
+     */
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    /**
+     * Map every column of the header to the field it fills, or -1 if it is not used.
+     */
+    private void readHeader() {
+        List<String> header = new ArrayList<>();
+        splitLine((column, start, end, isQuoted) ->
+                header.add(decode(start, end).toLowerCase(Locale.ROOT)));
+
+        slots = new int[header.size()];
+        Arrays.fill(slots, -1);
+
+        for (int field = 0; field < COLUMNS.length; field++) {
+            int column = header.indexOf(COLUMNS[field]);
+            if (column < 0) {
+                missingColumn = COLUMNS[field];
+            } else {
+                slots[column] = field;
+            }
+        }
+    }
+
+    /**
+     * Build a record from the current line.
+     *
+     * @return Record
+     */
+    private Record parseLine() {
+        if (missingColumn != null) {
+            throw new BadRequestException("Mapping for " + missingColumn + " not found");
+        }
+
+        Arrays.fill(starts, -1);
+        splitLine((column, start, end, isQuoted) -> {
+            if (column < slots.length && slots[column] >= 0) {
+                starts[slots[column]] = start;
+                ends[slots[column]] = end;
+                quotedValues[slots[column]] = isQuoted;
+            }
+        });
+
+        for (int field = 0; field < COLUMNS.length; field++) {
+            if (starts[field] < 0) {
+                throw new BadRequestException("Row does not contain a value for "
+                        + COLUMNS[field]);
+            }
+        }
+
+        return Record.builder()
+                .frameNum(parseInt(FRAME_NUM))
+                .objectId(parseInt(OBJECT_ID))
+                .label(parseLabel())
+                .trackerL(parseInt(TRACKER_L))
+                .trackerT(parseInt(TRACKER_T))
+                .trackerW(parseInt(TRACKER_W))
+                .trackerH(parseInt(TRACKER_H))
+                .modelConfidence(parseDouble(MODEL_CONFIDENCE))
+                .trackerConfidence(parseDouble(TRACKER_CONFIDENCE))
+                .build();
+    }
+
+    /**
+     * Walk over the fields of the current line, reporting the trimmed bounds of each value.
+     *
+     * @param consumer consumer
+     */
+    private void splitLine(FieldConsumer consumer) {
+        int from = lineStart;
+        int column = 0;
+
+        while (true) {
+            int start = from;
+            int end;
+            int delimiter;
+            boolean isQuoted = from < lineEnd && buffer[from] == QUOTE;
+
+            if (isQuoted) {
+                start = from + 1;
+                end = closingQuote(start);
+                delimiter = indexOfComma(Math.min(end + 1, lineEnd));
+                checkAfterQuote(end + 1, delimiter);
+            } else {
+                delimiter = indexOfComma(from);
+                end = delimiter;
+            }
+
+            while (start < end && (buffer[start] & 0xff) <= ' ') start++;
+            while (end > start && (buffer[end - 1] & 0xff) <= ' ') end--;
+
+            consumer.accept(column++, start, end, isQuoted);
+
+            if (delimiter >= lineEnd) return;
+            from = delimiter + 1;
+        }
+    }
+
+    /**
+     * Check that only padding follows the closing quote of a value, as commons-csv does.
+     *
+     * @param from byte after the closing quote
+     * @param to   delimiter of the value
+     */
+    private void checkAfterQuote(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((buffer[i] & 0xff) > SPACE) {
+                throw new BadRequestException("Invalid character between a closing quote "
+                        + "and delimiter: " + decode(lineStart, lineEnd));
+            }
+        }
+    }
+
+    /**
+     * Find the quote that closes a quoted value, skipping escaped quotes.
+     *
+     * @param from first byte of the value
+     * @return index of the closing quote
+     */
+    private int closingQuote(int from) {
+        int i = from;
+        while (i < lineEnd) {
+            if (buffer[i] == QUOTE) {
+                if (i + 1 < lineEnd && buffer[i + 1] == QUOTE) {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            i++;
+        }
+        return lineEnd;
+    }
+
+    /**
+     * Find the next comma on the current line.
+     *
+     * @param from from
+     * @return index of the comma, or the end of the line
+     */
+    private int indexOfComma(int from) {
+        for (int i = from; i < lineEnd; i++) {
+            if (buffer[i] == COMMA) return i;
+        }
+        return lineEnd;
+    }
+
+    /**
+     * Move to the next non empty line.
+     *
+     * @return false if the stream is exhausted
+     * @throws IOException IOException
+     */
+    private boolean advance() throws IOException {
+        while (nextLine()) {
+            if (lineEnd > lineStart) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move to the next line, reading more of the stream if needed.
+     * Newlines inside quoted values do not end a line.
+     *
+     * @return false if the stream is exhausted
+     * @throws IOException IOException
+     */
+    private boolean nextLine() throws IOException {
+        while (true) {
+            for (; scan < limit; scan++) {
+                byte b = buffer[scan];
+                if (b == NEWLINE && quoteState != QUOTED) {
+                    quoteState = FIELD_START;
+                    setLine(scan);
+                    position = ++scan;
+                    return true;
+                }
+                quoteState = nextQuoteState(quoteState, b);
+            }
+
+            if (endOfStream) {
+                if (position == limit) return false;
+                setLine(limit);
+                position = limit;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Get the quote state after a byte. Like commons-csv, a quote only starts a quoted
+     * value as the first character of a field, anywhere else in an unquoted value
+     * it is an ordinary character. Two quotes inside a quoted value are an escaped
+     * quote, a single one closes the value. Anything but padding after the closing
+     * quote is rejected when the line is split.
+     *
+     * @param state state
+     * @param b     b
+     * @return state
+     */
+    static int nextQuoteState(int state, byte b) {
+        if (state == QUOTED) return b == QUOTE ? QUOTE_IN_QUOTED : QUOTED;
+        if (b == COMMA || b == NEWLINE) return FIELD_START;
+        if (b == QUOTE && state != UNQUOTED) return QUOTED;
+        return UNQUOTED;
+    }
+
+    /**
+     * Mark the bytes from the current position up to end as the current line.
+     *
+     * @param end end
+     */
+    private void setLine(int end) {
+        lineStart = position;
+        lineEnd = end;
+        if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') lineEnd--;
+    }
+
+    /**
+     * Discard consumed bytes and read the next part of the stream.
+     *
+     * @throws IOException IOException
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            scan -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+
+        int read = stream.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfStream = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    /**
+     * Decode the label, reusing the String of a label seen before. Quoted labels
+     * with escaped quotes are not cached, as their bytes decode differently unquoted.
+     *
+     * @return label
+     */
+    private String parseLabel() {
+        int start = starts[LABEL];
+        int end = ends[LABEL];
+
+        if (quotedValues[LABEL] && containsQuote(start, end)) {
+            return decode(start, end).replace("\"\"", "\"");
+        }
+
+        for (int i = 0; i < labelBytes.size(); i++) {
+            byte[] known = labelBytes.get(i);
+            if (Arrays.equals(known, 0, known.length, buffer, start, end)) return labels.get(i);
+        }
+
+        String label = decode(start, end);
+        if (labels.size() < MAX_CACHED_LABELS) {
+            labelBytes.add(Arrays.copyOfRange(buffer, start, end));
+            labels.add(label);
+        }
+        return label;
+    }
+
+    /**
+     * Check if a range of the buffer contains a quote.
+     *
+     * @param start start
+     * @param end   end
+     * @return true if it contains a quote
+     */
+    private boolean containsQuote(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == QUOTE) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parse an int field.
+     *
+     * @param field field
+     * @return int
+     */
+    private int parseInt(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        if (i == end) throw new NumberFormatException("For input string: \""
+                + decode(start, end) + "\"");
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                return Integer.parseInt(decode(start, end));
+            }
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return Integer.parseInt(decode(start, end));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a double field. Values with at most fifteen significant digits and a small
+     * exponent are computed exactly from the digits, anything else is left to
+     * {@link Double#parseDouble(String)} so the result is always identical to it.
+     *
+     * @param field field
+     * @return double
+     */
+    private double parseDouble(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int pendingZeros = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean afterPoint = false;
+
+        for (; i < end; i++) {
+            byte b = buffer[i];
+            if (b == '.' && !afterPoint) {
+                afterPoint = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) break;
+
+            seenDigit = true;
+            if (afterPoint) scale--;
+            if (digit == 0) {
+                if (mantissa != 0) pendingZeros++;
+                continue;
+            }
+
+            digits += pendingZeros + 1;
+            if (digits > MAX_EXACT_DIGITS) return slowDouble(start, end);
+            for (; pendingZeros > 0; pendingZeros--) mantissa *= 10;
+            mantissa = mantissa * 10 + digit;
+        }
+        scale += pendingZeros;
+
+        if (!seenDigit) return slowDouble(start, end);
+
+        if (i < end) {
+            if (buffer[i] != 'e' && buffer[i] != 'E') return slowDouble(start, end);
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            if (i == end) return slowDouble(start, end);
+
+            int exponent = 0;
+            for (; i < end; i++) {
+                int digit = buffer[i] - '0';
+                if (digit < 0 || digit > 9 || exponent > POWERS_OF_TEN.length) {
+                    return slowDouble(start, end);
+                }
+                exponent = exponent * 10 + digit;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (scale >= 0 && scale < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[scale];
+        } else if (scale < 0 && -scale < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-scale];
+        } else {
+            return slowDouble(start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a double through its String representation.
+     *
+     * @param start start
+     * @param end   end
+     * @return double
+     */
+    private double slowDouble(int start, int end) {
+        return Double.parseDouble(decode(start, end));
+    }
+
+    /**
+     * Decode a part of the buffer.
+     *
+     * @param start start
+     * @param end   end
+     * @return String
+     */
+    private String decode(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Receives the bounds of the values on a line.
+     */
+    private interface FieldConsumer {
+
+        /**
+         * Accept a value.
+         *
+         * @param column   column
+         * @param start    start
+         * @param end      end
+         * @param isQuoted isQuoted
+         */
+        void accept(int column, int start, int end, boolean isQuoted);
+    }
+}
@@ -0,0 +1,243 @@
+package nl.tudelft.sp.modelchecker.parsers.CsvParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import nl.tudelft.sp.modelchecker.entities.Record;
+
+/**
+ * Reads a detection csv in blocks and parses every block on a ForkJoin pool.
+ * A block is cut into segments at line boundaries, newlines inside quoted values
+ * are not treated as boundaries, and the records are handed out in file order.
+ * Only a couple of blocks are in flight at a time, so memory stays bounded.
+ */
+public class ParallelCsvReader implements RecordReader {
+
+    /**
+     * Number of bytes read from the stream at once.
+     */
+    public static final int BLOCK_SIZE = 1 << 23;
+
+    /**
+     * Minimal number of bytes parsed by a single task.
+     */
+    public static final int SEGMENT_SIZE = 1 << 20;
+
+    private static final byte NEWLINE = '\n';
+
+    private final InputStream stream;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int segmentSize;
+    private final Deque<ForkJoinTask<List<Record>>> pending = new ArrayDeque<>();
+
+    private DetectionCsvReader header;
+    private byte[] carry = new byte[0];
+    private boolean endOfStream;
+    private Iterator<Record> current = Collections.emptyIterator();
+
+    /**
+     * Initialize a ParallelCsvReader.
+     *
+     * @param stream stream
+     * @param pool   pool
+     * @throws IOException IOException
+     */
+    public ParallelCsvReader(InputStream stream, ForkJoinPool pool) throws IOException {
+        this(stream, pool, BLOCK_SIZE, SEGMENT_SIZE);
+    }
+
+    /**
+     * Initialize a ParallelCsvReader with custom block and segment sizes.
+     *
+     * @param stream      stream
+     * @param pool        pool
+     * @param blockSize   blockSize
+     * @param segmentSize segmentSize
+     * @throws IOException IOException
+     */
+    public ParallelCsvReader(InputStream stream, ForkJoinPool pool,
+                             int blockSize, int segmentSize) throws IOException {
+        this.stream = stream;
+        this.pool = pool;
+        this.blockSize = blockSize;
+        this.segmentSize = segmentSize;
+
+        readHeader();
+        submitBlocks();
+    }
+
+    /**
+     * Check if there is another row.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (pending.isEmpty()) return false;
+            current = pending.poll().join().iterator();
+
+            try {
+                submitBlocks();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the next row as a record.
+     *
+     * @return Record
+     */
+    @Override
+    public Record next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.next();
+    }
+
+    /**
+     * Cancel the remaining work and close the underlying stream.
+     *
+     * @throws IOException IOException
+     */
+    @Override
+    public void close() throws IOException {
+        pending.forEach(task -> task.cancel(true));
+        pending.clear();
+        stream.close();
+    }
+
+    /**
+     * Read up to and including the first non empty line and parse it as the header.
+     *
+     * @throws IOException IOException
+     */
+    private void readHeader() throws IOException {
+        while (true) {
+            byte[] block = readBlock();
+            int start = 0;
+            while (start < block.length && (block[start] == NEWLINE || block[start] == '\r')) {
+                start++;
+            }
+
+            int end = nextLineEnd(block, start);
+            if (end >= 0 || endOfStream) {
+                int headerEnd = end >= 0 ? end : block.length;
+                header = new DetectionCsvReader(new ByteArrayInputStream(block, 0, headerEnd));
+                carry = Arrays.copyOfRange(block, headerEnd, block.length);
+                return;
+            }
+            carry = block;
+        }
+    }
+
+    /**
+     * Keep reading blocks until enough segments are queued or the stream is exhausted.
+     *
+     * @throws IOException IOException
+     */
+    private void submitBlocks() throws IOException {
+        int queued = Math.max(2, 2 * (blockSize / segmentSize));
+        while (!endOfStream && pending.size() < queued) {
+            submitBlock(readBlock());
+        }
+        if (endOfStream && carry.length > 0) {
+            submit(carry, 0, carry.length);
+            carry = new byte[0];
+        }
+    }
+
+    /**
+     * Cut a block into segments at line boundaries and queue them.
+     * The incomplete line at the end is carried over to the next block.
+     *
+     * @param block block
+     */
+    private void submitBlock(byte[] block) {
+        int segmentStart = 0;
+        int lineEnd = 0;
+        int quoteState = DetectionCsvReader.FIELD_START;
+
+        for (int i = 0; i < block.length; i++) {
+            if (block[i] == NEWLINE && quoteState != DetectionCsvReader.QUOTED) {
+                lineEnd = i + 1;
+                if (lineEnd - segmentStart >= segmentSize) {
+                    submit(block, segmentStart, lineEnd);
+                    segmentStart = lineEnd;
+                }
+            }
+            quoteState = DetectionCsvReader.nextQuoteState(quoteState, block[i]);
+        }
+
+        if (endOfStream) lineEnd = block.length;
+        if (lineEnd > segmentStart) {
+            submit(block, segmentStart, lineEnd);
+            segmentStart = lineEnd;
+        }
+        carry = Arrays.copyOfRange(block, segmentStart, block.length);
+    }
+
+    /**
+     * Queue the parsing of a segment.
+     *
+     * @param block block
+     * @param from  from
+     * @param to    to
+     */
+    private void submit(byte[] block, int from, int to) {
+        pending.add(pool.submit(() -> {
+            List<Record> records = new ArrayList<>();
+            new DetectionCsvReader(block, from, to, header).forEachRemaining(records::add);
+            return records;
+        }));
+    }
+
+    /**
+     * Read the next block, prefixed with the bytes carried over from the previous one.
+     *
+     * @return block
+     * @throws IOException IOException
+     */
+    private byte[] readBlock() throws IOException {
+        byte[] block = Arrays.copyOf(carry, carry.length + blockSize);
+        int read = stream.readNBytes(block, carry.length, blockSize);
+
+        if (read < blockSize) {
+            endOfStream = true;
+            return Arrays.copyOf(block, carry.length + read);
+        }
+        return block;
+    }
+
+    /**
+     * Find the end of the line that starts at from.
+     *
+     * @param block block
+     * @param from  from
+     * @return index after the newline, or -1 if the line is incomplete
+     */
+    private static int nextLineEnd(byte[] block, int from) {
+        int quoteState = DetectionCsvReader.FIELD_START;
+        for (int i = from; i < block.length; i++) {
+            if (block[i] == NEWLINE && quoteState != DetectionCsvReader.QUOTED) {
+                return i + 1;
+            }
+            quoteState = DetectionCsvReader.nextQuoteState(quoteState, block[i]);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,11 @@
+package nl.tudelft.sp.modelchecker.parsers.CsvParser;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import nl.tudelft.sp.modelchecker.entities.Record;
+
+/**
+ * Iterator over the records of a csv stream that has to be closed after use.
+ */
+public interface RecordReader extends Iterator<Record>, Closeable {
+}
@@ -9,10 +9,14 @@ public interface Configuration {
     String TYPE = "application/octet-stream";
     String TYPEMS = "text/csv";
     String EXCEL = "application/vnd.ms-excel";
+    String GZIP = "application/gzip";
+    String XGZIP = "application/x-gzip";
+    String ZSTD = "application/zstd";
     Charset global = StandardCharsets.UTF_8;
     CSVFormat csvFormat = CSVFormat.DEFAULT
             .withFirstRecordAsHeader()
             .withIgnoreHeaderCase()
             .withTrim();
+    CsvEngine defaultEngine = CsvEngine.DETECTION;
 
 }
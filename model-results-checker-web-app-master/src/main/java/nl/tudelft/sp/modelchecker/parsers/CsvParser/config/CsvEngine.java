@@ -0,0 +1,55 @@
+package nl.tudelft.sp.modelchecker.parsers.CsvParser.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.CommonsCsvReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.DetectionCsvReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.ParallelCsvReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.RecordReader;
+
+/**
+ * The parsers that can turn a detection csv into records.
+ * All of them produce identical records for the same input.
+ */
+public enum CsvEngine {
+
+    /**
+     * General purpose parser backed by commons-csv.
+     */
+    COMMONS {
+        @Override
+        public RecordReader open(InputStream stream) throws IOException {
+            return new CommonsCsvReader(stream);
+        }
+    },
+
+    /**
+     * Parser specialised for the detection schema, working on the raw bytes.
+     */
+    DETECTION {
+        @Override
+        public RecordReader open(InputStream stream) throws IOException {
+            return new DetectionCsvReader(stream);
+        }
+    },
+
+    /**
+     * The detection parser, run on the common ForkJoin pool over segments of the file.
+     */
+    PARALLEL {
+        @Override
+        public RecordReader open(InputStream stream) throws IOException {
+            return new ParallelCsvReader(stream, ForkJoinPool.commonPool());
+        }
+    };
+
+    /**
+     * Open a reader over a csv stream.
+     *
+     * @param stream stream
+     * @return RecordReader
+     * @throws IOException IOException
+     */
+    public abstract RecordReader open(InputStream stream) throws IOException;
+}
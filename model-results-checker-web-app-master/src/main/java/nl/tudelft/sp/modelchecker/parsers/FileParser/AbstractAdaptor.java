@@ -18,9 +18,18 @@ public abstract class AbstractAdaptor implements TextConvertor<List<String>> {
      * @param file file
      */
     public AbstractAdaptor(MultipartFile file) {
-        if (!hasTextFormat(file)) throw new AssertionError();
-
+        this(file.getContentType());
         this.file = file;
+    }
+
+    /**
+     * Initialize a AbstractAdaptor for a stream with the given content type.
+     *
+     * @param contentType contentType
+     */
+    public AbstractAdaptor(String contentType) {
+        if (!hasTextFormat(contentType)) throw new AssertionError();
+
         this.classList = new ArrayList<>();
     }
 
@@ -31,7 +40,17 @@ public abstract class AbstractAdaptor implements TextConvertor<List<String>> {
      * @return boolean
      */
     public final boolean hasTextFormat(MultipartFile file) {
-        return TYPE.equals(file.getContentType());
+        return hasTextFormat(file.getContentType());
+    }
+
+    /**
+     * Function to check if a content type is a text format.
+     *
+     * @param contentType contentType
+     * @return boolean
+     */
+    public final boolean hasTextFormat(String contentType) {
+        return TYPE.equals(contentType);
     }
 
 }
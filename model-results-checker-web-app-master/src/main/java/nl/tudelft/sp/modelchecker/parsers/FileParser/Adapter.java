@@ -17,6 +17,15 @@ public class Adapter extends AbstractAdaptor {
         super(file);
     }
 
+    /**
+     * Initialize an adapter for a stream with the given content type.
+     *
+     * @param contentType contentType
+     */
+    public Adapter(String contentType) {
+        super(contentType);
+    }
+
     private List<String> storeText(InputStream inputStream) {
 
         Scanner sc = new Scanner(inputStream);
@@ -32,4 +41,14 @@ public class Adapter extends AbstractAdaptor {
     public List<String> getClasses(MultipartFile multipartFile) throws IOException {
         return storeText(multipartFile.getInputStream());
     }
+
+    /**
+     * Get the classes from a stream.
+     *
+     * @param inputStream inputStream
+     * @return classes
+     */
+    public List<String> getClasses(InputStream inputStream) {
+        return storeText(inputStream);
+    }
 }
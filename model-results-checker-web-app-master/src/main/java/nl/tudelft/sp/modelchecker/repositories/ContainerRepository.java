@@ -1,9 +1,26 @@
 package nl.tudelft.sp.modelchecker.repositories;
 
+import java.util.List;
+import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ContainerRepository extends JpaRepository<Container, Long> {
+
+    /**
+     * Find the containerDtos of a project with a single query. The ids of the
+     * related entities are read from the foreign key columns of the containers.
+     *
+     * @param projectId projectId
+     * @return containerDtos
+     */
+    @Query("select new nl.tudelft.sp.modelchecker.dto.ContainerDto(c.id, c.blobName,"
+            + " c.csv.id, c.project.id, c.persistentCSv.id, c.submission.id, c.frameRate,"
+            + " c.name, c.description, c.csvName, c.className)"
+            + " from Container c where c.project.id = :projectId order by c.id")
+    List<ContainerDto> findDtosByProjectId(@Param("projectId") Long projectId);
 }
@@ -1,10 +1,33 @@
 package nl.tudelft.sp.modelchecker.repositories;
 
 
+import java.util.List;
 import nl.tudelft.sp.modelchecker.entities.Csv;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CsvRepository extends JpaRepository<Csv, Long> {
+public interface CsvRepository extends JpaRepository<Csv, Long>,
+        CsvVersionRepository {
+
+    /**
+     * Find the version of a csv, without loading it or its records.
+     *
+     * @param id id
+     * @return version, or null if the csv does not exist
+     */
+    @Query("select c.version from Csv c where c.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    /**
+     * Find the ids of the csvs that are an overlay of a persistent csv.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @return ids of the overlay csvs
+     */
+    @Query("select c.id from Container ct join ct.csv c"
+            + " where ct.persistentCSv.id = :persistentCsvId and c.overlay = true")
+    List<Long> findOverlayIds(@Param("persistentCsvId") Long persistentCsvId);
 }
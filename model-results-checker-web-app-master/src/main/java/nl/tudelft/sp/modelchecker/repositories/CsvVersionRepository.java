@@ -0,0 +1,29 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+public interface CsvVersionRepository {
+
+    /**
+     * Increment the version of a csv.
+     *
+     * @param id id
+     * @return number of incremented csvs
+     */
+    int incrementVersion(Long id);
+
+    /**
+     * Increment the version of a csv, only if it still has the expected version.
+     *
+     * @param id      id
+     * @param version expected version
+     * @return number of incremented csvs, 0 if the csv has another version
+     */
+    int incrementVersion(Long id, long version);
+
+    /**
+     * Stop a csv from being an overlay of the persistent csv of its container.
+     *
+     * @param id id
+     * @return number of detached csvs
+     */
+    int detach(Long id);
+}
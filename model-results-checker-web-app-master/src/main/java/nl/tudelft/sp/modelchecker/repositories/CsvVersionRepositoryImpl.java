@@ -0,0 +1,37 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public class CsvVersionRepositoryImpl extends GenericCsvVersionRepository
+        implements CsvVersionRepository {
+
+    /**
+     * Initialize a CsvVersionRepositoryImpl.
+     */
+    public CsvVersionRepositoryImpl() {
+        super(Csv.class, "csv", "csv_id");
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public int incrementVersion(Long id) {
+        return update(id, "version = version + 1", "");
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public int incrementVersion(Long id, long version) {
+        return update(id, "version = version + 1", " and version = ?", version);
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public int detach(Long id) {
+        return update(id, "overlay = false", "");
+    }
+}
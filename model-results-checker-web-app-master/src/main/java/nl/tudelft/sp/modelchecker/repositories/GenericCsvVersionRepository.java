@@ -0,0 +1,89 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.sql.PreparedStatement;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Updates the columns of a csv that are never written from its entity, like its
+ * version, with plain JDBC. A JPQL bulk update would make hibernate invalidate the
+ * whole second level cache region of the csvs, so only the updated csv is evicted,
+ * now and again when the current transaction completes.
+ */
+public abstract class GenericCsvVersionRepository {
+
+    private final Class<?> entityClass;
+    private final String table;
+    private final String idColumn;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Initialize a GenericCsvVersionRepository.
+     *
+     * @param entityClass entityClass
+     * @param table       table
+     * @param idColumn    idColumn
+     */
+    protected GenericCsvVersionRepository(Class<?> entityClass, String table,
+                                          String idColumn) {
+        this.entityClass = entityClass;
+        this.table = table;
+        this.idColumn = idColumn;
+    }
+
+    /**
+     * Update a csv. Pending changes are flushed first.
+     *
+     * @param id          id
+     * @param assignments assignments of the update
+     * @param condition   additional condition on the csv, may be empty
+     * @param parameters  parameters of the condition
+     * @return number of updated csvs
+     */
+    protected int update(Long id, String assignments, String condition, Object... parameters) {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+
+        String sql = "update " + table + " set " + assignments
+                + " where " + idColumn + " = ?" + condition;
+        int updated = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, id);
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 2, parameters[i]);
+                }
+                return statement.executeUpdate();
+            }
+        });
+
+        if (updated > 0) evict(session.getSessionFactory().getCache(), id);
+        return updated;
+    }
+
+    /**
+     * Evict a csv from the second level cache, now and again when the current
+     * transaction completes.
+     *
+     * @param cache cache
+     * @param id    id
+     */
+    private void evict(Cache cache, Long id) {
+        cache.evictEntityData(entityClass, id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            cache.evictEntityData(entityClass, id);
+                        }
+                    });
+        }
+    }
+}
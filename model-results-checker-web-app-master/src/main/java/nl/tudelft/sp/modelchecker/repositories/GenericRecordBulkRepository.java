@@ -0,0 +1,750 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.entities.GenericRecord;
+import nl.tudelft.sp.modelchecker.entities.SuperEntity;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Inserts records straight into their table, bypassing the persistence context.
+ * On PostgreSQL the rows are streamed with COPY FROM STDIN, on other databases
+ * they are written with batched JDBC inserts. Ids are reserved in blocks from the
+ * same pooled sequence Hibernate uses, so bulk and regular inserts can be mixed.
+ * Records are read back with a forward-only cursor, without creating entities.
+ */
+public abstract class GenericRecordBulkRepository {
+
+    /**
+     * Number of records written per COPY or JDBC batch.
+     */
+    public static final int BATCH_SIZE = 5000;
+
+    /**
+     * Number of rows fetched per round trip by a record cursor.
+     */
+    public static final int FETCH_SIZE = 1000;
+
+    /**
+     * Columns of a record row without its id.
+     */
+    protected static final String DATA_COLUMNS = "frame_num, label, model_confidence, "
+            + "object_id, tracker_confidence, trackerh, trackerl, trackert, trackerw";
+
+    /**
+     * Columns of a record row, in the order they are inserted.
+     */
+    protected static final String COLUMNS = "record_id, " + DATA_COLUMNS;
+
+    private static final String[] UPDATED_COLUMNS = {"frame_num", "label", "model_confidence",
+        "tracker_confidence", "trackerh", "trackerl", "trackert", "trackerw"};
+
+    private final Class<? extends GenericRecord> entityClass;
+    private final String table;
+    private final String ownerColumn;
+    private final String sequence;
+    private final Class<?> ownerClass;
+    private final String ownerProperty;
+    private final String collectionProperty;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Initialize a GenericRecordBulkRepository.
+     *
+     * @param entityClass        entityClass
+     * @param table              table
+     * @param ownerColumn        ownerColumn
+     * @param sequence           sequence
+     * @param ownerClass         ownerClass
+     * @param ownerProperty      owner of a record
+     * @param collectionProperty records collection of the owner
+     */
+    protected GenericRecordBulkRepository(Class<? extends GenericRecord> entityClass,
+                                          String table, String ownerColumn, String sequence,
+                                          Class<?> ownerClass, String ownerProperty,
+                                          String collectionProperty) {
+        this.entityClass = entityClass;
+        this.table = table;
+        this.ownerColumn = ownerColumn;
+        this.sequence = sequence;
+        this.ownerClass = ownerClass;
+        this.ownerProperty = ownerProperty;
+        this.collectionProperty = collectionProperty;
+    }
+
+    /**
+     * Insert records that belong to the owner with the given id.
+     * Pending changes are flushed first and the owner is refreshed afterwards
+     * if its records are loaded, so no stale collection is read later on.
+     *
+     * @param ownerId ownerId
+     * @param records records
+     * @return number of inserted records
+     */
+    protected long insert(Long ownerId, Iterator<? extends GenericRecord> records) {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+
+        long inserted = session.doReturningWork(connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                return copy(connection, ownerId, records);
+            }
+            return batch(connection, ownerId, records);
+        });
+
+        refreshOwner(session, ownerId);
+        return inserted;
+    }
+
+    /**
+     * Refresh the owner with the given id if it is managed and its records collection
+     * is loaded, so the collection is read again with the records written past the
+     * persistence context. An owner is refreshed rather than evicted, because the
+     * entities that cascade to it would otherwise reference a detached owner.
+     * Nothing else in the persistence context is touched.
+     *
+     * @param session session
+     * @param ownerId ownerId
+     * @return true if the owner was refreshed
+     */
+    private boolean refreshOwner(Session session, Long ownerId) {
+        Object owner = loadedOwner(session, ownerId);
+        if (owner == null) return false;
+
+        session.refresh(owner);
+        return true;
+    }
+
+    /**
+     * Get the owner with the given id if it is managed and its records collection
+     * is loaded.
+     *
+     * @param session session
+     * @param ownerId ownerId
+     * @return owner, or null if it is not managed or its records are not loaded
+     */
+    private Object loadedOwner(Session session, Long ownerId) {
+        SessionImplementor sessionImplementor = session.unwrap(SessionImplementor.class);
+        EntityPersister persister = sessionImplementor.getFactory().getMetamodel()
+                .entityPersister(ownerClass);
+        Object owner = sessionImplementor.getPersistenceContext()
+                .getEntity(sessionImplementor.generateEntityKey(ownerId, persister));
+
+        if (owner == null || !Hibernate.isInitialized(
+                persister.getPropertyValue(owner, collectionProperty))) {
+            return null;
+        }
+        return owner;
+    }
+
+    /**
+     * Evict the managed records of the owner with the given id, which may have been
+     * overwritten past the persistence context. Records of other owners and all
+     * other entities stay managed.
+     *
+     * @param session session
+     * @param ownerId ownerId
+     */
+    private void evictRecords(Session session, Long ownerId) {
+        managedRecords(session, ownerId, record -> true).forEach(session::evict);
+    }
+
+    /**
+     * Find the managed records of the owner with the given id that match a filter.
+     *
+     * @param session session
+     * @param ownerId ownerId
+     * @param filter  filter
+     * @return managed records
+     */
+    private List<GenericRecord> managedRecords(Session session, Long ownerId,
+                                               Predicate<GenericRecord> filter) {
+        SessionImplementor sessionImplementor = session.unwrap(SessionImplementor.class);
+        List<GenericRecord> managed = new ArrayList<>();
+
+        for (Map.Entry<Object, EntityEntry> entry
+                : sessionImplementor.getPersistenceContext().reentrantSafeEntityEntries()) {
+            Object record = entry.getKey();
+            if (!entityClass.isInstance(record)) continue;
+
+            Object owner = entry.getValue().getPersister().getPropertyValue(record, ownerProperty);
+            if (owner instanceof SuperEntity && ownerId.equals(((SuperEntity<?>) owner).getId())
+                    && filter.test((GenericRecord) record)) {
+                managed.add((GenericRecord) record);
+            }
+        }
+        return managed;
+    }
+
+    /**
+     * Detach the records of an owner with one of the given object ids, after a set
+     * based delete removed them past the persistence context. They are evicted and
+     * taken out of the records collection of the owner if it is loaded, so no
+     * deleted record stays managed or reachable. All other entities stay managed.
+     *
+     * @param ownerId   ownerId
+     * @param objectIds objectIds
+     */
+    protected void detachDeleted(Long ownerId, Collection<Integer> objectIds) {
+        Set<Integer> deleted = new HashSet<>(objectIds);
+        detachDeleted(ownerId, record -> deleted.contains(record.getObjectId()));
+    }
+
+    /**
+     * Detach the records of an owner that match a filter, after a set based delete
+     * removed them past the persistence context.
+     *
+     * @param ownerId ownerId
+     * @param filter  filter
+     */
+    protected void detachDeleted(Long ownerId, Predicate<GenericRecord> filter) {
+        Session session = entityManager.unwrap(Session.class);
+        List<GenericRecord> deleted = managedRecords(session, ownerId, filter);
+
+        Object owner = loadedOwner(session, ownerId);
+        if (owner != null) {
+            EntityPersister persister = session.unwrap(SessionImplementor.class).getFactory()
+                    .getMetamodel().entityPersister(ownerClass);
+            ((Collection<?>) persister.getPropertyValue(owner, collectionProperty))
+                    .removeIf(record -> filter.test((GenericRecord) record));
+        }
+        deleted.forEach(session::evict);
+    }
+
+    /**
+     * Read the records of an owner ordered by id with a read-only, forward-only cursor
+     * and pass them to the handler one at a time. Rows are fetched in chunks of
+     * FETCH_SIZE and no entities are created, so the persistence context and the
+     * second level cache stay untouched. PostgreSQL only fetches in chunks inside
+     * a transaction, so callers should run in one.
+     *
+     * @param ownerId ownerId
+     * @param handler handler
+     * @throws IOException IOException
+     */
+    protected void forEach(Long ownerId, RecordHandler handler) throws IOException {
+        forEach(ownerId, "record_id", handler);
+    }
+
+    /**
+     * Read the records of an owner in the given order with a cursor, like
+     * {@link #forEach(Long, RecordHandler)}.
+     *
+     * @param ownerId ownerId
+     * @param orderBy columns to order by
+     * @param handler handler
+     * @throws IOException IOException
+     */
+    protected void forEach(Long ownerId, String orderBy, RecordHandler handler)
+            throws IOException {
+        String sql = "select " + COLUMNS + " from " + table + " where " + ownerColumn
+                + " = ? order by " + orderBy;
+        forEach(sql, ownerId, handler, ownerId);
+    }
+
+    /**
+     * Read the records selected by a query with a read-only, forward-only cursor
+     * and pass them to the handler one at a time, as records of the given owner.
+     * The query selects the record columns and takes only id parameters.
+     *
+     * @param sql        sql
+     * @param ownerId    ownerId
+     * @param handler    handler
+     * @param parameters parameters
+     * @throws IOException IOException
+     */
+    protected void forEach(String sql, Long ownerId, RecordHandler handler, Long... parameters)
+            throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(FETCH_SIZE);
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.setLong(i + 1, parameters[i]);
+                    }
+
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            handler.handle(toDto(rows, ownerId));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Map the current row of a record cursor to a dto.
+     *
+     * @param rows    rows
+     * @param ownerId ownerId
+     * @return recordDto
+     * @throws SQLException SQLException
+     */
+    private static RecordDto toDto(ResultSet rows, Long ownerId) throws SQLException {
+        RecordDto recordDto = new RecordDto();
+        long id = rows.getLong("record_id");
+        if (!rows.wasNull()) recordDto.setId(id);
+        recordDto.setFrameNum(rows.getInt("frame_num"));
+        recordDto.setLabel(rows.getString("label"));
+        recordDto.setModelConfidence(rows.getDouble("model_confidence"));
+        recordDto.setObjectId(rows.getInt("object_id"));
+        recordDto.setTrackerConfidence(rows.getDouble("tracker_confidence"));
+        recordDto.setTrackerH(rows.getInt("trackerh"));
+        recordDto.setTrackerL(rows.getInt("trackerl"));
+        recordDto.setTrackerT(rows.getInt("trackert"));
+        recordDto.setTrackerW(rows.getInt("trackerw"));
+        recordDto.setCsvId(ownerId);
+        return recordDto;
+    }
+
+    /**
+     * Insert records of an owner, or overwrite the record with the same object id.
+     * When an object id occurs more than once, the last record wins. On PostgreSQL
+     * this is an INSERT ... ON CONFLICT per batch, other databases look up the
+     * existing ids of a batch in one query and then batch the updates and inserts.
+     * Updated records are evicted from the second level cache. Afterwards the owner
+     * is refreshed if its records are loaded, otherwise its managed records are evicted.
+     *
+     * @param ownerId ownerId
+     * @param records records
+     * @return number of saved records
+     */
+    protected long insertOrUpdate(Long ownerId, Collection<? extends GenericRecord> records) {
+        Map<Integer, GenericRecord> latest = new LinkedHashMap<>();
+        for (GenericRecord record : records) {
+            latest.put(record.getObjectId(), record);
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+
+        List<Long> updated = new ArrayList<>();
+        long saved = session.doReturningWork(connection -> {
+            boolean postgres = connection.isWrapperFor(PGConnection.class);
+            Iterator<GenericRecord> iterator = latest.values().iterator();
+            long total = 0;
+
+            while (iterator.hasNext()) {
+                List<GenericRecord> batch = nextBatch(iterator);
+                total += postgres ? upsertOnConflict(connection, ownerId, batch, updated)
+                        : upsertByLookup(connection, ownerId, batch, updated);
+            }
+            return total;
+        });
+
+        Cache cache = session.getSessionFactory().getCache();
+        for (Long id : updated) {
+            cache.evictEntityData(entityClass, id);
+        }
+        if (!refreshOwner(session, ownerId)) evictRecords(session, ownerId);
+        return saved;
+    }
+
+    /**
+     * Upsert a batch with INSERT ... ON CONFLICT on the owner and object id.
+     * The ids of the records that already exist are looked up first.
+     *
+     * @param connection connection
+     * @param ownerId    ownerId
+     * @param batch      batch
+     * @param updated    collects the ids of the updated records
+     * @return number of saved records
+     * @throws SQLException SQLException
+     */
+    private long upsertOnConflict(Connection connection, Long ownerId, List<GenericRecord> batch,
+                                  Collection<Long> updated) throws SQLException {
+        updated.addAll(existingIds(connection, ownerId, batch).values());
+
+        String assignments = Arrays.stream(UPDATED_COLUMNS)
+                .map(column -> column + " = excluded." + column)
+                .collect(Collectors.joining(", "));
+        String sql = insertSql() + " on conflict (" + ownerColumn + ", object_id)"
+                + " do update set " + assignments;
+        long[] ids = nextIds(connection, batch.size(), true);
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ids.length; i++) {
+                bindInsert(statement, ids[i], batch.get(i), ownerId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return ids.length;
+    }
+
+    /**
+     * Upsert a batch by looking up the ids of all existing object ids at once.
+     *
+     * @param connection connection
+     * @param ownerId    ownerId
+     * @param batch      batch
+     * @param updated    collects the ids of the updated records
+     * @return number of saved records
+     * @throws SQLException SQLException
+     */
+    private long upsertByLookup(Connection connection, Long ownerId, List<GenericRecord> batch,
+                                Collection<Long> updated) throws SQLException {
+        Map<Integer, Long> existing = existingIds(connection, ownerId, batch);
+        updated.addAll(existing.values());
+        List<GenericRecord> created = new ArrayList<>();
+
+        String sql = "update " + table + " set "
+                + String.join(" = ?, ", UPDATED_COLUMNS) + " = ? where record_id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (GenericRecord record : batch) {
+                Long id = existing.get(record.getObjectId());
+                if (id == null) {
+                    created.add(record);
+                    continue;
+                }
+
+                statement.setInt(1, record.getFrameNum());
+                setLabel(statement, 2, record);
+                statement.setDouble(3, record.getModelConfidence());
+                statement.setDouble(4, record.getTrackerConfidence());
+                statement.setInt(5, record.getTrackerH());
+                statement.setInt(6, record.getTrackerL());
+                statement.setInt(7, record.getTrackerT());
+                statement.setInt(8, record.getTrackerW());
+                statement.setLong(9, id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        return batch.size() - created.size() + batch(connection, ownerId, created.iterator());
+    }
+
+    /**
+     * Find the ids of the records of an owner that have one of the object ids of a batch.
+     *
+     * @param connection connection
+     * @param ownerId    ownerId
+     * @param batch      batch
+     * @return record id by object id
+     * @throws SQLException SQLException
+     */
+    private Map<Integer, Long> existingIds(Connection connection, Long ownerId,
+                                           List<GenericRecord> batch) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+        String sql = "select object_id, record_id from " + table
+                + " where " + ownerColumn + " = ? and object_id in (" + placeholders + ")";
+        Map<Integer, Long> existing = new HashMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, ownerId);
+            for (int i = 0; i < batch.size(); i++) {
+                statement.setInt(i + 2, batch.get(i).getObjectId());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    existing.put(resultSet.getInt(1), resultSet.getLong(2));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Copy all records of an owner in another record table with INSERT ... SELECT,
+     * so the rows never leave the database. Ids are reserved in blocks like for
+     * an insert and the rows are numbered in the query, so a single statement
+     * is issued for every run of consecutive ids, normally just one. The target
+     * owner is refreshed afterwards if its records are loaded, like after an insert.
+     *
+     * @param sourceTable       sourceTable
+     * @param sourceOwnerColumn sourceOwnerColumn
+     * @param sourceOwnerId     sourceOwnerId
+     * @param ownerId           ownerId
+     * @return number of copied records
+     */
+    protected long copyFrom(String sourceTable, String sourceOwnerColumn,
+                            Long sourceOwnerId, Long ownerId) {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+
+        String sql = "insert into " + table + " (" + COLUMNS + ", " + ownerColumn + ")"
+                + " select cast(? as bigint) + rn, " + DATA_COLUMNS + ", ?"
+                + " from (select " + DATA_COLUMNS + ", row_number() over (order by record_id) rn"
+                + " from " + sourceTable + " where " + sourceOwnerColumn + " = ?) numbered"
+                + " where rn > ? and rn <= ?";
+
+        long copied = session.doReturningWork(connection -> {
+            int count = count(connection, sourceTable, sourceOwnerColumn, sourceOwnerId);
+            long[] ids = nextIds(connection, count, connection.isWrapperFor(PGConnection.class));
+            long total = 0;
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int from = 0;
+                while (from < count) {
+                    int to = from + 1;
+                    while (to < count && ids[to] == ids[to - 1] + 1) {
+                        to++;
+                    }
+
+                    statement.setLong(1, ids[from] - from - 1);
+                    statement.setLong(2, ownerId);
+                    statement.setLong(3, sourceOwnerId);
+                    statement.setInt(4, from);
+                    statement.setInt(5, to);
+                    total += statement.executeUpdate();
+                    from = to;
+                }
+            }
+            return total;
+        });
+
+        refreshOwner(session, ownerId);
+        return copied;
+    }
+
+    /**
+     * Count the records of an owner.
+     *
+     * @param connection  connection
+     * @param sourceTable sourceTable
+     * @param ownerColumn ownerColumn
+     * @param ownerId     ownerId
+     * @return count
+     * @throws SQLException SQLException
+     */
+    private static int count(Connection connection, String sourceTable, String ownerColumn,
+                             Long ownerId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select count(*) from " + sourceTable + " where " + ownerColumn + " = ?")) {
+            statement.setLong(1, ownerId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Stream the records with COPY, one COPY statement per batch.
+     *
+     * @param connection connection
+     * @param ownerId    ownerId
+     * @param records    records
+     * @return number of inserted records
+     * @throws SQLException SQLException
+     */
+    private long copy(Connection connection, Long ownerId,
+                      Iterator<? extends GenericRecord> records) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        String sql = "COPY " + table + " (" + COLUMNS + ", " + ownerColumn + ")"
+                + " FROM STDIN WITH (FORMAT csv)";
+
+        StringBuilder rows = new StringBuilder();
+        long inserted = 0;
+
+        while (records.hasNext()) {
+            List<GenericRecord> batch = nextBatch(records);
+            long[] ids = nextIds(connection, batch.size(), true);
+
+            rows.setLength(0);
+            for (int i = 0; i < ids.length; i++) {
+                appendRow(rows, ids[i], batch.get(i), ownerId);
+            }
+
+            byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                inserted += copyManager.copyIn(sql, new ByteArrayInputStream(bytes));
+            } catch (IOException e) {
+                throw new SQLException("Could not copy records into " + table, e);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Write the records with batched JDBC inserts.
+     *
+     * @param connection connection
+     * @param ownerId    ownerId
+     * @param records    records
+     * @return number of inserted records
+     * @throws SQLException SQLException
+     */
+    private long batch(Connection connection, Long ownerId,
+                       Iterator<? extends GenericRecord> records) throws SQLException {
+        long inserted = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(insertSql())) {
+            while (records.hasNext()) {
+                List<GenericRecord> batch = nextBatch(records);
+                long[] ids = nextIds(connection, batch.size(), false);
+
+                for (int i = 0; i < ids.length; i++) {
+                    bindInsert(statement, ids[i], batch.get(i), ownerId);
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+                inserted += ids.length;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Create the statement that inserts a single record.
+     *
+     * @return sql
+     */
+    private String insertSql() {
+        return "insert into " + table + " (" + COLUMNS + ", " + ownerColumn + ")"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * Bind a record to the parameters of the insert statement.
+     *
+     * @param statement statement
+     * @param id        id
+     * @param record    record
+     * @param ownerId   ownerId
+     * @throws SQLException SQLException
+     */
+    private static void bindInsert(PreparedStatement statement, long id, GenericRecord record,
+                                   Long ownerId) throws SQLException {
+        statement.setLong(1, id);
+        statement.setInt(2, record.getFrameNum());
+        setLabel(statement, 3, record);
+        statement.setDouble(4, record.getModelConfidence());
+        statement.setInt(5, record.getObjectId());
+        statement.setDouble(6, record.getTrackerConfidence());
+        statement.setInt(7, record.getTrackerH());
+        statement.setInt(8, record.getTrackerL());
+        statement.setInt(9, record.getTrackerT());
+        statement.setInt(10, record.getTrackerW());
+        statement.setLong(11, ownerId);
+    }
+
+    /**
+     * Bind the label of a record, which may be missing.
+     *
+     * @param statement statement
+     * @param index     index
+     * @param record    record
+     * @throws SQLException SQLException
+     */
+    private static void setLabel(PreparedStatement statement, int index, GenericRecord record)
+            throws SQLException {
+        if (record.getLabel() == null) statement.setNull(index, Types.VARCHAR);
+        else statement.setString(index, record.getLabel());
+    }
+
+    /**
+     * Take the next batch of records from the iterator.
+     *
+     * @param records records
+     * @return batch
+     */
+    private static List<GenericRecord> nextBatch(Iterator<? extends GenericRecord> records) {
+        List<GenericRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (records.hasNext() && batch.size() < BATCH_SIZE) {
+            batch.add(records.next());
+        }
+        return batch;
+    }
+
+    /**
+     * Allocate ids from the pooled sequence in a single round trip. Every value
+     * of the sequence is the start of a block of {@link GenericRecord#ID_BLOCK_SIZE} ids,
+     * the same way Hibernate's pooled-lo optimizer uses it.
+     *
+     * @param connection connection
+     * @param count      count
+     * @param postgres   postgres
+     * @return ids
+     * @throws SQLException SQLException
+     */
+    private long[] nextIds(Connection connection, int count, boolean postgres)
+            throws SQLException {
+        String series = postgres ? "generate_series(1, ?)" : "system_range(1, ?)";
+        int blocks = (count + GenericRecord.ID_BLOCK_SIZE - 1) / GenericRecord.ID_BLOCK_SIZE;
+        long[] ids = new long[count];
+        int next = 0;
+
+        try (PreparedStatement statement = connection
+                .prepareStatement("select nextval('" + sequence + "') from " + series)) {
+            statement.setInt(1, blocks);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (next < count && resultSet.next()) {
+                    long start = resultSet.getLong(1);
+                    for (int i = 0; i < GenericRecord.ID_BLOCK_SIZE && next < count; i++) {
+                        ids[next++] = start + i;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Append a record as a csv row in the column order of the COPY statement.
+     * A missing label is written unquoted, which COPY reads as null.
+     *
+     * @param rows    rows
+     * @param id      id
+     * @param record  record
+     * @param ownerId ownerId
+     */
+    private static void appendRow(StringBuilder rows, long id, GenericRecord record,
+                                  Long ownerId) {
+        rows.append(id).append(',').append(record.getFrameNum()).append(',');
+        if (record.getLabel() != null) {
+            rows.append('"').append(record.getLabel().replace("\"", "\"\"")).append('"');
+        }
+        rows.append(',').append(record.getModelConfidence())
+                .append(',').append(record.getObjectId())
+                .append(',').append(record.getTrackerConfidence())
+                .append(',').append(record.getTrackerH())
+                .append(',').append(record.getTrackerL())
+                .append(',').append(record.getTrackerT())
+                .append(',').append(record.getTrackerW())
+                .append(',').append(ownerId).append('\n');
+    }
+}
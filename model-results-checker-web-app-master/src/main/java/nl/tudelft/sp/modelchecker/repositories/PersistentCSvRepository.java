@@ -2,8 +2,20 @@ package nl.tudelft.sp.modelchecker.repositories;
 
 import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PersistentCSvRepository extends JpaRepository<PersistentCsv, Long> {
+public interface PersistentCSvRepository extends JpaRepository<PersistentCsv, Long>,
+        PersistentCsvVersionRepository {
+
+    /**
+     * Find the version of a persistent csv, without loading it or its records.
+     *
+     * @param id id
+     * @return version, or null if the persistent csv does not exist
+     */
+    @Query("select c.version from PersistentCsv c where c.id = :id")
+    Long findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,12 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+public interface PersistentCsvVersionRepository {
+
+    /**
+     * Increment the version of a persistent csv.
+     *
+     * @param id id
+     * @return number of incremented persistent csvs
+     */
+    int incrementVersion(Long id);
+}
@@ -0,0 +1,23 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public class PersistentCsvVersionRepositoryImpl extends GenericCsvVersionRepository
+        implements PersistentCsvVersionRepository {
+
+    /**
+     * Initialize a PersistentCsvVersionRepositoryImpl.
+     */
+    public PersistentCsvVersionRepositoryImpl() {
+        super(PersistentCsv.class, "persistent_csv", "persistent_csv_id");
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public int incrementVersion(Long id) {
+        return update(id, "version = version + 1", "");
+    }
+}
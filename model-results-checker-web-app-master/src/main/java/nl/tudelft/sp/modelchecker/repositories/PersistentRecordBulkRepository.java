@@ -0,0 +1,35 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.io.IOException;
+import java.util.Iterator;
+import nl.tudelft.sp.modelchecker.entities.GenericRecord;
+
+public interface PersistentRecordBulkRepository {
+
+    /**
+     * Insert records into a persistent csv without going through the persistence context.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @param records         records
+     * @return number of inserted records
+     */
+    long bulkInsert(Long persistentCsvId, Iterator<? extends GenericRecord> records);
+
+    /**
+     * Copy all records of a csv into a persistent csv inside the database.
+     *
+     * @param csvId           csvId
+     * @param persistentCsvId persistentCsvId
+     * @return number of copied records
+     */
+    long copyFromCsv(Long csvId, Long persistentCsvId);
+
+    /**
+     * Read the records of a persistent csv ordered by id, one at a time, without loading entities.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @param handler         handler
+     * @throws IOException IOException
+     */
+    void forEachRecord(Long persistentCsvId, RecordHandler handler) throws IOException;
+}
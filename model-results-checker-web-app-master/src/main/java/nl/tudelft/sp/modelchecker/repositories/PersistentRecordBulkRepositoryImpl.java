@@ -0,0 +1,41 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.io.IOException;
+import java.util.Iterator;
+import nl.tudelft.sp.modelchecker.entities.GenericRecord;
+import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
+import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public class PersistentRecordBulkRepositoryImpl extends GenericRecordBulkRepository
+        implements PersistentRecordBulkRepository {
+
+    /**
+     * Initialize a PersistentRecordBulkRepositoryImpl.
+     */
+    public PersistentRecordBulkRepositoryImpl() {
+        super(PersistentRecord.class, "persistent_record", "persistent_csv_persistent_csv_id",
+                "persistent_record_seq", PersistentCsv.class, "persistentCsv", "persistentRecords");
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public long bulkInsert(Long persistentCsvId, Iterator<? extends GenericRecord> records) {
+        return insert(persistentCsvId, records);
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public long copyFromCsv(Long csvId, Long persistentCsvId) {
+        return copyFrom("record", "csv_csv_id", csvId, persistentCsvId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachRecord(Long persistentCsvId, RecordHandler handler) throws IOException {
+        forEach(persistentCsvId, handler);
+    }
+}
@@ -1,9 +1,67 @@
 package nl.tudelft.sp.modelchecker.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PersistentRecordRepository extends JpaRepository<PersistentRecord, Long> {
+public interface PersistentRecordRepository extends JpaRepository<PersistentRecord, Long>,
+        PersistentRecordBulkRepository {
+
+    /**
+     * find the records of a persistent csv within a window of frames, ordered by frame.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @param frameFrom       frameFrom
+     * @param frameTo         frameTo
+     * @return records
+     */
+    @Query("select r from PersistentRecord r where r.persistentCsv.id = :persistentCsvId"
+            + " and r.frameNum between :frameFrom and :frameTo order by r.frameNum, r.id")
+    List<PersistentRecord> findFrameWindow(@Param("persistentCsvId") Long persistentCsvId,
+                                           @Param("frameFrom") int frameFrom,
+                                           @Param("frameTo") int frameTo);
+
+    /**
+     * find the records of a persistent csv within a window of frames, ordered by frame,
+     * that are not overlaid by a record with the same object id in the given csv.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @param csvId           csvId
+     * @param frameFrom       frameFrom
+     * @param frameTo         frameTo
+     * @return records
+     */
+    @Query("select p from PersistentRecord p where p.persistentCsv.id = :persistentCsvId"
+            + " and p.frameNum between :frameFrom and :frameTo and not exists"
+            + " (select r.id from Record r where r.csv.id = :csvId and r.objectId = p.objectId)"
+            + " order by p.frameNum, p.id")
+    List<PersistentRecord> findFrameWindowNotOverlaid(
+            @Param("persistentCsvId") Long persistentCsvId, @Param("csvId") Long csvId,
+            @Param("frameFrom") int frameFrom, @Param("frameTo") int frameTo);
+
+    /**
+     * check if a persistent csv has a record with the given object id.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @param objectId        objectId
+     * @return true if exist otherwise false
+     */
+    boolean existsByPersistentCsvIdAndObjectId(Long persistentCsvId, int objectId);
+
+    /**
+     * find which of the given object ids a persistent csv has records of.
+     *
+     * @param persistentCsvId persistentCsvId
+     * @param objectIds       objectIds
+     * @return object ids
+     */
+    @Query("select distinct p.objectId from PersistentRecord p"
+            + " where p.persistentCsv.id = :persistentCsvId and p.objectId in :objectIds")
+    List<Integer> findObjectIds(@Param("persistentCsvId") Long persistentCsvId,
+                                @Param("objectIds") Collection<Integer> objectIds);
 }
@@ -1,9 +1,23 @@
 package nl.tudelft.sp.modelchecker.repositories;
 
+import java.util.List;
 import nl.tudelft.sp.modelchecker.entities.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    /**
+     * Find the id of the client of a project. The list is empty if the project
+     * does not exist and holds null if the project has no client.
+     *
+     * @param projectId projectId
+     * @return id of the client
+     */
+    @Query("select c.id from Project p left join p.projectHolder h left join h.client c"
+            + " where p.id = :projectId")
+    List<String> findClientIds(@Param("projectId") Long projectId);
 }
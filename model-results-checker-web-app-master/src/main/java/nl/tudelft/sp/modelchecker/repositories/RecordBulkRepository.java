@@ -0,0 +1,70 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import nl.tudelft.sp.modelchecker.entities.GenericRecord;
+
+public interface RecordBulkRepository {
+
+    /**
+     * Insert records into a csv without going through the persistence context.
+     *
+     * @param csvId   csvId
+     * @param records records
+     * @return number of inserted records
+     */
+    long bulkInsert(Long csvId, Iterator<? extends GenericRecord> records);
+
+    /**
+     * Insert records into a csv, or overwrite the record with the same object id.
+     *
+     * @param csvId   csvId
+     * @param records records
+     * @return number of saved records
+     */
+    long upsert(Long csvId, Collection<? extends GenericRecord> records);
+
+    /**
+     * Detach the records of a csv with one of the given object ids after they were
+     * deleted with a set based delete, leaving the rest of the persistence context.
+     *
+     * @param csvId     csvId
+     * @param objectIds objectIds
+     */
+    void detachRecords(Long csvId, Collection<Integer> objectIds);
+
+    /**
+     * Detach all records of a csv after they were deleted with a set based delete,
+     * leaving the rest of the persistence context.
+     *
+     * @param csvId csvId
+     */
+    void detachRecords(Long csvId);
+
+    /**
+     * Read the records of a csv ordered by frame and object id, like an overlaid read,
+     * one at a time, without loading entities.
+     *
+     * @param csvId   csvId
+     * @param handler handler
+     * @throws IOException IOException
+     */
+    void forEachRecord(Long csvId, RecordHandler handler) throws IOException;
+
+    /**
+     * Read the records of an overlay csv merged with the persistent csv it overlays,
+     * ordered by frame and object id, one at a time, without loading entities.
+     * Records of the csv that are not tombstones are read together with the records
+     * of the persistent csv that have no record with the same object id in the csv.
+     * Those have no id, as they are no record of the csv, and are identified by the
+     * csv and their object id.
+     *
+     * @param csvId           csvId
+     * @param persistentCsvId persistentCsvId
+     * @param handler         handler
+     * @throws IOException IOException
+     */
+    void forEachOverlaidRecord(Long csvId, Long persistentCsvId, RecordHandler handler)
+            throws IOException;
+}
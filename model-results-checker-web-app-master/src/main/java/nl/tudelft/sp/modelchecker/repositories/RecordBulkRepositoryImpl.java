@@ -0,0 +1,69 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.GenericRecord;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public class RecordBulkRepositoryImpl extends GenericRecordBulkRepository
+        implements RecordBulkRepository {
+
+    /**
+     * Initialize a RecordBulkRepositoryImpl.
+     */
+    public RecordBulkRepositoryImpl() {
+        super(Record.class, "record", "csv_csv_id", "record_seq", Csv.class, "csv",
+                "records");
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public long bulkInsert(Long csvId, Iterator<? extends GenericRecord> records) {
+        return insert(csvId, records);
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public long upsert(Long csvId, Collection<? extends GenericRecord> records) {
+        return insertOrUpdate(csvId, records);
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void detachRecords(Long csvId, Collection<Integer> objectIds) {
+        detachDeleted(csvId, objectIds);
+    }
+
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void detachRecords(Long csvId) {
+        detachDeleted(csvId, record -> true);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachRecord(Long csvId, RecordHandler handler) throws IOException {
+        forEach(csvId, "frame_num, object_id", handler);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachOverlaidRecord(Long csvId, Long persistentCsvId, RecordHandler handler)
+            throws IOException {
+        String sql = "select " + COLUMNS + " from record where csv_csv_id = ? and tombstone = false"
+                + " union all select cast(null as bigint) as record_id, " + DATA_COLUMNS
+                + " from persistent_record p"
+                + " where p.persistent_csv_persistent_csv_id = ? and not exists (select 1"
+                + " from record r where r.csv_csv_id = ? and r.object_id = p.object_id)"
+                + " order by frame_num, object_id";
+        forEach(sql, csvId, handler, csvId, persistentCsvId, csvId);
+    }
+}
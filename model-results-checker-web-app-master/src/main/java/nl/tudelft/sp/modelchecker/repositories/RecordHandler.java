@@ -0,0 +1,19 @@
+package nl.tudelft.sp.modelchecker.repositories;
+
+import java.io.IOException;
+import nl.tudelft.sp.modelchecker.dto.RecordDto;
+
+/**
+ * Receives the records read by a record cursor, one row at a time.
+ */
+@FunctionalInterface
+public interface RecordHandler {
+
+    /**
+     * Handle a single record.
+     *
+     * @param recordDto recordDto
+     * @throws IOException IOException
+     */
+    void handle(RecordDto recordDto) throws IOException;
+}
@@ -1,20 +1,19 @@
 package nl.tudelft.sp.modelchecker.repositories;
 
 
+import java.util.Collection;
 import java.util.List;
 import nl.tudelft.sp.modelchecker.entities.Csv;
 import nl.tudelft.sp.modelchecker.entities.Record;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface RecordRepository extends JpaRepository<Record, Long> {
-
-    @Cacheable(value = "entities")
-    @Override
-    <S extends Record> List<S> saveAll(Iterable<S> entities);
-
+public interface RecordRepository extends JpaRepository<Record, Long>,
+        RecordBulkRepository {
 
     /**
      * check if the record exist by using csv and objectId.
@@ -33,5 +32,62 @@ public interface RecordRepository extends JpaRepository<Record, Long> {
      * @return Record
      */
     Record findRecordByCsvAndObjectId(Csv csv, int objectId);
-}
 
+    /**
+     * delete all records of a csv with a single statement.
+     * The persistence context is flushed before the delete, callers detach the
+     * deleted records afterwards with detachRecords.
+     *
+     * @param csvId csvId
+     * @return number of deleted records
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Record r where r.csv.id = :csvId")
+    int deleteAllByCsvId(@Param("csvId") Long csvId);
+
+    /**
+     * delete the records of a csv with one of the given object ids with a single statement.
+     * It is called per batch of object ids, so callers flush the persistence context
+     * once before the first batch and detach the deleted records after the last.
+     *
+     * @param csvId     csvId
+     * @param objectIds objectIds
+     * @return number of deleted records
+     */
+    @Modifying
+    @Query("delete from Record r where r.csv.id = :csvId and r.objectId in :objectIds")
+    int deleteAllByCsvIdAndObjectIdIn(@Param("csvId") Long csvId,
+                                      @Param("objectIds") Collection<Integer> objectIds);
+
+    /**
+     * turn the tombstones of a csv with one of the given object ids back into records,
+     * so they can be overwritten by an upsert.
+     * It is called per batch of object ids, so callers flush the persistence context
+     * once before the first batch. The upsert that follows refreshes or evicts the
+     * records of the csv.
+     *
+     * @param csvId     csvId
+     * @param objectIds objectIds
+     * @return number of revived records
+     */
+    @Modifying
+    @Query("update Record r set r.tombstone = false where r.csv.id = :csvId"
+            + " and r.tombstone = true and r.objectId in :objectIds")
+    int reviveAllByCsvIdAndObjectIdIn(@Param("csvId") Long csvId,
+                                      @Param("objectIds") Collection<Integer> objectIds);
+
+    /**
+     * find the records of a csv within a window of frames, ordered by frame and
+     * object id. Tombstones are left out.
+     *
+     * @param csvId     csvId
+     * @param frameFrom frameFrom
+     * @param frameTo   frameTo
+     * @return records
+     */
+    @Query("select r from Record r where r.csv.id = :csvId and r.tombstone = false"
+            + " and r.frameNum between :frameFrom and :frameTo order by r.frameNum, r.objectId")
+    List<Record> findFrameWindow(@Param("csvId") Long csvId,
+                                 @Param("frameFrom") int frameFrom,
+                                 @Param("frameTo") int frameTo);
+}
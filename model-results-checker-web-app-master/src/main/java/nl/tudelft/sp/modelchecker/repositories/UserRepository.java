@@ -1,7 +1,11 @@
 package nl.tudelft.sp.modelchecker.repositories;
 
+import java.util.List;
+import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -22,4 +26,34 @@ public interface UserRepository<U extends User> extends JpaRepository<U, String>
      * @return Type U
      */
     U findByEmail(String email);
+
+    /**
+     * Count the users of a type.
+     *
+     * @param type type
+     * @return count
+     */
+    @Query("select count(u) from User u where type(u) = :type")
+    long countByType(@Param("type") Class<? extends User> type);
+
+    /**
+     * Find the UserDtos of the users of a type, ordered by id.
+     *
+     * @param type type
+     * @return userDtos
+     */
+    @Query("select new nl.tudelft.sp.modelchecker.dto.UserDto(u.id, u.email, u.username,"
+            + " u.registrationDate) from User u where type(u) = :type order by u.id")
+    List<UserDto> findDtosByType(@Param("type") Class<? extends User> type);
+
+    /**
+     * Check if the user with an id is of a type.
+     *
+     * @param id   id
+     * @param type type
+     * @return true if the user exists and is of the type
+     */
+    @Query("select count(u) > 0 from User u where u.id = :id and type(u) = :type")
+    boolean existsByIdAndType(@Param("id") String id,
+                              @Param("type") Class<? extends User> type);
 }
@@ -4,6 +4,8 @@ import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
 import java.net.URISyntaxException;
 import java.util.List;
+import nl.tudelft.sp.modelchecker.dto.BlobListDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 
 public interface AzureContainerService extends AzureService {
 
@@ -18,6 +20,18 @@ public interface AzureContainerService extends AzureService {
     List<String> listBlobs(String containerName)
             throws URISyntaxException, StorageException;
 
+    /**
+     * get a page of blob names in the cloud container.
+     *
+     * @param containerName containerName
+     * @param pageDto       pageDto
+     * @return page of blob names
+     * @throws URISyntaxException URISyntaxException
+     * @throws StorageException StorageException
+     */
+    BlobListDto listBlobs(String containerName, PageDto<String> pageDto)
+            throws URISyntaxException, StorageException;
+
     /**
      * get CloudBlobContainer.
      *
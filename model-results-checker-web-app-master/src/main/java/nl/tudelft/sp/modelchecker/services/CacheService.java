@@ -0,0 +1,14 @@
+package nl.tudelft.sp.modelchecker.services;
+
+import java.util.List;
+import nl.tudelft.sp.modelchecker.dto.CacheStatisticsDto;
+
+public interface CacheService {
+
+    /**
+     * Get the statistics of all second level cache regions, ordered by region.
+     *
+     * @return list of statistics
+     */
+    List<CacheStatisticsDto> getStatistics();
+}
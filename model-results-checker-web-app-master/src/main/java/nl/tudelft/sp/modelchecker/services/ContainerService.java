@@ -1,11 +1,15 @@
 package nl.tudelft.sp.modelchecker.services;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.dto.RecordListDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -38,6 +42,22 @@ public interface ContainerService extends CrudService<Container, Long, Container
                             ProjectDto projectDto)
             throws Exception;
 
+    /**
+     * Fill container with records read from a csv stream.
+     *
+     * @param csv            csv
+     * @param csvContentType csvContentType
+     * @param classes        classes
+     * @param container      container
+     * @param projectDto     projectDto
+     * @return filled container
+     * @throws Exception Exception
+     */
+    Container fillContainer(InputStream csv, String csvContentType,
+                            List<String> classes, Container container,
+                            ProjectDto projectDto)
+            throws Exception;
+
     /**
      * Register classes.
      *
@@ -48,6 +68,14 @@ public interface ContainerService extends CrudService<Container, Long, Container
     void registerClasses(MultipartFile classes, ContainerDto containerDto)
             throws IOException;
 
+    /**
+     * Register classes that have already been read.
+     *
+     * @param classes      classes
+     * @param containerDto containerDto
+     */
+    void registerClasses(List<String> classes, ContainerDto containerDto);
+
 
     /**
      * Overide container.
@@ -60,4 +88,15 @@ public interface ContainerService extends CrudService<Container, Long, Container
      */
     Container overideContainer(RecordListDto recordListDto)
             throws ExistsException, NotFoundException, IOException;
+
+    /**
+     * Patch the records of a container.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @return version of the csv of the container after the patch
+     * @throws NotFoundException NotFoundException
+     * @throws ConflictException ConflictException
+     */
+    long patchContainer(RecordPatchDto recordPatchDto)
+            throws NotFoundException, ConflictException;
 }
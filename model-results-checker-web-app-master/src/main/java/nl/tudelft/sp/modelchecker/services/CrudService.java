@@ -3,6 +3,7 @@ package nl.tudelft.sp.modelchecker.services;
 import java.util.List;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.Dto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.entities.SuperEntity;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 
@@ -97,6 +98,25 @@ public interface CrudService<T extends SuperEntity<K>, K, D extends Dto<K>> {
      */
     List<D> findAllDtos(Class<D> clazz) throws NotFoundException;
 
+    /**
+     * Find a page of types, starting after the last-seen id of the page.
+     *
+     * @param page page
+     * @return page of Type T
+     * @throws NotFoundException NotFoundException
+     */
+    List<T> findPage(PageDto<K> page) throws NotFoundException;
+
+    /**
+     * Get a page of dtos, starting after the last-seen id of the page.
+     *
+     * @param clazz class
+     * @param page  page
+     * @return page of dtos
+     * @throws NotFoundException NotFoundException
+     */
+    List<D> findDtoPage(Class<D> clazz, PageDto<K> page) throws NotFoundException;
+
     /**
      * Delete all entities from list.
      *
@@ -1,5 +1,8 @@
 package nl.tudelft.sp.modelchecker.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.List;
 import javassist.NotFoundException;
@@ -29,7 +32,27 @@ public interface CsvService extends CrudService<Csv, Long, CsvDto> {
             SQLIntegrityConstraintViolationException;
 
     /**
-     * Get records in a csv.
+     * Create a csv that is an overlay of the persistent csv of a container.
+     *
+     * @param containerDto containerDto
+     * @return registered Csv
+     * @throws ExistsException                          ExistsException
+     * @throws NotFoundException                        NotFoundException
+     * @throws SQLIntegrityConstraintViolationException SQLIntegrityConstraintViolationException
+     */
+    Csv createOverlayCsv(ContainerDto containerDto)
+            throws ExistsException, NotFoundException, SQLIntegrityConstraintViolationException;
+
+    /**
+     * Get the id of the persistent csv a csv is an overlay of.
+     *
+     * @param csv csv
+     * @return id of the persistent csv, or null if the csv is not an overlay
+     */
+    Long getBaseId(Csv csv);
+
+    /**
+     * Get records in a csv, ordered by frame and object id.
      *
      * @param csvDto csvDto
      * @return records
@@ -37,6 +60,61 @@ public interface CsvService extends CrudService<Csv, Long, CsvDto> {
      */
     List<RecordDto> getRecordsInCsv(CsvDto csvDto) throws NotFoundException;
 
+    /**
+     * Get the records in a window of frames of a csv, ordered by frame and object id.
+     *
+     * @param csvDto    csvDto
+     * @param frameFrom frameFrom
+     * @param frameTo   frameTo
+     * @return records
+     * @throws NotFoundException NotFoundException
+     */
+    List<RecordDto> getRecordsInCsv(CsvDto csvDto, int frameFrom, int frameTo)
+            throws NotFoundException;
+
+    /**
+     * Write the records in a csv as a json array, ordered by frame and object id.
+     *
+     * @param csvDto       csvDto
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    void writeRecordsInCsv(CsvDto csvDto, OutputStream outputStream)
+            throws NotFoundException, IOException;
+
+    /**
+     * Get the version of the records in a csv.
+     *
+     * @param csvDto csvDto
+     * @return version
+     * @throws NotFoundException NotFoundException
+     */
+    long getVersion(CsvDto csvDto) throws NotFoundException;
+
+    /**
+     * Increment the version of a csv after its records changed.
+     *
+     * @param csvId csvId
+     */
+    void incrementVersion(Long csvId);
+
+    /**
+     * Increment the version of a csv, only if it still has the expected version.
+     *
+     * @param csvId   csvId
+     * @param version expected version
+     * @return true if the version was incremented
+     */
+    boolean incrementVersion(Long csvId, long version);
+
+    /**
+     * Increment the version of the overlay csvs of a persistent csv.
+     *
+     * @param persistentCsvId persistentCsvId
+     */
+    void incrementOverlayVersions(Long persistentCsvId);
+
     /**
      * Delete records in a csv.
      *
@@ -58,5 +136,17 @@ public interface CsvService extends CrudService<Csv, Long, CsvDto> {
     Csv createCsvAndSaveRecords(ContainerDto containerDto, MultipartFile multipartFileCsv)
             throws Exception;
 
+    /**
+     * Create a csv and save the records read from a stream.
+     *
+     * @param containerDto containerDto
+     * @param csvStream    csvStream
+     * @param contentType  contentType
+     * @return Csv
+     * @throws Exception Exception
+     */
+    Csv createCsvAndSaveRecords(ContainerDto containerDto, InputStream csvStream,
+                                String contentType) throws Exception;
+
 
 }
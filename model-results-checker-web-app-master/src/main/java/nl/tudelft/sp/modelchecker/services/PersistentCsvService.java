@@ -1,5 +1,8 @@
 package nl.tudelft.sp.modelchecker.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.List;
 import javassist.NotFoundException;
@@ -35,6 +38,18 @@ public interface PersistentCsvService extends CrudService<PersistentCsv, Long, C
      */
     PersistentCsv saveCsv(ContainerDto containerDto, CsvDto csvDto) throws Exception;
 
+    /**
+     * Create a persistent csv and save the records read from a stream.
+     *
+     * @param containerDto containerDto
+     * @param csvStream    csvStream
+     * @param contentType  contentType
+     * @return csv
+     * @throws Exception Exception
+     */
+    PersistentCsv createCsvAndSaveRecords(ContainerDto containerDto, InputStream csvStream,
+                                          String contentType) throws Exception;
+
     /**
      * Get records in persistent csv.
      *
@@ -43,4 +58,43 @@ public interface PersistentCsvService extends CrudService<PersistentCsv, Long, C
      * @throws NotFoundException NotFoundException
      */
     List<RecordDto> getRecordsInPersistentCsv(CsvDto csvDto) throws NotFoundException;
+
+    /**
+     * Get the records in a window of frames of a persistent csv, ordered by frame.
+     *
+     * @param csvDto    csvDto
+     * @param frameFrom frameFrom
+     * @param frameTo   frameTo
+     * @return records
+     * @throws NotFoundException NotFoundException
+     */
+    List<RecordDto> getRecordsInPersistentCsv(CsvDto csvDto, int frameFrom, int frameTo)
+            throws NotFoundException;
+
+    /**
+     * Write the records in a persistent csv as a json array, ordered by id.
+     *
+     * @param csvDto       csvDto
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    void writeRecordsInPersistentCsv(CsvDto csvDto, OutputStream outputStream)
+            throws NotFoundException, IOException;
+
+    /**
+     * Get the version of the records in a persistent csv.
+     *
+     * @param csvDto csvDto
+     * @return version
+     * @throws NotFoundException NotFoundException
+     */
+    long getVersion(CsvDto csvDto) throws NotFoundException;
+
+    /**
+     * Increment the version of a persistent csv after its records changed.
+     *
+     * @param csvId csvId
+     */
+    void incrementVersion(Long csvId);
 }
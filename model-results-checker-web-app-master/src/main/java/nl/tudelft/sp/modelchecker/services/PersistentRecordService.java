@@ -1,6 +1,7 @@
 package nl.tudelft.sp.modelchecker.services;
 
 import java.io.IOException;
+import java.io.InputStream;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
@@ -33,4 +34,16 @@ public interface PersistentRecordService extends CrudService<PersistentRecord, L
     void save(CsvDto csvNormal, CsvDto csvPersistent)
             throws IOException, ExistsException, NotFoundException;
 
+    /**
+     * Save the records of a csv stream in a persistent csv.
+     *
+     * @param stream      stream
+     * @param contentType contentType
+     * @param csvdto      csvdto
+     * @throws IOException       IOException
+     * @throws NotFoundException NotFoundException
+     */
+    void save(InputStream stream, String contentType, CsvDto csvdto)
+            throws IOException, NotFoundException;
+
 }
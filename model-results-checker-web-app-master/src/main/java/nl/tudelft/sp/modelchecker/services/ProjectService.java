@@ -36,6 +36,15 @@ public interface ProjectService extends CrudService<Project, Long, ProjectDto> {
     List<ContainerDto> getContainerDtosInProject(ProjectDto projectDto)
             throws NotFoundException;
 
+    /**
+     * Get the id of the client of a project.
+     *
+     * @param projectDto projectDto
+     * @return id of the client
+     * @throws NotFoundException NotFoundException
+     */
+    String getClientId(ProjectDto projectDto) throws NotFoundException;
+
     /**
      * Change projectHolder in a project.
      *
@@ -0,0 +1,36 @@
+package nl.tudelft.sp.modelchecker.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javassist.NotFoundException;
+import nl.tudelft.sp.modelchecker.dto.CsvDto;
+
+public interface RecordResponseService {
+
+    /**
+     * Write the records in a csv as a json array ordered by frame and object id,
+     * gzipped or not, through the response cache.
+     *
+     * @param csvDto       csvDto
+     * @param gzip         whether to write the records gzipped
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    void writeCachedRecordsInCsv(CsvDto csvDto, boolean gzip, OutputStream outputStream)
+            throws NotFoundException, IOException;
+
+    /**
+     * Write the records in a persistent csv as a json array ordered by id, gzipped
+     * or not, through the response cache.
+     *
+     * @param csvDto       csvDto
+     * @param gzip         whether to write the records gzipped
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    void writeCachedRecordsInPersistentCsv(CsvDto csvDto, boolean gzip,
+                                           OutputStream outputStream)
+            throws NotFoundException, IOException;
+}
@@ -1,11 +1,14 @@
 package nl.tudelft.sp.modelchecker.services;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -36,6 +39,18 @@ public interface RecordService extends CrudService<Record, Long, RecordDto> {
     void save(MultipartFile file, CsvDto csvdto)
             throws IOException, ExistsException, NotFoundException;
 
+    /**
+     * Save the records read from a csv stream in dto.
+     *
+     * @param stream      stream
+     * @param contentType contentType
+     * @param csvdto      csvdto
+     * @throws IOException       IOException
+     * @throws NotFoundException NotFoundException
+     */
+    void save(InputStream stream, String contentType, CsvDto csvdto)
+            throws IOException, NotFoundException;
+
     /**
      * save records.
      *
@@ -55,4 +70,16 @@ public interface RecordService extends CrudService<Record, Long, RecordDto> {
      */
     void delete(List<RecordDto> recordDtos);
 
+    /**
+     * Apply a patch to the records of a csv.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @param csvdto         csvdto
+     * @return version of the csv after the patch
+     * @throws NotFoundException NotFoundException
+     * @throws ConflictException ConflictException
+     */
+    long patch(RecordPatchDto recordPatchDto, CsvDto csvdto)
+            throws NotFoundException, ConflictException;
+
 }
@@ -0,0 +1,49 @@
+package nl.tudelft.sp.modelchecker.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javassist.NotFoundException;
+
+public interface ResponseCacheService {
+
+    /**
+     * Write the response for the records of a csv to an output stream, gzipped or
+     * not. If it is not cached yet, the writer streams it to the output stream while
+     * a gzipped copy is kept to cache.
+     *
+     * @param csvType      type of the csv
+     * @param csvId        id of the csv
+     * @param writer       writer of the uncompressed response
+     * @param gzip         whether to write the response gzipped
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    void write(Class<?> csvType, Long csvId, ResponseWriter writer, boolean gzip,
+               OutputStream outputStream) throws NotFoundException, IOException;
+
+    /**
+     * Evict the response for the records of a csv, now and again when the
+     * current transaction completes.
+     *
+     * @param csvType type of the csv
+     * @param csvId   id of the csv
+     */
+    void evict(Class<?> csvType, Long csvId);
+
+    /**
+     * Writes a response to an output stream.
+     */
+    @FunctionalInterface
+    interface ResponseWriter {
+
+        /**
+         * Write the response.
+         *
+         * @param outputStream outputStream
+         * @throws NotFoundException NotFoundException
+         * @throws IOException       IOException
+         */
+        void write(OutputStream outputStream) throws NotFoundException, IOException;
+    }
+}
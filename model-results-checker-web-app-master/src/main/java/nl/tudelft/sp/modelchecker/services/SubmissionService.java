@@ -4,10 +4,12 @@ import java.io.IOException;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.RecordListDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.dto.SubmissionDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.Submission;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 
 public interface SubmissionService extends CrudService<Submission, Long, SubmissionDto> {
@@ -38,6 +40,20 @@ public interface SubmissionService extends CrudService<Submission, Long, Submiss
     void register(RecordListDto recordListDto, String clientId)
             throws ExistsException, NotFoundException, IOException, AuthorityException;
 
+    /**
+     * register submission with a patch of the records of its container.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @param clientId       clientId
+     * @return version of the csv of the container after the patch
+     * @throws ExistsException    ExistsException
+     * @throws NotFoundException  NotFoundException
+     * @throws AuthorityException AuthorityException
+     * @throws ConflictException  ConflictException
+     */
+    long register(RecordPatchDto recordPatchDto, String clientId)
+            throws ExistsException, NotFoundException, AuthorityException, ConflictException;
+
     /**
      * Assign a container to a submission.
      *
@@ -2,6 +2,7 @@ package nl.tudelft.sp.modelchecker.services;
 
 import java.util.List;
 import javassist.NotFoundException;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.User;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
@@ -50,4 +51,13 @@ public interface UserService<U extends User> extends CrudService<U, String, User
      */
     List<UserDto> convertToUserDtos();
 
+    /**
+     * Convert a page of users to UserDtos.
+     *
+     * @param pageDto pageDto
+     * @return page of UserDto
+     * @throws NotFoundException NotFoundException
+     */
+    List<UserDto> convertToUserDtos(PageDto<String> pageDto) throws NotFoundException;
+
 }
@@ -1,11 +1,8 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.Admin;
-import nl.tudelft.sp.modelchecker.entities.User;
 import nl.tudelft.sp.modelchecker.repositories.UserRepository;
 import nl.tudelft.sp.modelchecker.services.AdminService;
 import org.springframework.stereotype.Service;
@@ -46,7 +43,7 @@ public class AdminJpaService extends UserJpaService<Admin> implements AdminServi
      */
     @Override
     public boolean isAdmin(String userId) {
-        return findById(userId) instanceof Admin;
+        return adminRepository.existsByIdAndType(userId, Admin.class);
     }
 
 
@@ -57,11 +54,7 @@ public class AdminJpaService extends UserJpaService<Admin> implements AdminServi
      */
     @Override
     public int count() {
-        int c = 0;
-        for (User user : adminRepository.findAll()) {
-            if (user instanceof Admin) c++;
-        }
-        return c;
+        return (int) adminRepository.countByType(Admin.class);
     }
 
     /**
@@ -71,13 +64,6 @@ public class AdminJpaService extends UserJpaService<Admin> implements AdminServi
      */
     @Override
     public List<UserDto> convertToUserDtos() {
-        List<Admin> basicUsers = new ArrayList<>();
-        for (User user : adminRepository.findAll()) {
-            if (user instanceof Admin) {
-                basicUsers.add((Admin) user);
-            }
-        }
-        return basicUsers.stream().map(UserDto::new)
-                .collect(Collectors.toList());
+        return adminRepository.findDtosByType(Admin.class);
     }
 }
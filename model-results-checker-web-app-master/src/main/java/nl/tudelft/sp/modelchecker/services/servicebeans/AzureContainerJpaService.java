@@ -1,12 +1,19 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultContinuationType;
+import com.microsoft.azure.storage.ResultSegment;
 import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobListingDetails;
 import com.microsoft.azure.storage.blob.CloudBlobClient;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
 import com.microsoft.azure.storage.blob.ListBlobItem;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import nl.tudelft.sp.modelchecker.dto.BlobListDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.services.AzureContainerService;
 import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +46,39 @@ public class AzureContainerJpaService extends AzureJpaService implements AzureCo
         return blobs;
     }
 
+    /**
+     * get a page of blob names in the cloud container. The after of the page is the
+     * marker of the next page, as returned with the previous page.
+     *
+     * @param containerName containerName
+     * @param pageDto       pageDto
+     * @return page of blob names
+     * @throws URISyntaxException URISyntaxException
+     * @throws StorageException StorageException
+     */
+    public BlobListDto listBlobs(String containerName, PageDto<String> pageDto)
+            throws URISyntaxException, StorageException {
+
+        ResultContinuation marker = null;
+        if (pageDto.getAfter() != null) {
+            marker = new ResultContinuation();
+            marker.setContinuationType(ResultContinuationType.BLOB);
+            marker.setNextMarker(pageDto.getAfter());
+        }
+
+        CloudBlobContainer container = cloudBlobClient.getContainerReference(containerName);
+        ResultSegment<ListBlobItem> segment = container.listBlobsSegmented(null, false,
+                EnumSet.noneOf(BlobListingDetails.class), pageDto.limit(), marker, null, null);
+
+        List<String> blobs = new ArrayList<>();
+        for (ListBlobItem x : segment.getResults()) {
+            blobs.add(FilenameUtils.getName(x.getUri().getPath()));
+        }
+
+        ResultContinuation next = segment.getContinuationToken();
+        return new BlobListDto(blobs, next == null ? null : next.getNextMarker());
+    }
+
     /**
      * get CloudBlobContainer.
      *
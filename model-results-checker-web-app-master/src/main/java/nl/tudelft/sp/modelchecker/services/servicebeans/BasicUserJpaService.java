@@ -1,11 +1,8 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.BasicUser;
-import nl.tudelft.sp.modelchecker.entities.User;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
 import nl.tudelft.sp.modelchecker.repositories.UserRepository;
 import nl.tudelft.sp.modelchecker.services.UserService;
@@ -63,13 +60,7 @@ public class BasicUserJpaService extends UserJpaService<BasicUser>
      */
     @Override
     public int count() {
-        int c = 0;
-        for (User user : repository.findAll()) {
-            if (user instanceof BasicUser) {
-                c++;
-            }
-        }
-        return c;
+        return (int) repository.countByType(BasicUser.class);
     }
 
 
@@ -80,13 +71,6 @@ public class BasicUserJpaService extends UserJpaService<BasicUser>
      */
     @Override
     public List<UserDto> convertToUserDtos() {
-        List<BasicUser> basicUsers = new ArrayList<>();
-        for (User user : repository.findAll()) {
-            if (user instanceof BasicUser) {
-                basicUsers.add((BasicUser) user);
-            }
-        }
-        return basicUsers.stream().map(UserDto::new)
-                .collect(Collectors.toList());
+        return repository.findDtosByType(BasicUser.class);
     }
 }
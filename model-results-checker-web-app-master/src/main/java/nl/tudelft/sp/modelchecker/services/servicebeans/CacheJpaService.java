@@ -0,0 +1,59 @@
+package nl.tudelft.sp.modelchecker.services.servicebeans;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.SneakyThrows;
+import nl.tudelft.sp.modelchecker.dto.CacheStatisticsDto;
+import nl.tudelft.sp.modelchecker.services.CacheService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads the statistics of the second level cache regions. The caches are created by
+ * hibernate through JCache with statistics enabled in ehcache.xml, which registers
+ * a statistics bean for every region on the platform MBean server.
+ */
+@Service
+public class CacheJpaService implements CacheService {
+
+    private static final String STATISTICS = "javax.cache:type=CacheStatistics,*";
+
+    private static final String CACHE = "Cache";
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Get the statistics of all second level cache regions, ordered by region.
+     *
+     * @return list of statistics
+     */
+    @Override
+    @SneakyThrows
+    public List<CacheStatisticsDto> getStatistics() {
+        return server.queryNames(new ObjectName(STATISTICS), null).stream()
+                .map(this::getStatistics)
+                .sorted(Comparator.comparing(CacheStatisticsDto::getRegion))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the statistics of one region from its statistics bean.
+     *
+     * @param name name of the statistics bean
+     * @return statistics
+     */
+    private CacheStatisticsDto getStatistics(ObjectName name) {
+        CacheStatisticsMXBean statistics =
+                JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+
+        return new CacheStatisticsDto(name.getKeyProperty(CACHE),
+                statistics.getCacheHits(), statistics.getCacheMisses(),
+                statistics.getCacheHitPercentage(), statistics.getCachePuts(),
+                statistics.getCacheRemovals(), statistics.getCacheEvictions());
+    }
+}
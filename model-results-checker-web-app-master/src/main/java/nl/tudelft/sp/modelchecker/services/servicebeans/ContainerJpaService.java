@@ -1,16 +1,20 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.*;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Entities;
 import nl.tudelft.sp.modelchecker.entities.Project;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.parsers.FileParser.Adapter;
 import nl.tudelft.sp.modelchecker.services.ContainerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -34,6 +38,13 @@ public class ContainerJpaService extends CrudJpaService<Container, Long, Contain
     @Autowired
     private PersistentCsvJpaService persistentCsvJpaService;
 
+    /**
+     * Store the csv of a filled container as an overlay of its persistent csv,
+     * instead of as a full copy of the records.
+     */
+    @Value("${records.overlay:false}")
+    private boolean overlay;
+
 
     /**
      * Constructor for containerService.
@@ -70,11 +81,11 @@ public class ContainerJpaService extends CrudJpaService<Container, Long, Contain
 
         Project project = projectJpaService.findById(projectDto.getId());
 
-        project.getContainers().add(container);
         container.setProject(project);
+        Container saved = save(container);
+        Entities.addIfLoaded(project.getContainers(), saved);
 
-
-        return save(container);
+        return saved;
     }
 
     /**
@@ -96,6 +107,7 @@ public class ContainerJpaService extends CrudJpaService<Container, Long, Contain
         container.setFrameRate(newDto.getFrameRate());
         container.setDescription(newDto.getDescription());
         container.setName(newDto.getName());
+        incrementVersions(container);
 
         return save(container);
     }
@@ -118,15 +130,48 @@ public class ContainerJpaService extends CrudJpaService<Container, Long, Contain
                                    ProjectDto projectDto)
             throws Exception {
 
+        return fillContainer(multipartFileCsv.getInputStream(),
+                multipartFileCsv.getContentType(), getClasses(classes),
+                container, projectDto);
+    }
+
+    /**
+     * Fill a container with records read from a csv stream. The records are
+     * written twice, in the csv and in the persistent csv, unless the csv is
+     * stored as an overlay: then they are only written to the persistent csv
+     * and the csv starts out empty.
+     *
+     * @param csv            csv
+     * @param csvContentType csvContentType
+     * @param classes        classes
+     * @param container      container
+     * @param projectDto     projectDto
+     * @return filled container
+     * @throws Exception Exception
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public Container fillContainer(InputStream csv, String csvContentType,
+                                   List<String> classes, Container container,
+                                   ProjectDto projectDto)
+            throws Exception {
+
         Container processContainer = register(container, projectDto);
         ContainerDto containerDto = new ContainerDto(processContainer);
 
         registerClasses(classes, containerDto);
 
-        Csv csv = csvJpaService
-                .createCsvAndSaveRecords(containerDto, multipartFileCsv);
+        if (overlay) {
+            persistentCsvJpaService.createCsvAndSaveRecords(containerDto, csv, csvContentType);
+            csvJpaService.createOverlayCsv(containerDto);
+            return processContainer;
+        }
+
+        Csv returnCsv = csvJpaService
+                .createCsvAndSaveRecords(containerDto, csv, csvContentType);
 
-        persistentCsvJpaService.saveCsv(containerDto, new CsvDto(csv));
+        persistentCsvJpaService.saveCsv(containerDto, new CsvDto(returnCsv));
 
         return processContainer;
     }
@@ -155,6 +200,29 @@ public class ContainerJpaService extends CrudJpaService<Container, Long, Contain
         return container;
     }
 
+    /**
+     * Patch the records of a container, see {@link RecordJpaService#patch}.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @return version of the csv of the container after the patch
+     * @throws NotFoundException NotFoundException
+     * @throws ConflictException ConflictException
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public long patchContainer(RecordPatchDto recordPatchDto)
+            throws NotFoundException, ConflictException {
+
+        Long containerId = recordPatchDto.getContainerId();
+        Container container = containerId == null ? null : findById(containerId);
+        if (container == null || container.getCsv() == null) {
+            throw new NotFoundException("Csv not found");
+        }
+
+        return recordJpaService.patch(recordPatchDto, new CsvDto(container.getCsv()));
+    }
+
 
     /**
      * Register classes.
@@ -168,11 +236,39 @@ public class ContainerJpaService extends CrudJpaService<Container, Long, Contain
     @Override
     public void registerClasses(MultipartFile classes, ContainerDto containerDto)
             throws IOException {
+        registerClasses(getClasses(classes), containerDto);
+    }
+
+    /**
+     * Register classes that have already been read.
+     *
+     * @param classes      classes
+     * @param containerDto containerDto
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void registerClasses(List<String> classes, ContainerDto containerDto) {
         Container container = findById(containerDto.getId());
-        container.setClasses(getClasses(classes));
+        container.setClasses(classes);
+        incrementVersions(container);
         save(container);
     }
 
+    /**
+     * Increment the versions of the csvs of a container after it changed.
+     *
+     * @param container container
+     */
+    private void incrementVersions(Container container) {
+        if (container.getCsv() != null) {
+            csvJpaService.incrementVersion(container.getCsv().getId());
+        }
+        if (container.getPersistentCSv() != null) {
+            persistentCsvJpaService.incrementVersion(container.getPersistentCSv().getId());
+        }
+    }
+
     /**
      * Get classes of a multipart file.
      *
@@ -1,14 +1,27 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
-import java.lang.reflect.Constructor;
+import java.lang.reflect.AnnotatedElement;
 import java.util.List;
 import java.util.stream.Collectors;
 import javassist.NotFoundException;
-import lombok.SneakyThrows;
+import javax.persistence.Column;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 import nl.tudelft.sp.modelchecker.dto.Dto;
+import nl.tudelft.sp.modelchecker.dto.DtoFactory;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.entities.SuperEntity;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.CrudService;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,13 +38,21 @@ public abstract class CrudJpaService<T extends SuperEntity<K>, K, D extends Dto<
 
     private final JpaRepository<T, K> repository;
 
+    private final Class<T> entityClass;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Initialize a CrudJpaRepository.
      *
      * @param repository repository
      */
+    @SuppressWarnings("unchecked")
     public CrudJpaService(JpaRepository<T, K> repository) {
         this.repository = repository;
+        this.entityClass = (Class<T>) GenericTypeResolver
+                .resolveTypeArguments(getClass(), CrudJpaService.class)[0];
     }
 
     /**
@@ -119,6 +140,17 @@ public abstract class CrudJpaService<T extends SuperEntity<K>, K, D extends Dto<
         return repository.save(type);
     }
 
+    /**
+     * Read the state of a managed type again, after it was updated in the database.
+     *
+     * @param type to refresh
+     * @return the refreshed type
+     */
+    protected T refresh(T type) {
+        entityManager.refresh(type);
+        return type;
+    }
+
 
     /**
      * Updates entry in database using a new dto.
@@ -193,6 +225,109 @@ public abstract class CrudJpaService<T extends SuperEntity<K>, K, D extends Dto<
         return list.stream().map(n -> getInstance(clazz, n)).collect(Collectors.toList());
     }
 
+    /**
+     * Retrieve a page of entities with a keyset query. The page is ordered by the sort
+     * attribute and then by id, and starts after the entity with the last-seen id, so
+     * the cost of a page does not depend on how many pages come before it.
+     *
+     * @param page page
+     * @return page of entities
+     * @throws NotFoundException if the last-seen entity wasn't found
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<T> findPage(PageDto<K> page) throws NotFoundException {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        String idName = entityType.getId(entityType.getIdType().getJavaType()).getName();
+        String sortName = page.getSort() == null ? idName : sortAttribute(entityType, page);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Expression<Comparable> id = root.get(idName);
+        Expression<Comparable> key = root.get(sortName);
+
+        if (page.getAfter() != null) {
+            Comparable after = (Comparable) page.getAfter();
+            Comparable last = sortName.equals(idName) ? after : sortValue(sortName, idName, after);
+
+            query.where(page.isDescending()
+                    ? builder.or(builder.lessThan(key, last),
+                        builder.and(builder.equal(key, last), builder.lessThan(id, after)))
+                    : builder.or(builder.greaterThan(key, last),
+                        builder.and(builder.equal(key, last), builder.greaterThan(id, after))));
+        }
+
+        query.orderBy(page.isDescending()
+                ? List.of(builder.desc(key), builder.desc(id))
+                : List.of(builder.asc(key), builder.asc(id)));
+
+        return entityManager.createQuery(query).setMaxResults(page.limit()).getResultList();
+    }
+
+    /**
+     * Retrieve a page of dtos from the database of class clazz.
+     *
+     * @param clazz class
+     * @param page  page
+     * @return page of dtos
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public List<D> findDtoPage(Class<D> clazz, PageDto<K> page) throws NotFoundException {
+        return findPage(page).stream().map(n -> getInstance(clazz, n))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Check that the page can be sorted by its sort attribute. Only basic attributes
+     * that cannot be null can be a sort key, as rows with a null key have no place
+     * in the keyset order.
+     *
+     * @param entityType entityType
+     * @param page       page
+     * @return name of the sort attribute
+     */
+    private String sortAttribute(EntityType<T> entityType, PageDto<K> page) {
+        SingularAttribute<? super T, ?> attribute = entityType.getSingularAttributes().stream()
+                .filter(n -> n.getName().equals(page.getSort())).findAny()
+                .orElseThrow(() -> new BadRequestException(
+                        "Cannot sort by unknown attribute " + page.getSort()));
+
+        Column column = ((AnnotatedElement) attribute.getJavaMember())
+                .getAnnotation(Column.class);
+        boolean notNull = attribute.getJavaType().isPrimitive() || attribute.isId()
+                || (column != null && !column.nullable());
+
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                || !notNull) {
+            throw new BadRequestException("Cannot sort by attribute " + page.getSort());
+        }
+        return attribute.getName();
+    }
+
+    /**
+     * Get the value of the sort attribute of the last-seen entity.
+     *
+     * @param sortName sortName
+     * @param idName   idName
+     * @param after    after
+     * @return value of the sort attribute
+     * @throws NotFoundException if the last-seen entity wasn't found
+     */
+    @SuppressWarnings("rawtypes")
+    private Comparable sortValue(String sortName, String idName, Comparable after)
+            throws NotFoundException {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = builder.createQuery();
+        Root<T> root = query.from(entityClass);
+        query.select(root.get(sortName)).where(builder.equal(root.get(idName), after));
+
+        List<Object> values = entityManager.createQuery(query).getResultList();
+        if (values.size() == 0) throw new NotFoundException("Last-seen entity not Found");
+        return (Comparable) values.get(0);
+    }
+
     /**
      * Get instance from class.
      *
@@ -200,10 +335,8 @@ public abstract class CrudJpaService<T extends SuperEntity<K>, K, D extends Dto<
      * @param n     n
      * @return Dto d
      */
-    @SneakyThrows
     private D getInstance(Class<D> clazz, T n) {
-        Constructor<D> cons = clazz.getConstructor(n.getClass());
-        return cons.newInstance(n);
+        return DtoFactory.create(clazz, n);
     }
 
     /**
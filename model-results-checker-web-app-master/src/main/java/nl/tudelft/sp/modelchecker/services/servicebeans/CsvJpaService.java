@@ -1,8 +1,15 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import javax.validation.constraints.NotNull;
@@ -11,10 +18,13 @@ import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Csv;
-import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.repositories.CsvRepository;
+import nl.tudelft.sp.modelchecker.repositories.PersistentRecordRepository;
+import nl.tudelft.sp.modelchecker.repositories.RecordRepository;
 import nl.tudelft.sp.modelchecker.services.CsvService;
-import org.modelmapper.ModelMapper;
+import nl.tudelft.sp.modelchecker.services.ResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
@@ -34,7 +44,19 @@ public class CsvJpaService extends CrudJpaService<Csv, Long, CsvDto> implements
     private RecordJpaService recordJpaService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RecordRepository recordRepository;
+
+    @Autowired
+    private PersistentRecordRepository persistentRecordRepository;
+
+    @Autowired
+    private CsvRepository csvRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
 
     /**
      * Initialize a Csv repository.
@@ -92,7 +114,50 @@ public class CsvJpaService extends CrudJpaService<Csv, Long, CsvDto> implements
     }
 
     /**
-     * Get records in a csv.
+     * Create a csv that is an overlay of the persistent csv of a container, so
+     * only the records that are changed later on are stored for it.
+     *
+     * @param containerDto containerDto
+     * @return registered Csv
+     * @throws ExistsException                          ExistsException
+     * @throws NotFoundException                        NotFoundException
+     * @throws SQLIntegrityConstraintViolationException SQLIntegrityConstraintViolationException
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public Csv createOverlayCsv(ContainerDto containerDto)
+            throws ExistsException, NotFoundException, SQLIntegrityConstraintViolationException {
+
+        Container container = containerJpaService.findById(containerDto.getId());
+        if (container == null || container.getPersistentCSv() == null) {
+            throw new NotFoundException("Persistent csv not found");
+        }
+
+        Csv csv = new Csv();
+        csv.setOverlay(true);
+
+        return register(csv, containerDto);
+    }
+
+    /**
+     * Get the id of the persistent csv a csv is an overlay of.
+     *
+     * @param csv csv
+     * @return id of the persistent csv, or null if the csv is not an overlay
+     */
+    @Override
+    public Long getBaseId(Csv csv) {
+        if (!csv.isOverlay()) return null;
+
+        return csv.getContainer().getPersistentCSv().getId();
+    }
+
+    /**
+     * Get records in a csv ordered by frame and object id, read with a cursor so the
+     * records are not loaded as entities. The records of an overlay csv are merged
+     * with the persistent csv in the same order. Records of the persistent csv have
+     * no id, as they are no record of the csv.
      *
      * @param csvDto csvDto
      * @return records
@@ -105,14 +170,156 @@ public class CsvJpaService extends CrudJpaService<Csv, Long, CsvDto> implements
 
         if (csv == null) throw new NotFoundException("Csv not found");
 
-        Set<Record> records = csv.getRecords();
+        List<RecordDto> recordDtos = new ArrayList<>();
+        try {
+            if (csv.isOverlay()) {
+                recordRepository.forEachOverlaidRecord(csv.getId(), getBaseId(csv),
+                        recordDtos::add);
+            } else {
+                recordRepository.forEachRecord(csv.getId(), recordDtos::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return recordDtos;
+    }
+
+    /**
+     * Get the records in a window of frames of a csv, ordered by frame and object id.
+     * The records of an overlay csv are merged with the persistent csv in the same
+     * order, and records of the persistent csv have no id.
+     *
+     * @param csvDto    csvDto
+     * @param frameFrom frameFrom
+     * @param frameTo   frameTo
+     * @return records
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public List<RecordDto> getRecordsInCsv(CsvDto csvDto, int frameFrom, int frameTo)
+            throws NotFoundException {
+
+        Csv csv = findById(csvDto.getId());
+        if (csv == null) throw new NotFoundException("Csv not found");
 
-        return records.stream().map(n -> modelMapper.map(n, RecordDto.class)).sorted()
+        List<RecordDto> recordDtos = recordRepository
+                .findFrameWindow(csv.getId(), frameFrom, frameTo).stream()
+                .map(RecordDto::new)
                 .collect(Collectors.toList());
+
+        if (csv.isOverlay()) {
+            for (PersistentRecord persistentRecord : persistentRecordRepository
+                    .findFrameWindowNotOverlaid(getBaseId(csv), csv.getId(), frameFrom, frameTo)) {
+                RecordDto recordDto = new RecordDto(persistentRecord);
+                recordDto.setId(null);
+                recordDto.setCsvId(csv.getId());
+                recordDtos.add(recordDto);
+            }
+            recordDtos.sort(Comparator.comparingInt(RecordDto::getFrameNum)
+                    .thenComparingInt(RecordDto::getObjectId));
+        }
+        return recordDtos;
+    }
+
+    /**
+     * Write the records in a csv as a json array, ordered by frame and object id. The
+     * records are read with a database cursor and written as soon as they are read,
+     * so neither entities nor a list of all records are kept in memory. The records
+     * of an overlay csv are merged with the persistent csv in the same order, and
+     * records of the persistent csv have no id.
+     *
+     * @param csvDto       csvDto
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Override
+    public void writeRecordsInCsv(CsvDto csvDto, OutputStream outputStream)
+            throws NotFoundException, IOException {
+
+        Csv csv = findById(csvDto.getId());
+        if (csv == null) throw new NotFoundException("Csv not found");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            if (csv.isOverlay()) {
+                recordRepository.forEachOverlaidRecord(csv.getId(), getBaseId(csv),
+                        generator::writeObject);
+            } else {
+                recordRepository.forEachRecord(csv.getId(), generator::writeObject);
+            }
+            generator.writeEndArray();
+        }
     }
 
     /**
-     * Delete records in a csv.
+     * Get the version of the records in a csv. Only the csv table is read.
+     *
+     * @param csvDto csvDto
+     * @return version
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public long getVersion(CsvDto csvDto) throws NotFoundException {
+        Long version = csvRepository.findVersionById(csvDto.getId());
+        if (version == null) throw new NotFoundException("Csv not found");
+
+        return version;
+    }
+
+    /**
+     * Increment the version of a csv after its records changed, and evict its
+     * cached records.
+     *
+     * @param csvId csvId
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void incrementVersion(Long csvId) {
+        csvRepository.incrementVersion(csvId);
+        responseCacheService.evict(Csv.class, csvId);
+    }
+
+    /**
+     * Increment the version of a csv, only if it still has the expected version.
+     * The row of the csv stays locked until the transaction completes, so of two
+     * writers expecting the same version only the first increments it.
+     *
+     * @param csvId   csvId
+     * @param version expected version
+     * @return true if the version was incremented
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public boolean incrementVersion(Long csvId, long version) {
+        if (csvRepository.incrementVersion(csvId, version) == 0) return false;
+
+        responseCacheService.evict(Csv.class, csvId);
+        return true;
+    }
+
+    /**
+     * Increment the version of the overlay csvs of a persistent csv after its
+     * records changed, and evict their cached records, which include them.
+     *
+     * @param persistentCsvId persistentCsvId
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void incrementOverlayVersions(Long persistentCsvId) {
+        for (Long csvId : csvRepository.findOverlayIds(persistentCsvId)) {
+            incrementVersion(csvId);
+        }
+    }
+
+    /**
+     * Delete records in a csv with a single set based delete. An overlay csv
+     * stops being an overlay, so it is empty afterwards as well. The csv is
+     * refreshed, as its version and overlay are updated in the database.
      *
      * @param csvDto csvDto
      * @return deleted records
@@ -125,9 +332,12 @@ public class CsvJpaService extends CrudJpaService<Csv, Long, CsvDto> implements
         Csv csv = findById(csvDto.getId());
         if (csv == null) throw new NotFoundException("Csv not found");
 
-        recordJpaService.deleteAll(csv.getRecords());
+        recordRepository.deleteAllByCsvId(csv.getId());
+        recordRepository.detachRecords(csv.getId());
+        if (csv.isOverlay()) csvRepository.detach(csv.getId());
+        incrementVersion(csv.getId());
 
-        return findById(csvDto.getId());
+        return refresh(csv);
     }
 
 
@@ -143,9 +353,27 @@ public class CsvJpaService extends CrudJpaService<Csv, Long, CsvDto> implements
             propagation = Propagation.REQUIRED)
     public Csv createCsvAndSaveRecords(ContainerDto containerDto, MultipartFile multipartFileCsv)
             throws Exception {
+        return createCsvAndSaveRecords(containerDto, multipartFileCsv.getInputStream(),
+                multipartFileCsv.getContentType());
+    }
+
+    /**
+     * Create and save records read from a stream.
+     *
+     * @param containerDto containerDto
+     * @param csvStream    csvStream
+     * @param contentType  contentType
+     * @return saved csv
+     * @throws Exception Exception
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public Csv createCsvAndSaveRecords(ContainerDto containerDto, InputStream csvStream,
+                                       String contentType) throws Exception {
         Csv returnCsv = register(new Csv(), containerDto);
         CsvDto csvDto = new CsvDto(returnCsv);
-        recordJpaService.save(multipartFileCsv, csvDto);
+        recordJpaService.save(csvStream, contentType, csvDto);
 
         return returnCsv;
     }
@@ -1,8 +1,14 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
@@ -10,10 +16,11 @@ import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
-import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.repositories.PersistentCSvRepository;
+import nl.tudelft.sp.modelchecker.repositories.PersistentRecordRepository;
 import nl.tudelft.sp.modelchecker.services.PersistentCsvService;
-import org.modelmapper.ModelMapper;
+import nl.tudelft.sp.modelchecker.services.ResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
@@ -30,11 +37,23 @@ public class PersistentCsvJpaService extends CrudJpaService<PersistentCsv, Long,
     private ContainerJpaService containerJpaService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CsvJpaService csvJpaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
 
     @Autowired
     private PersistentRecordJpaService persistentRecordJpaService;
 
+    @Autowired
+    private PersistentRecordRepository persistentRecordRepository;
+
+    @Autowired
+    private PersistentCSvRepository persistentCsvRepository;
+
 
     /**
      * Initialize a CrudJpaRepository.
@@ -80,7 +99,8 @@ public class PersistentCsvJpaService extends CrudJpaService<PersistentCsv, Long,
     }
 
     /**
-     * Get records from a persistent csv.
+     * Get records from a persistent csv ordered by id, read with a cursor so the
+     * records are not loaded as entities.
      *
      * @param csvDto csvDto
      * @return records
@@ -95,12 +115,90 @@ public class PersistentCsvJpaService extends CrudJpaService<PersistentCsv, Long,
 
         if (persistentCsv == null) throw new NotFoundException("Csv not found");
 
-        Set<PersistentRecord> records = persistentCsv.getPersistentRecords();
+        List<RecordDto> recordDtos = new ArrayList<>();
+        try {
+            persistentRecordRepository.forEachRecord(persistentCsv.getId(), recordDtos::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return recordDtos;
+    }
 
-        return records.stream().map(n -> modelMapper.map(n, RecordDto.class)).sorted()
+    /**
+     * Get the records in a window of frames of a persistent csv, ordered by frame.
+     *
+     * @param csvDto    csvDto
+     * @param frameFrom frameFrom
+     * @param frameTo   frameTo
+     * @return records
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public List<RecordDto> getRecordsInPersistentCsv(CsvDto csvDto, int frameFrom, int frameTo)
+            throws NotFoundException {
+
+        if (!exists(csvDto)) throw new NotFoundException("Csv not found");
+
+        return persistentRecordRepository.findFrameWindow(csvDto.getId(), frameFrom, frameTo)
+                .stream().map(RecordDto::new)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Write the records in a persistent csv as a json array, ordered by id. The records are
+     * read with a database cursor and written as soon as they are read, so neither
+     * entities nor a list of all records are kept in memory.
+     *
+     * @param csvDto       csvDto
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Override
+    public void writeRecordsInPersistentCsv(CsvDto csvDto, OutputStream outputStream)
+            throws NotFoundException, IOException {
+
+        if (!exists(csvDto)) throw new NotFoundException("Csv not found");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            persistentRecordRepository.forEachRecord(csvDto.getId(), generator::writeObject);
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Get the version of the records in a persistent csv. Only the persistent csv table is read.
+     *
+     * @param csvDto csvDto
+     * @return version
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public long getVersion(CsvDto csvDto) throws NotFoundException {
+        Long version = persistentCsvRepository.findVersionById(csvDto.getId());
+        if (version == null) throw new NotFoundException("Csv not found");
+
+        return version;
+    }
+
+    /**
+     * Increment the version of a persistent csv after its records changed, and evict its
+     * cached records. Its overlay csvs read its records too, so they are incremented
+     * and evicted as well.
+     *
+     * @param csvId csvId
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void incrementVersion(Long csvId) {
+        persistentCsvRepository.incrementVersion(csvId);
+        responseCacheService.evict(PersistentCsv.class, csvId);
+        csvJpaService.incrementOverlayVersions(csvId);
+    }
+
     /**
      * Update records of a dto.
      *
@@ -114,6 +212,27 @@ public class PersistentCsvJpaService extends CrudJpaService<PersistentCsv, Long,
         throw new UnsupportedOperationException("Persistent Csv is read-only");
     }
 
+    /**
+     * Create a persistent csv for a container and save the records read from a stream.
+     *
+     * @param containerDto containerDto
+     * @param csvStream    csvStream
+     * @param contentType  contentType
+     * @return saved csv
+     * @throws Exception Exception
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public PersistentCsv createCsvAndSaveRecords(ContainerDto containerDto, InputStream csvStream,
+                                                 String contentType) throws Exception {
+
+        PersistentCsv persistentCsv = register(new PersistentCsv(), containerDto);
+        persistentRecordJpaService.save(csvStream, contentType, new CsvDto(persistentCsv));
+
+        return persistentCsv;
+    }
+
     /**
      * Save a csv to a container.
      *
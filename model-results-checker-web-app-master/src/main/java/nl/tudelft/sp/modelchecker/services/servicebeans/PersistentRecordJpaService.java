@@ -1,19 +1,22 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.InputStream;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Entities;
 import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
 import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
-import nl.tudelft.sp.modelchecker.entities.Record;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.Adapter;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.RecordReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.config.CsvEngine;
+import nl.tudelft.sp.modelchecker.repositories.PersistentRecordRepository;
 import nl.tudelft.sp.modelchecker.services.PersistentRecordService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -24,23 +27,30 @@ import org.springframework.transaction.annotation.Transactional;
 public class PersistentRecordJpaService extends CrudJpaService<PersistentRecord, Long, RecordDto>
         implements PersistentRecordService {
 
+    private final PersistentRecordRepository persistentRecordRepository;
 
     @Autowired
     private PersistentCsvJpaService persistentCsvJpaService;
 
-    @Autowired
-    private ModelMapper modelMapper;
-
     @Autowired
     private CsvJpaService csvJpaService;
 
+    /**
+     * Engine that parses uploaded csvs.
+     */
+    @Value("${csv.engine:DETECTION}")
+    private CsvEngine csvEngine;
+
     /**
      * Initialize a CrudJpaRepository.
      *
-     * @param repository repository
+     * @param repository                 repository
+     * @param persistentRecordRepository persistentRecordRepository
      */
-    public PersistentRecordJpaService(JpaRepository<PersistentRecord, Long> repository) {
+    public PersistentRecordJpaService(JpaRepository<PersistentRecord, Long> repository,
+                                      PersistentRecordRepository persistentRecordRepository) {
         super(repository);
+        this.persistentRecordRepository = persistentRecordRepository;
     }
 
     /**
@@ -63,14 +73,17 @@ public class PersistentRecordJpaService extends CrudJpaService<PersistentRecord,
         if (!persistentCsvJpaService.exists(csvdto)) throw new NotFoundException("CSV not found");
 
         PersistentCsv csv = persistentCsvJpaService.findById(csvdto.getId());
-        csv.getPersistentRecords().add(record);
         record.setPersistentCsv(csv);
+        persistentCsvJpaService.incrementVersion(csv.getId());
 
-        return save(record);
+        PersistentRecord saved = save(record);
+        Entities.addIfLoaded(csv.getPersistentRecords(), saved);
+        return saved;
     }
 
     /**
      * Save a persistent csv from normal csv.
+     * The records are copied inside the database, without loading them.
      *
      * @param csvNormal     csvNormal
      * @param csvPersistent csvPersistent
@@ -86,17 +99,35 @@ public class PersistentRecordJpaService extends CrudJpaService<PersistentRecord,
 
         Csv csv = csvJpaService.findById(csvNormal.getId());
         PersistentCsv persistentCsv = persistentCsvJpaService.findById(csvPersistent.getId());
-        List<PersistentRecord> detachedRecords = new ArrayList<>();
-
-        for (Record record : csv.getRecords()) {
-            PersistentRecord persistentRecord = modelMapper.map(record, PersistentRecord.class);
-            persistentRecord.setId(null);
-            persistentRecord.setPersistentCsv(persistentCsv);
-            persistentCsv.getPersistentRecords().add(persistentRecord);
-            detachedRecords.add(persistentRecord);
-        }
 
-        saveAll(detachedRecords);
+        persistentRecordRepository.copyFromCsv(csv.getId(), persistentCsv.getId());
+        persistentCsvJpaService.incrementVersion(persistentCsv.getId());
+    }
+
+    /**
+     * Save the records of a csv stream in a persistent csv. The rows are read lazily
+     * and written to the database in bulk, bypassing the persistence context.
+     *
+     * @param stream      stream
+     * @param contentType contentType
+     * @param csvdto      csvdto
+     * @throws IOException       IOException
+     * @throws NotFoundException NotFoundException
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void save(InputStream stream, String contentType, CsvDto csvdto)
+            throws IOException, NotFoundException {
+
+        if (!persistentCsvJpaService.exists(csvdto)) throw new NotFoundException("CSV not found");
+
+        Adapter adapter = new Adapter(contentType, csvEngine);
+
+        try (RecordReader records = adapter.iterateRecords(stream)) {
+            persistentRecordRepository.bulkInsert(csvdto.getId(), records);
+        }
+        persistentCsvJpaService.incrementVersion(csvdto.getId());
     }
 
     /**
@@ -117,7 +148,26 @@ public class PersistentRecordJpaService extends CrudJpaService<PersistentRecord,
         PersistentRecord persistentRecord = findById(oldDto.getId());
 
         persistentRecord.updateAttributes(newDto);
+        persistentCsvJpaService.incrementVersion(persistentRecord.getPersistentCsv().getId());
 
         return save(persistentRecord);
     }
+
+    /**
+     * Delete a persistent record by its id, and increment the version of its csv.
+     *
+     * @param id id
+     * @throws NotFoundException NotFoundException
+     */
+    @Transactional(rollbackFor = {NotFoundException.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void deleteById(Long id) throws NotFoundException {
+        PersistentRecord persistentRecord = findById(id);
+        if (persistentRecord != null && persistentRecord.getPersistentCsv() != null) {
+            persistentCsvJpaService.incrementVersion(persistentRecord.getPersistentCsv().getId());
+        }
+
+        super.deleteById(id);
+    }
 }
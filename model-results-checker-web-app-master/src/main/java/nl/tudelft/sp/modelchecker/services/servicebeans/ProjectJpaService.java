@@ -1,9 +1,6 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import javax.validation.constraints.NotNull;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
@@ -11,10 +8,11 @@ import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectHolderDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.Admin;
-import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.entities.Entities;
 import nl.tudelft.sp.modelchecker.entities.Project;
 import nl.tudelft.sp.modelchecker.entities.ProjectHolder;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.repositories.ContainerRepository;
 import nl.tudelft.sp.modelchecker.repositories.ProjectRepository;
 import nl.tudelft.sp.modelchecker.services.ProjectService;
 import org.modelmapper.ModelMapper;
@@ -39,6 +37,9 @@ public class ProjectJpaService extends CrudJpaService<Project, Long, ProjectDto>
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ContainerRepository containerRepository;
+
     @Autowired
     private ModelMapper modelMapper;
 
@@ -82,14 +83,15 @@ public class ProjectJpaService extends CrudJpaService<Project, Long, ProjectDto>
             throw new NotFoundException("Admin does not exist");
         }
 
-        admin.getProjects().add(project);
         project.setAdmin(admin);
 
         ProjectHolder projectHolder = projectHolderJpaService.findById(projectHolderDto.getId());
-        projectHolder.getProjects().add(project);
         project.setProjectHolder(projectHolder);
 
-        return save(project);
+        Project saved = save(project);
+        Entities.addIfLoaded(admin.getProjects(), saved);
+        Entities.addIfLoaded(projectHolder.getProjects(), saved);
+        return saved;
     }
 
     /**
@@ -126,12 +128,27 @@ public class ProjectJpaService extends CrudJpaService<Project, Long, ProjectDto>
     public List<ContainerDto> getContainerDtosInProject(ProjectDto projectDto)
             throws NotFoundException {
 
-        Project project = findById(projectDto.getId());
-        if (project == null) throw new NotFoundException("Project not found");
+        List<ContainerDto> containerDtos = containerRepository
+                .findDtosByProjectId(projectDto.getId());
+        if (containerDtos.size() == 0 && !exists(projectDto)) {
+            throw new NotFoundException("Project not found");
+        }
+        return containerDtos;
+    }
 
-        Set<Container> containers = project.getContainers();
-        return containers.stream().map(ContainerDto::new)
-                .collect(Collectors.toList());
+    /**
+     * Get the id of the client of a project, without loading the project,
+     * its projectHolder or its client.
+     *
+     * @param projectDto projectDto
+     * @return id of the client, null if the project has no client
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public String getClientId(ProjectDto projectDto) throws NotFoundException {
+        List<String> clientIds = projectRepository.findClientIds(projectDto.getId());
+        if (clientIds.size() == 0) throw new NotFoundException("Project not found");
+        return clientIds.get(0);
     }
 
     @Transactional(rollbackFor = {Exception.class},
@@ -148,10 +165,7 @@ public class ProjectJpaService extends CrudJpaService<Project, Long, ProjectDto>
             throw new NotFoundException("Project Holder not found");
         }
 
-        Set<Project> projects = new LinkedHashSet<>(projectHolder.getProjects()) {
-        };
-        projects.remove(project);
-        projectHolder.setProjects(projects);
+        Entities.removeIfLoaded(projectHolder.getProjects(), project);
 
         ProjectHolder newHolder = projectHolderJpaService
                 .findById(projectDto.getProjectHolderId());
@@ -161,7 +175,7 @@ public class ProjectJpaService extends CrudJpaService<Project, Long, ProjectDto>
         }
 
         project.setProjectHolder(newHolder);
-        newHolder.getProjects().add(project);
+        Entities.addIfLoaded(newHolder.getProjects(), project);
 
         return save(project);
     }
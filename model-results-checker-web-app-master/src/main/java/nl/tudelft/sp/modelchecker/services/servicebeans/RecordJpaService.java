@@ -1,21 +1,31 @@
 package nl.tudelft.sp.modelchecker.services.servicebeans;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import javax.validation.constraints.NotNull;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Entities;
 import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.parsers.CsvParser.Adapter;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.RecordReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.config.CsvEngine;
+import nl.tudelft.sp.modelchecker.repositories.PersistentRecordRepository;
 import nl.tudelft.sp.modelchecker.repositories.RecordRepository;
 import nl.tudelft.sp.modelchecker.services.RecordService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -28,11 +38,22 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
         implements RecordService {
 
 
+    /**
+     * Maximal number of object ids in a single delete statement.
+     */
+    static final int DELETE_BATCH_SIZE = 5000;
+
     private final RecordRepository recordRepository;
     @Autowired
-    ModelMapper modelMapper;
-    @Autowired
     private CsvJpaService csvjpaService;
+    @Autowired
+    private PersistentRecordRepository persistentRecordRepository;
+
+    /**
+     * Engine that parses uploaded csvs.
+     */
+    @Value("${csv.engine:DETECTION}")
+    private CsvEngine csvEngine;
 
 
     /**
@@ -49,7 +70,8 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
 
 
     /**
-     * Register a new record, with a csv.
+     * Register a new record, with a csv. A tombstone of an overlay csv with the
+     * same object id is overwritten by the record.
      *
      * @param record record
      * @param csvdto csvdto
@@ -68,15 +90,30 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
         if (!csvjpaService.exists(csvdto)) throw new NotFoundException("CSV not found");
 
         Csv csv = csvjpaService.findById(csvdto.getId());
-        csv.getRecords().add(record);
-        record.setCsv(csv);
+        if (existsInCsv(csv, record.getObjectId())) {
+            throw new ExistsException("Record with this object id already exists");
+        }
 
+        Record tombstone = csv.isOverlay()
+                ? recordRepository.findRecordByCsvAndObjectId(csv, record.getObjectId()) : null;
+        if (tombstone != null) {
+            tombstone.updateAttributes(new RecordDto(record));
+            tombstone.setTombstone(false);
+            csvjpaService.incrementVersion(csv.getId());
+            return save(tombstone);
+        }
 
-        return save(record);
+        record.setCsv(csv);
+        csvjpaService.incrementVersion(csv.getId());
+
+        Record saved = save(record);
+        Entities.addIfLoaded(csv.getRecords(), saved);
+        return saved;
     }
 
     /**
-     * Update a record.
+     * Update a record. A record of an overlay csv that is only in the persistent
+     * csv is copied into the csv on its first update.
      *
      * @param oldDto dto with the id of the old entity
      * @param newDto dto with the parameters to change
@@ -93,6 +130,8 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
         Csv csv = csvjpaService.findById(oldDto.getCsvId());
         int objectId = newDto.getObjectId();
 
+        if (csv != null && csv.isOverlay()) return updateInOverlay(csv, newDto);
+
         if (!exists(oldDto) & !recordRepository.existsRecordByCsvAndObjectId(csv, objectId)) {
             throw new NotFoundException("Record does not exist");
         }
@@ -100,6 +139,7 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
         Record record = recordRepository.findRecordByCsvAndObjectId(csv, objectId);
 
         record.updateAttributes(newDto);
+        csvjpaService.incrementVersion(csv.getId());
 
         return save(record);
     }
@@ -107,7 +147,8 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
     /**
      * Save a multipart file.
      *
-     * @param file file
+     * @param file   file
+     * @param csvdto csvdto
      * @throws IOException       IOException
      * @throws ExistsException   ExistsException
      * @throws NotFoundException NotFoundException
@@ -117,71 +158,285 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
     @Override
     public void save(@NotNull MultipartFile file, @NotNull CsvDto csvdto)
             throws IOException, ExistsException, NotFoundException {
+        save(file.getInputStream(), file.getContentType(), csvdto);
+    }
 
-        overrideCsvCheck(csvdto);
+    /**
+     * Save the records of a csv stream. The rows are read lazily and
+     * written to the database in bulk, bypassing the persistence context.
+     *
+     * @param stream      stream
+     * @param contentType contentType
+     * @param csvdto      csvdto
+     * @throws IOException       IOException
+     * @throws NotFoundException NotFoundException
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void save(@NotNull InputStream stream, String contentType, @NotNull CsvDto csvdto)
+            throws IOException, NotFoundException {
 
-        Adapter adapter = new Adapter(file);
+        overrideCsvCheck(csvdto);
 
-        List<Record> records = adapter.getRecords(file);
-        List<Record> detachedRecords = new ArrayList<>();
-        Csv csv = csvjpaService.findById(csvdto.getId());
+        Adapter adapter = new Adapter(contentType, csvEngine);
 
-        for (Record record : records) {
-            csv.getRecords().add(record);
-            record.setCsv(csv);
-            detachedRecords.add(record);
+        try (RecordReader records = adapter.iterateRecords(stream)) {
+            recordRepository.bulkInsert(csvdto.getId(), records);
         }
-
-        saveAll(detachedRecords);
+        csvjpaService.incrementVersion(csvdto.getId());
     }
 
+    /**
+     * Save records in a csv with a single upsert. A record with the same object id
+     * as an existing record of the csv overwrites it, other records are added.
+     * Records with the id of another csv are rejected.
+     *
+     * @param recordDtos recordDtos
+     * @param csvdto     csvdto
+     * @throws NotFoundException NotFoundException
+     */
     @Transactional(rollbackFor = {Exception.class},
             propagation = Propagation.REQUIRED)
     @Override
     public void save(@NotNull List<RecordDto> recordDtos, @NotNull CsvDto csvdto)
-            throws IOException, ExistsException, NotFoundException {
+            throws NotFoundException {
 
-        List<Record> records = changeRecordDtosToRecord(recordDtos);
+        checkCsvIds(recordDtos, csvdto);
 
-        List<Record> updatedRecords = new ArrayList<>();
-        List<Record> registeredRecords = new ArrayList<>();
+        Csv csv = csvjpaService.findById(csvdto.getId());
+        if (csv == null) throw new NotFoundException("CSV not found");
 
-        for (Record record : records) {
-            Csv csv = record.getCsv();
-            int objectId = record.getObjectId();
+        upsert(csv, recordDtos);
+        csvjpaService.incrementVersion(csv.getId());
+    }
 
-            if (recordRepository.existsRecordByCsvAndObjectId(csv, objectId)) {
-                Record existingRecord = recordRepository.findRecordByCsvAndObjectId(csv, objectId);
-                existingRecord.updateAttributes(modelMapper.map(record, RecordDto.class));
-                updatedRecords.add(existingRecord);
-            } else {
-                csv = csvjpaService.findById(csvdto.getId());
-                record.setCsv(csv);
-                csv.getRecords().add(record);
-                registeredRecords.add(record);
+    /**
+     * Delete a record by its id, and increment the version of its csv. A record
+     * of an overlay csv is deleted by its object id, so it is not replaced by the
+     * record of the persistent csv it changed.
+     *
+     * @param id id
+     * @throws NotFoundException NotFoundException
+     */
+    @Transactional(rollbackFor = {NotFoundException.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public void deleteById(Long id) throws NotFoundException {
+        Record record = findById(id);
+        if (record != null && record.getCsv() != null) {
+            if (record.getCsv().isOverlay()) {
+                delete(List.of(new RecordDto(record)));
+                return;
             }
+            csvjpaService.incrementVersion(record.getCsv().getId());
         }
-        saveAll(updatedRecords);
-        saveAll(registeredRecords);
+
+        super.deleteById(id);
     }
 
+    /**
+     * Delete records by their csv and object id. The records are grouped by csv
+     * and every group is removed with one delete statement per batch of object ids.
+     * Records of the persistent csv of an overlay csv are deleted with tombstones.
+     * Records without a csv id are rejected.
+     *
+     * @param recordDtos recordDtos
+     */
     @Transactional(rollbackFor = {Exception.class},
             propagation = Propagation.REQUIRED)
     @Override
     public void delete(List<RecordDto> recordDtos) {
-        List<Record> recordList = new ArrayList<>();
+        for (RecordDto recordDto : recordDtos) {
+            if (recordDto.getCsvId() == null) {
+                throw new BadRequestException("Record does not belong to a CSV");
+            }
+        }
 
+        Map<Long, List<Integer>> objectIdsByCsv = recordDtos.stream()
+                .collect(Collectors.groupingBy(RecordDto::getCsvId,
+                    Collectors.mapping(RecordDto::getObjectId, Collectors.toList())));
+
+        for (Map.Entry<Long, List<Integer>> entry : objectIdsByCsv.entrySet()) {
+            deleteObjectIds(entry.getKey(), entry.getValue());
+            csvjpaService.incrementVersion(entry.getKey());
+        }
+    }
+
+    /**
+     * Apply a patch to the records of a csv in one transaction. The version of the
+     * csv is incremented first, and only if it is still the base version of the
+     * patch, so a patch made on records that changed since is rejected as a whole.
+     * Saved records are upserted and deleted records are removed by object id, so
+     * the work grows with the size of the patch instead of the size of the csv.
+     * Records with the id of another csv are rejected.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @param csvdto         csvdto
+     * @return version of the csv after the patch
+     * @throws NotFoundException NotFoundException
+     * @throws ConflictException ConflictException
+     */
+    @Transactional(rollbackFor = {Exception.class},
+            propagation = Propagation.REQUIRED)
+    @Override
+    public long patch(RecordPatchDto recordPatchDto, CsvDto csvdto)
+            throws NotFoundException, ConflictException {
+
+        Long baseVersion = recordPatchDto.getBaseVersion();
+        if (baseVersion == null) throw new BadRequestException("Base version missing");
+
+        List<RecordDto> saved = recordPatchDto.getSaved();
+        List<RecordDto> deleted = recordPatchDto.getDeleted();
+        if (saved != null) checkCsvIds(saved, csvdto);
+        if (deleted != null) checkCsvIds(deleted, csvdto);
+
+        if (!csvjpaService.incrementVersion(csvdto.getId(), baseVersion)) {
+            long version = csvjpaService.getVersion(csvdto);
+            throw new ConflictException("Csv is at version " + version
+                    + ", the patch is based on version " + baseVersion);
+        }
+
+        if (saved != null && !saved.isEmpty()) {
+            upsert(csvjpaService.findById(csvdto.getId()), saved);
+        }
+
+        if (deleted != null && !deleted.isEmpty()) {
+            deleteObjectIds(csvdto.getId(), deleted.stream()
+                    .map(RecordDto::getObjectId)
+                    .collect(Collectors.toList()));
+        }
+
+        return baseVersion + 1;
+    }
+
+    /**
+     * Reject records with the id of another csv.
+     *
+     * @param recordDtos recordDtos
+     * @param csvdto     csvdto
+     */
+    private void checkCsvIds(List<RecordDto> recordDtos, CsvDto csvdto) {
         for (RecordDto recordDto : recordDtos) {
-            Csv csv = csvjpaService.findById(recordDto.getCsvId());
-            int objectId = recordDto.getObjectId();
+            if (recordDto.getCsvId() != null && !recordDto.getCsvId().equals(csvdto.getId())) {
+                throw new BadRequestException("Record does not belong to this CSV");
+            }
+        }
+    }
+
+    /**
+     * Check if a csv has a record with the given object id. A record of an overlay
+     * csv is either in the csv, or only in the persistent csv.
+     *
+     * @param csv      csv
+     * @param objectId objectId
+     * @return true if exist otherwise false
+     */
+    private boolean existsInCsv(Csv csv, int objectId) {
+        if (!csv.isOverlay()) return recordRepository.existsRecordByCsvAndObjectId(csv, objectId);
 
-            if (recordRepository.existsRecordByCsvAndObjectId(csv, objectId)) {
-                Record record = recordRepository.findRecordByCsvAndObjectId(csv, objectId);
-                recordList.add(record);
+        Record record = recordRepository.findRecordByCsvAndObjectId(csv, objectId);
+        if (record != null) return !record.isTombstone();
+
+        return persistentRecordRepository
+                .existsByPersistentCsvIdAndObjectId(csvjpaService.getBaseId(csv), objectId);
+    }
+
+    /**
+     * Update a record of an overlay csv. A record that is only in the persistent csv
+     * is copied on write, the update sets all its attributes so none are read.
+     *
+     * @param csv    csv
+     * @param newDto newDto
+     * @return updated Record
+     * @throws NotFoundException NotFoundException
+     */
+    private Record updateInOverlay(Csv csv, RecordDto newDto) throws NotFoundException {
+        int objectId = newDto.getObjectId();
+        Record record = recordRepository.findRecordByCsvAndObjectId(csv, objectId);
+
+        if (record == null && persistentRecordRepository
+                .existsByPersistentCsvIdAndObjectId(csvjpaService.getBaseId(csv), objectId)) {
+            record = new Record();
+            record.setCsv(csv);
+        }
+        if (record == null || record.isTombstone()) {
+            throw new NotFoundException("Record does not exist");
+        }
+
+        boolean copied = record.getId() == null;
+        record.updateAttributes(newDto);
+        csvjpaService.incrementVersion(csv.getId());
+
+        Record saved = save(record);
+        if (copied) Entities.addIfLoaded(csv.getRecords(), saved);
+        return saved;
+    }
+
+    /**
+     * Insert records into a csv, or overwrite the record with the same object id.
+     * Tombstones of an overlay csv are revived first, so they are overwritten too.
+     *
+     * @param csv        csv
+     * @param recordDtos recordDtos
+     */
+    private void upsert(Csv csv, List<RecordDto> recordDtos) {
+        if (csv.isOverlay()) {
+            List<Integer> objectIds = recordDtos.stream()
+                    .map(RecordDto::getObjectId)
+                    .collect(Collectors.toList());
+            recordRepository.flush();
+            inBatches(objectIds, batch ->
+                    recordRepository.reviveAllByCsvIdAndObjectIdIn(csv.getId(), batch));
+        }
+
+        recordRepository.upsert(csv.getId(), changeRecordDtosToRecord(recordDtos));
+    }
+
+    /**
+     * Delete the records of a csv with the given object ids, with one delete
+     * statement per batch of object ids. The persistence context is flushed once
+     * before the first batch, and only the deleted records are detached after the
+     * last. For an overlay csv, a tombstone is inserted for every object id the
+     * persistent csv has a record of.
+     *
+     * @param csvId     csvId
+     * @param objectIds objectIds
+     */
+    private void deleteObjectIds(Long csvId, List<Integer> objectIds) {
+        recordRepository.flush();
+        inBatches(objectIds, batch ->
+                recordRepository.deleteAllByCsvIdAndObjectIdIn(csvId, batch));
+        recordRepository.detachRecords(csvId, objectIds);
+
+        Csv csv = csvjpaService.findById(csvId);
+        if (csv == null || !csv.isOverlay()) return;
+
+        Long baseId = csvjpaService.getBaseId(csv);
+        List<Record> tombstones = new ArrayList<>();
+        inBatches(objectIds, batch -> {
+            for (Integer objectId : persistentRecordRepository.findObjectIds(baseId, batch)) {
+                tombstones.add(Record.builder().objectId(objectId).tombstone(true)
+                        .csv(csv).build());
             }
+        });
+        for (Record tombstone : recordRepository.saveAll(tombstones)) {
+            Entities.addIfLoaded(csv.getRecords(), tombstone);
         }
+    }
 
-        deleteAll(recordList);
+    /**
+     * Pass object ids to an action in batches of at most DELETE_BATCH_SIZE,
+     * so a single statement never has too many parameters.
+     *
+     * @param objectIds objectIds
+     * @param action    action
+     */
+    private static void inBatches(List<Integer> objectIds, Consumer<List<Integer>> action) {
+        for (int from = 0; from < objectIds.size(); from += DELETE_BATCH_SIZE) {
+            int to = Math.min(from + DELETE_BATCH_SIZE, objectIds.size());
+            action.accept(objectIds.subList(from, to));
+        }
     }
 
     /**
@@ -204,7 +459,7 @@ public class RecordJpaService extends CrudJpaService<Record, Long, RecordDto>
      */
     public List<Record> changeRecordDtosToRecord(List<RecordDto> recordDtos) {
         return recordDtos.stream()
-                .map(a -> modelMapper.map(a, Record.class))
+                .map(Record::fromDto)
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,71 @@
+package nl.tudelft.sp.modelchecker.services.servicebeans;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javassist.NotFoundException;
+import nl.tudelft.sp.modelchecker.dto.CsvDto;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
+import nl.tudelft.sp.modelchecker.services.CsvService;
+import nl.tudelft.sp.modelchecker.services.PersistentCsvService;
+import nl.tudelft.sp.modelchecker.services.RecordResponseService;
+import nl.tudelft.sp.modelchecker.services.ResponseCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the records of csvs to clients through the response cache. It is not
+ * transactional: a cached response is copied from memory without a database
+ * connection, and on a miss only the cursor that reads the records runs in a
+ * transaction of the csv services.
+ */
+@Service
+public class RecordResponseJpaService implements RecordResponseService {
+
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private PersistentCsvService persistentCsvService;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    /**
+     * Write the records in a csv as a json array ordered by frame and object id,
+     * gzipped or not. Repeated requests for a csv are served from the response
+     * cache until its records change.
+     *
+     * @param csvDto       csvDto
+     * @param gzip         whether to write the records gzipped
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Override
+    public void writeCachedRecordsInCsv(CsvDto csvDto, boolean gzip, OutputStream outputStream)
+            throws NotFoundException, IOException {
+        responseCacheService.write(Csv.class, csvDto.getId(),
+                json -> csvService.writeRecordsInCsv(csvDto, json), gzip, outputStream);
+    }
+
+    /**
+     * Write the records in a persistent csv as a json array ordered by id, gzipped
+     * or not. Repeated requests for a persistent csv are served from the response
+     * cache until its records change.
+     *
+     * @param csvDto       csvDto
+     * @param gzip         whether to write the records gzipped
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Override
+    public void writeCachedRecordsInPersistentCsv(CsvDto csvDto, boolean gzip,
+                                                  OutputStream outputStream)
+            throws NotFoundException, IOException {
+        responseCacheService.write(PersistentCsv.class, csvDto.getId(),
+                json -> persistentCsvService.writeRecordsInPersistentCsv(csvDto, json),
+                gzip, outputStream);
+    }
+}
@@ -0,0 +1,359 @@
+package nl.tudelft.sp.modelchecker.services.servicebeans;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javassist.NotFoundException;
+import lombok.Value;
+import nl.tudelft.sp.modelchecker.services.ResponseCacheService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the serialized and gzipped records of recently opened csvs in memory.
+ * Responses are evicted least recently used first when their total size exceeds
+ * the byte budget. Every write to the records of a csv evicts its response, and
+ * a response that was read while a write to its csv happened is not cached, which
+ * is tracked per csv only while it is being read. A response that is not cached
+ * is streamed to the client while it is written, the copy kept for the cache is
+ * dropped as soon as it exceeds the byte budget.
+ */
+@Service
+public class ResponseCacheJpaService implements ResponseCacheService {
+
+    /**
+     * Default number of bytes of gzipped responses kept in memory.
+     */
+    public static final long MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long maxBytes;
+
+    private final Map<Key, byte[]> responses = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    private final Map<Key, Reads> reads = new HashMap<>();
+
+    /**
+     * Create a response cache with the default byte budget.
+     */
+    public ResponseCacheJpaService() {
+        this(MAX_BYTES);
+    }
+
+    /**
+     * Create a response cache.
+     *
+     * @param maxBytes maximal number of bytes of gzipped responses kept in memory
+     */
+    public ResponseCacheJpaService(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Write the response for the records of a csv to an output stream, gzipped or
+     * not. If it is not cached yet, the writer streams it to the output stream while
+     * a gzipped copy is kept to cache.
+     *
+     * @param csvType      type of the csv
+     * @param csvId        id of the csv
+     * @param writer       writer of the uncompressed response
+     * @param gzip         whether to write the response gzipped
+     * @param outputStream outputStream
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Override
+    public void write(Class<?> csvType, Long csvId, ResponseWriter writer, boolean gzip,
+                      OutputStream outputStream) throws NotFoundException, IOException {
+
+        Key key = new Key(csvType, csvId);
+        byte[] cached;
+        Reads current = null;
+        long invalidated = 0;
+        synchronized (this) {
+            cached = responses.get(key);
+            if (cached == null) {
+                current = reads.computeIfAbsent(key, k -> new Reads());
+                current.readers++;
+                invalidated = current.evictions;
+            }
+        }
+
+        if (cached != null) {
+            write(cached, gzip, outputStream);
+            return;
+        }
+
+        try {
+            write(key, writer, gzip, outputStream, current, invalidated);
+        } finally {
+            release(key, current);
+        }
+    }
+
+    /**
+     * Write a response that is not cached yet, and cache it if it was not evicted
+     * while it was read.
+     *
+     * @param key          key
+     * @param writer       writer of the uncompressed response
+     * @param gzip         whether to write the response gzipped
+     * @param outputStream outputStream
+     * @param current      reads of the csv
+     * @param invalidated  number of evictions of the csv when the response was read
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    private void write(Key key, ResponseWriter writer, boolean gzip, OutputStream outputStream,
+                       Reads current, long invalidated) throws NotFoundException, IOException {
+
+        BoundedBuffer buffer = new BoundedBuffer(maxBytes);
+        if (gzip) {
+            // Closed only when the writer succeeds, a failed response must not end
+            // with a gzip trailer that makes its truncated body look complete.
+            OutputStream gzipped = new GZIPOutputStream(
+                    new TeeOutputStream(outputStream, buffer, buffer), BUFFER_SIZE);
+            writer.write(gzipped);
+            gzipped.close();
+        } else {
+            try (OutputStream json = new TeeOutputStream(outputStream,
+                    new GZIPOutputStream(buffer, BUFFER_SIZE), buffer)) {
+                writer.write(json);
+            }
+        }
+
+        byte[] gzipped = buffer.toByteArray();
+        if (gzipped != null) put(key, gzipped, current, invalidated);
+    }
+
+    /**
+     * End a read of a csv, and forget its evictions once no read is left.
+     *
+     * @param key     key
+     * @param current reads of the csv
+     */
+    private synchronized void release(Key key, Reads current) {
+        if (--current.readers == 0) reads.remove(key);
+    }
+
+    /**
+     * Write a cached response to an output stream, gzipped or not.
+     *
+     * @param cached       gzipped response
+     * @param gzip         whether to write the response gzipped
+     * @param outputStream outputStream
+     * @throws IOException IOException
+     */
+    private static void write(byte[] cached, boolean gzip, OutputStream outputStream)
+            throws IOException {
+        if (gzip) {
+            outputStream.write(cached);
+            return;
+        }
+
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(cached))) {
+            json.transferTo(outputStream);
+        }
+    }
+
+    /**
+     * Evict the response for the records of a csv, now and again when the
+     * current transaction completes.
+     *
+     * @param csvType type of the csv
+     * @param csvId   id of the csv
+     */
+    @Override
+    public void evict(Class<?> csvType, Long csvId) {
+        Key key = new Key(csvType, csvId);
+        evict(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            evict(key);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Remove a response, and keep the responses of its csv that are being read
+     * from being cached.
+     *
+     * @param key key
+     */
+    private synchronized void evict(Key key) {
+        Reads current = reads.get(key);
+        if (current != null) current.evictions++;
+        byte[] response = responses.remove(key);
+        if (response != null) bytes -= response.length;
+    }
+
+    /**
+     * Get the number of bytes of the cached responses.
+     *
+     * @return number of bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Cache a response, unless the response of its csv was evicted since it was
+     * read or it does not fit in the budget, and remove the least recently used responses
+     * until the cache fits in the budget again.
+     *
+     * @param key         key
+     * @param response    response
+     * @param current     reads of the csv
+     * @param invalidated number of evictions of the csv when the response was read
+     */
+    private synchronized void put(Key key, byte[] response, Reads current, long invalidated) {
+        if (invalidated != current.evictions || response.length > maxBytes) return;
+
+        byte[] previous = responses.put(key, response);
+        bytes += response.length - (previous == null ? 0 : previous.length);
+
+        Iterator<byte[]> eldest = responses.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    @Value
+    private static class Key {
+        Class<?> csvType;
+        Long csvId;
+    }
+
+    /**
+     * The reads of a csv that are in progress, and the evictions of the csv since
+     * the first of them started. It is only kept while a read is in progress.
+     */
+    private static final class Reads {
+
+        private int readers;
+
+        private long evictions;
+    }
+
+    /**
+     * Buffer of a gzipped response, which is dropped once it exceeds its limit.
+     */
+    private static final class BoundedBuffer extends OutputStream {
+
+        private final long limit;
+
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private boolean dropped;
+
+        /**
+         * Create a buffer.
+         *
+         * @param limit maximal number of bytes
+         */
+        BoundedBuffer(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (dropped) return;
+            if (bytes.size() + (long) len > limit) {
+                dropped = true;
+                bytes = new ByteArrayOutputStream(0);
+                return;
+            }
+            bytes.write(b, off, len);
+        }
+
+        /**
+         * Check if the buffer exceeded its limit.
+         *
+         * @return true if dropped
+         */
+        boolean isDropped() {
+            return dropped;
+        }
+
+        /**
+         * Get the buffered bytes.
+         *
+         * @return bytes, or null if the buffer was dropped
+         */
+        byte[] toByteArray() {
+            return dropped ? null : bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Writes a response to the client and a copy to a stream into a buffer, until
+     * the buffer is dropped. Closing it closes the copy and leaves the client open.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream client;
+
+        private final OutputStream copy;
+
+        private final BoundedBuffer buffer;
+
+        /**
+         * Create a tee.
+         *
+         * @param client client
+         * @param copy   stream into the buffer
+         * @param buffer buffer
+         */
+        TeeOutputStream(OutputStream client, OutputStream copy, BoundedBuffer buffer) {
+            this.client = client;
+            this.copy = copy;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            client.write(b);
+            if (!buffer.isDropped()) copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            client.write(b, off, len);
+            if (!buffer.isDropped()) copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            client.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            client.flush();
+            copy.close();
+        }
+    }
+}
@@ -5,12 +5,14 @@ import javassist.NotFoundException;
 import javax.validation.constraints.NotNull;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.RecordListDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.dto.SubmissionDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.BasicUser;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Submission;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.SubmissionService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -86,13 +88,55 @@ public class SubmissionJpaService extends CrudJpaService<Submission, Long, Submi
     public void register(RecordListDto recordListDto, String clientId)
             throws ExistsException, NotFoundException, IOException, AuthorityException {
         Long containerId = recordListDto.getContainerId();
-        Container container = containerJpaService.findById(recordListDto.getContainerId());
+        Submission submission = replaceSubmission(containerId, clientId);
+        containerJpaService.overideContainer(recordListDto);
+        assignContainer(submission, new ContainerDto(containerId));
+    }
+
+    /**
+     * register submission with a patch of the records of its container.
+     *
+     * @param recordPatchDto recordPatchDto
+     * @param clientId       clientId
+     * @return version of the csv of the container after the patch
+     * @throws ExistsException    ExistsException
+     * @throws NotFoundException  NotFoundException
+     * @throws AuthorityException AuthorityException
+     * @throws ConflictException  ConflictException
+     */
+    @Transactional(rollbackFor = {Exception.class, NotFoundException.class,
+        AuthorityException.class},
+        propagation = Propagation.REQUIRED)
+    @Override
+    public long register(RecordPatchDto recordPatchDto, String clientId)
+            throws ExistsException, NotFoundException, AuthorityException, ConflictException {
+        Long containerId = recordPatchDto.getContainerId();
+        Submission submission = replaceSubmission(containerId, clientId);
+        long version = containerJpaService.patchContainer(recordPatchDto);
+        assignContainer(submission, new ContainerDto(containerId));
+        return version;
+    }
+
+    /**
+     * Delete the current submission of a container and register a new one.
+     *
+     * @param containerId containerId
+     * @param clientId    clientId
+     * @return the new submission
+     * @throws ExistsException    ExistsException
+     * @throws NotFoundException  NotFoundException
+     * @throws AuthorityException AuthorityException
+     */
+    private Submission replaceSubmission(Long containerId, String clientId)
+            throws ExistsException, NotFoundException, AuthorityException {
+        Container container = containerId == null ? null
+                : containerJpaService.findById(containerId);
+        if (container == null) throw new NotFoundException("Container does not exist");
+
         if (container.getSubmission() != null) {
             deleteById(container.getSubmission().getId());
         }
-        Submission submission = register(new Submission(), new UserDto(clientId));
-        containerJpaService.overideContainer(recordListDto);
-        assignContainer(submission, new ContainerDto(containerId));
+        return register(new Submission(), new UserDto(clientId));
     }
 
 
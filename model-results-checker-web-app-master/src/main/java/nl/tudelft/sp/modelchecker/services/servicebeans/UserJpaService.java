@@ -2,9 +2,12 @@ package nl.tudelft.sp.modelchecker.services.servicebeans;
 
 import java.sql.Date;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import javax.validation.ConstraintViolationException;
 import javax.validation.constraints.NotNull;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.User;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
@@ -156,5 +159,15 @@ public abstract class UserJpaService<U extends User> extends CrudJpaService<U, S
         return super.exists(type);
     }
 
+    /**
+     * Convert a page of users to UserDtos.
+     *
+     * @param pageDto pageDto
+     * @return page of UserDto
+     * @throws NotFoundException NotFoundException
+     */
+    @Override
+    public List<UserDto> convertToUserDtos(PageDto<String> pageDto) throws NotFoundException {
+        return findPage(pageDto).stream().map(UserDto::new).collect(Collectors.toList());
+    }
 }
-
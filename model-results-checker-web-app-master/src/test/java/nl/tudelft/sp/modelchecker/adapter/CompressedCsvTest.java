@@ -0,0 +1,125 @@
+package nl.tudelft.sp.modelchecker.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.Adapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+public class CompressedCsvTest {
+
+    private byte[] csv;
+    private List<Record> expected;
+
+    /**
+     * Set Up test environment.
+     *
+     * @throws IOException IOException
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+
+        // arrange
+        FileInputStream input = new FileInputStream(new File("src/test/resources/detected.csv"));
+        csv = input.readAllBytes();
+        input.close();
+
+        MultipartFile multipartFile = new MockMultipartFile("detected.csv", "detected.csv",
+                "text/csv", csv);
+        expected = new Adapter(multipartFile).getRecords(multipartFile);
+    }
+
+    /**
+     * Compress the csv.
+     *
+     * @param compressed compressed
+     * @param output     output
+     * @return compressed bytes
+     * @throws IOException IOException
+     */
+    private byte[] compress(ByteArrayOutputStream compressed, OutputStream output)
+            throws IOException {
+        output.write(csv);
+        output.close();
+        return compressed.toByteArray();
+    }
+
+    /**
+     * test a gzip upload is decompressed.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void gzipTest() throws IOException {
+
+        // arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] bytes = compress(compressed, new GZIPOutputStream(compressed));
+        MultipartFile multipartFile = new MockMultipartFile("detected.csv.gz",
+                "detected.csv.gz", "application/gzip", bytes);
+
+        // act
+        List<Record> records = new Adapter(multipartFile).getRecords(multipartFile);
+
+        // assert
+        assertThat(bytes.length).isLessThan(csv.length);
+        assertThat(records).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+
+    /**
+     * test a zstd upload is decompressed.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void zstdTest() throws IOException {
+
+        // arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] bytes = compress(compressed, new ZstdOutputStream(compressed));
+        MultipartFile multipartFile = new MockMultipartFile("detected.csv.zst",
+                "detected.csv.zst", "application/zstd", bytes);
+
+        // act
+        List<Record> records = new Adapter(multipartFile).getRecords(multipartFile);
+
+        // assert
+        assertThat(bytes.length).isLessThan(csv.length);
+        assertThat(records).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+
+    /**
+     * test a compressed upload sent as a plain binary file is detected.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void octetStreamGzipTest() throws IOException {
+
+        // arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] bytes = compress(compressed, new GZIPOutputStream(compressed));
+        MultipartFile multipartFile = new MockMultipartFile("detected.csv.gz",
+                "detected.csv.gz", "application/octet-stream", bytes);
+
+        // act
+        List<Record> records = new Adapter(multipartFile).getRecords(multipartFile);
+
+        // assert
+        assertThat(records).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,299 @@
+package nl.tudelft.sp.modelchecker.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.Adapter;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.ParallelCsvReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.RecordReader;
+import nl.tudelft.sp.modelchecker.parsers.CsvParser.config.CsvEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+public class CsvEngineTest {
+
+    private static final String HEADER = "index,Frame_Num,label,object_id,model_confidence,"
+            + "tracker_confidence,tracker_l,tracker_t,tracker_w,tracker_h\n";
+
+    /**
+     * Parse a file with an engine.
+     *
+     * @param multipartFile multipartFile
+     * @param csvEngine     csvEngine
+     * @return records
+     * @throws IOException IOException
+     */
+    private List<Record> parse(MultipartFile multipartFile, CsvEngine csvEngine)
+            throws IOException {
+        return new Adapter(multipartFile, csvEngine).getRecords(multipartFile);
+    }
+
+    /**
+     * Parse a file in parallel with small blocks and segments.
+     *
+     * @param multipartFile multipartFile
+     * @param blockSize     blockSize
+     * @param segmentSize   segmentSize
+     * @return records
+     * @throws IOException IOException
+     */
+    private List<Record> parseSegmented(MultipartFile multipartFile, int blockSize,
+                                        int segmentSize) throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (RecordReader recordReader = new ParallelCsvReader(multipartFile.getInputStream(),
+                ForkJoinPool.commonPool(), blockSize, segmentSize)) {
+            recordReader.forEachRemaining(records::add);
+        }
+        return records;
+    }
+
+    /**
+     * Create a csv multipartFile.
+     *
+     * @param content content
+     * @return multipartFile
+     */
+    private MultipartFile csv(String content) {
+        return new MockMultipartFile("test.csv", "test.csv", "text/csv",
+                content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * test all engines yield identical records for the detection files.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void detectionFilesIdenticalTest() throws IOException {
+
+        for (String name : new String[]{"detected.csv", "detected2.csv"}) {
+
+            // arrange
+            FileInputStream input = new FileInputStream(new File("src/test/resources/" + name));
+            MultipartFile multipartFile = new MockMultipartFile(name, name,
+                    "application/octet-stream", input.readAllBytes());
+            input.close();
+
+            // act
+            List<Record> expected = parse(multipartFile, CsvEngine.COMMONS);
+            List<Record> actual = parse(multipartFile, CsvEngine.DETECTION);
+            List<Record> parallel = parse(multipartFile, CsvEngine.PARALLEL);
+            List<Record> segmented = parseSegmented(multipartFile, 1000, 300);
+
+            // assert
+            assertThat(actual).isNotEmpty();
+            assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+            assertThat(parallel).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+            assertThat(segmented).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+        }
+    }
+
+    /**
+     * test quoting, padding, line endings and number formats match commons-csv.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void edgeCasesIdenticalTest() throws IOException {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER
+                + "0, 12 ,\"pp\",-3,0.9435701796216818,1.0,1,2,3,4\r\n"
+                + "\n"
+                + "1,+7,\"a \"\"quoted\"\", label\",2147483647,1e-3,-0.0,0,0,0,0\r\n"
+                + "2,8,\"multi\nline\",-2147483648,1.5E2,.5,1,1,1,1\n"
+                + "3,9,café,5,123456789012345678,0.1000000,1,1,1,1");
+
+        // act
+        List<Record> expected = parse(multipartFile, CsvEngine.COMMONS);
+        List<Record> actual = parse(multipartFile, CsvEngine.DETECTION);
+
+        // assert
+        assertThat(actual).hasSize(4);
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+
+        // every block and segment size cuts the file at a different place
+        for (int blockSize = 1; blockSize < 40; blockSize++) {
+            for (int segmentSize = 1; segmentSize < 40; segmentSize += 7) {
+                assertThat(parseSegmented(multipartFile, blockSize, segmentSize))
+                        .usingRecursiveFieldByFieldElementComparator()
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    /**
+     * test a quote inside an unquoted value is read as a character, like commons-csv.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void strayQuoteIdenticalTest() throws IOException {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER
+                + "0,1,a\"b,1,0.5,0.5,1,1,1,1\n"
+                + "1,2,\"multi\nline\",2,0.5,0.5,1,1,1,1\n"
+                + "2,3,c\"d\",3,0.5,0.5,1,1,1,1\r\n"
+                + "3,4,\"q\"\"x\",4,0.5,0.5,1,1,1,1\n"
+                + "4,5, \"e,5,0.5,0.5,1,1,1,1\n");
+
+        // act
+        List<Record> expected = parse(multipartFile, CsvEngine.COMMONS);
+        List<Record> actual = parse(multipartFile, CsvEngine.DETECTION);
+        List<Record> parallel = parse(multipartFile, CsvEngine.PARALLEL);
+
+        // assert
+        assertThat(expected).hasSize(5);
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+        assertThat(parallel).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+
+        for (int blockSize = 1; blockSize < 40; blockSize++) {
+            assertThat(parseSegmented(multipartFile, blockSize, 1))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    /**
+     * test a quoted and an unquoted label with the same bytes are both read like
+     * commons-csv, whichever comes first.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void escapedQuoteLabelIdenticalTest() throws IOException {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER
+                + "0,1,\"a\"\"b\",1,0.5,0.5,1,1,1,1\n"
+                + "1,2,a\"\"b,2,0.5,0.5,1,1,1,1\n"
+                + "2,3,\"a\"\"b\",3,0.5,0.5,1,1,1,1\n");
+
+        // act
+        List<Record> expected = parse(multipartFile, CsvEngine.COMMONS);
+        List<Record> actual = parse(multipartFile, CsvEngine.DETECTION);
+        List<Record> parallel = parse(multipartFile, CsvEngine.PARALLEL);
+
+        // assert
+        assertThat(expected).extracting(Record::getLabel)
+                .containsExactly("a\"b", "a\"\"b", "a\"b");
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+        assertThat(parallel).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+
+    /**
+     * test the parallel engine reports malformed rows.
+     */
+    @Test
+    public void parallelMalformedNumberTest() {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER + "0,1,pp,1,0.5,0.5,1,1,1,1\n"
+                + "0,1x,pp,1,0.5,0.5,1,1,1,1\n");
+
+        // act and assert
+        assertThrows(NumberFormatException.class,
+            () -> parseSegmented(multipartFile, 8, 4));
+    }
+
+    /**
+     * test the detection engine rejects the same malformed numbers, which the adapter
+     * reports as a bad request.
+     */
+    @Test
+    public void malformedNumberTest() {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER + "0,1x,pp,1,0.5,0.5,1,1,1,1\n");
+
+        // act
+        BadRequestException commons = assertThrows(BadRequestException.class,
+            () -> parse(multipartFile, CsvEngine.COMMONS));
+        BadRequestException detection = assertThrows(BadRequestException.class,
+            () -> parse(multipartFile, CsvEngine.DETECTION));
+
+        // assert
+        assertThat(commons.getCause()).isInstanceOf(NumberFormatException.class);
+        assertThat(detection.getCause()).isInstanceOf(NumberFormatException.class);
+    }
+
+    /**
+     * test characters after a closing quote are reported as a bad request by all engines.
+     */
+    @Test
+    public void charactersAfterQuoteTest() {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER + "0,1,pp,1,0.5,0.5,1,1,1,1\n"
+                + "1,2,\"ab\"c,2,0.5,0.5,1,1,1,1\n");
+
+        // act and assert
+        for (CsvEngine csvEngine : CsvEngine.values()) {
+            assertThrows(BadRequestException.class, () -> parse(multipartFile, csvEngine));
+        }
+        for (int blockSize = 1; blockSize < 40; blockSize++) {
+            final int size = blockSize;
+            assertThrows(BadRequestException.class,
+                () -> parseSegmented(multipartFile, size, 1));
+        }
+    }
+
+    /**
+     * test padding after a closing quote is accepted like commons-csv.
+     *
+     * @throws IOException IOException
+     */
+    @Test
+    public void paddingAfterQuoteIdenticalTest() throws IOException {
+
+        // arrange
+        MultipartFile multipartFile = csv(HEADER + "0,1,\"ab\" ,1,0.5,0.5,1,1,1,1\r\n");
+
+        // act
+        List<Record> expected = parse(multipartFile, CsvEngine.COMMONS);
+        List<Record> actual = parse(multipartFile, CsvEngine.DETECTION);
+        List<Record> parallel = parse(multipartFile, CsvEngine.PARALLEL);
+
+        // assert
+        assertThat(expected).hasSize(1);
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+        assertThat(parallel).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+
+    /**
+     * test a missing column is reported as a bad request by both engines.
+     */
+    @Test
+    public void missingColumnTest() {
+
+        // arrange
+        MultipartFile multipartFile = csv("frame_num,label\n1,pp\n");
+
+        // act and assert
+        assertThrows(BadRequestException.class,
+            () -> parse(multipartFile, CsvEngine.COMMONS));
+        assertThrows(BadRequestException.class,
+            () -> parse(multipartFile, CsvEngine.DETECTION));
+    }
+}
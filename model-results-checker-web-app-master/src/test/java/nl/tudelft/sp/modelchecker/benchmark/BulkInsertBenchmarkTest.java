@@ -0,0 +1,163 @@
+package nl.tudelft.sp.modelchecker.benchmark;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import nl.tudelft.sp.modelchecker.Application;
+import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.repositories.ContainerRepository;
+import nl.tudelft.sp.modelchecker.repositories.CsvRepository;
+import nl.tudelft.sp.modelchecker.repositories.RecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares inserting records through JPA with the bulk insert path.
+ * Runs against the configured datasource, so COPY is measured on PostgreSQL.
+ * Point spring.datasource.url at an H2 database to measure the batched JDBC path.
+ * Only runs when the BENCHMARK environment variable is set to true.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public class BulkInsertBenchmarkTest {
+
+    private static final int RECORDS = 200_000;
+    private static final int RUNS = 3;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkInsertBenchmarkTest.class);
+
+    @Autowired
+    RecordRepository recordRepository;
+
+    @Autowired
+    CsvRepository csvRepository;
+
+    @Autowired
+    ContainerRepository containerRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Container container;
+
+    private Csv csv;
+
+    /**
+     * Set Up test environment.
+     */
+    @BeforeEach
+    public void setUp() {
+
+        // arrange
+        container = new Container(1.0, "benchmark", "benchmark");
+        csv = new Csv();
+        csv.setContainer(container);
+        container.setCsv(csv);
+
+        container = containerRepository.save(container);
+        csv = container.getCsv();
+    }
+
+    /**
+     * Remove the benchmark data, and only the benchmark data, as the configured
+     * datasource may hold other data.
+     */
+    @AfterEach
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            recordRepository.deleteAllByCsvId(csv.getId());
+            csvRepository.deleteById(csv.getId());
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                containerRepository.findById(container.getId())
+                        .ifPresent(containerRepository::delete));
+    }
+
+    /**
+     * Delete the records of the benchmark csv.
+     *
+     * @return number of deleted records
+     */
+    private int deleteRecords() {
+        Integer deleted = transactionTemplate.execute(status ->
+                recordRepository.deleteAllByCsvId(csv.getId()));
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Create the records to insert.
+     *
+     * @return records
+     */
+    private List<Record> createRecords() {
+        List<Record> records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(Record.builder().frameNum(i / 10).objectId(i).label("pp")
+                    .modelConfidence(0.5).trackerConfidence(0.75)
+                    .trackerL(1).trackerT(2).trackerW(3).trackerH(4).build());
+        }
+        return records;
+    }
+
+    /**
+     * Insert the records through JPA.
+     *
+     * @return elapsed milliseconds
+     */
+    private long jpa() {
+        List<Record> records = createRecords();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Csv reference = csvRepository.getOne(csv.getId());
+            records.forEach(record -> record.setCsv(reference));
+            recordRepository.saveAll(records);
+        });
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Insert the records through the bulk insert path.
+     *
+     * @return elapsed milliseconds
+     */
+    private long bulk() {
+        List<Record> records = createRecords();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status ->
+                recordRepository.bulkInsert(csv.getId(), records.iterator()));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * test bulk insert against JPA.
+     */
+    @Test
+    public void bulkInsertBenchmark() {
+
+        for (int run = 0; run < RUNS; run++) {
+
+            // act
+            final long jpa = jpa();
+            deleteRecords();
+            long bulk = bulk();
+
+            // assert
+            assertThat(deleteRecords()).isEqualTo(RECORDS);
+
+            LOGGER.info("run {}: {} records, jpa {} ms, bulk {} ms", run, RECORDS, jpa, bulk);
+        }
+    }
+}
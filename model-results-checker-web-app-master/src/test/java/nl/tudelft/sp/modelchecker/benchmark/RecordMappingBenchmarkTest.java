@@ -0,0 +1,106 @@
+package nl.tudelft.sp.modelchecker.benchmark;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import nl.tudelft.sp.modelchecker.config.DefaultConfig;
+import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the per record cost of mapping records to dtos and back
+ * with the model mapper and with the hand written conversions.
+ * Only runs when the BENCHMARK environment variable is set to true.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public class RecordMappingBenchmarkTest {
+
+    private static final int RECORDS = 200_000;
+    private static final int RUNS = 5;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordMappingBenchmarkTest.class);
+
+    private ModelMapper modelMapper;
+
+    private List<Record> records;
+
+    private List<RecordDto> recordDtos;
+
+    /**
+     * Set Up test environment.
+     */
+    @BeforeEach
+    public void setUp() {
+
+        // arrange
+        modelMapper = new DefaultConfig().modelMapper();
+        Csv csv = new Csv();
+        csv.setId(1L);
+
+        records = new ArrayList<>(RECORDS);
+        recordDtos = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            Record record = Record.builder().id((long) i).frameNum(i / 10).objectId(i)
+                    .label("pp").modelConfidence(0.5).trackerConfidence(0.75)
+                    .trackerL(1).trackerT(2).trackerW(3).trackerH(4).csv(csv).build();
+            records.add(record);
+            recordDtos.add(new RecordDto(record));
+        }
+    }
+
+    /**
+     * Map all inputs.
+     *
+     * @param inputs inputs
+     * @param mapper mapper
+     * @param <S>    type of the inputs
+     * @param <D>    type of the outputs
+     * @return nanoseconds per input
+     */
+    private <S, D> double map(List<S> inputs, Function<S, D> mapper) {
+        List<D> outputs = new ArrayList<>(inputs.size());
+        long start = System.nanoTime();
+        for (S input : inputs) {
+            outputs.add(mapper.apply(input));
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(outputs.size()).isEqualTo(inputs.size());
+        return (double) elapsed / inputs.size();
+    }
+
+    /**
+     * test hand written mapping against the model mapper.
+     */
+    @Test
+    public void recordMappingBenchmark() {
+
+        for (int run = 0; run < RUNS; run++) {
+
+            // act
+            final double toDtoModelMapper = map(records,
+                record -> modelMapper.map(record, RecordDto.class));
+            final double toDto = map(records, RecordDto::new);
+            final double toRecordModelMapper = map(recordDtos,
+                recordDto -> modelMapper.map(recordDto, Record.class));
+            double toRecord = map(recordDtos, Record::fromDto);
+
+            // assert
+            assertThat(toDto).isLessThan(toDtoModelMapper);
+            assertThat(toRecord).isLessThan(toRecordModelMapper);
+
+            LOGGER.info("run {}: record to dto {} ns (model mapper {} ns), "
+                            + "dto to record {} ns (model mapper {} ns)",
+                    run, Math.round(toDto), Math.round(toDtoModelMapper),
+                    Math.round(toRecord), Math.round(toRecordModelMapper));
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.time.LocalDate;
 import java.util.List;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.SecurityFilter.MockSpringSecurityFilter;
+import nl.tudelft.sp.modelchecker.dto.CacheStatisticsDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.Admin;
 import nl.tudelft.sp.modelchecker.exceptions.DateException;
@@ -51,6 +52,7 @@ class AdminControllerTest {
     final String update = "/api/update/admin";
     final String delete = "/api/delete/admin";
     final String list = "/api/list/admin";
+    final String cache = "/api/get/cache";
 
     @Autowired
     WebApplicationContext context;
@@ -249,6 +251,42 @@ class AdminControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    /**
+     * get the statistics of the cache regions.
+     *
+     * @throws Exception Exception
+     */
+    @WithMockUser(authorities = authority)
+    @Test
+    void getCacheStatistics() throws Exception {
+
+        // act
+        String json = mvc.perform(get(cache))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        CacheStatisticsDto[] statistics = objectMapper.readValue(json,
+                CacheStatisticsDto[].class);
+
+        // assert
+        assertThat(statistics).extracting(CacheStatisticsDto::getRegion)
+                .contains("nl.tudelft.sp.modelchecker.entities.Project",
+                        "nl.tudelft.sp.modelchecker.entities.Project.containers")
+                .doesNotHaveDuplicates();
+    }
+
+    /**
+     * get the statistics of the cache regions without authorization.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getCacheStatisticsWithoutAuthorization() throws Exception {
+
+        // act and assert
+        mvc.perform(get(cache))
+                .andExpect(status().isUnauthorized());
+    }
+
     /**
      * get admin without authorization.
      *
@@ -1,6 +1,7 @@
 package nl.tudelft.sp.modelchecker.controller;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -10,9 +11,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import javassist.NotFoundException;
@@ -22,6 +25,7 @@ import nl.tudelft.sp.modelchecker.cloud.Connection;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.entities.Csv;
 import nl.tudelft.sp.modelchecker.entities.Project;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.*;
@@ -31,13 +35,16 @@ import org.assertj.core.data.Percentage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -46,6 +53,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.context.WebApplicationContext;
 
 @ExtendWith(SpringExtension.class)
@@ -58,6 +66,8 @@ class ContainerControllerTest {
 
     final String authority = "APPROLE_ADMIN";
     private final String create = "/api/create/container";
+    private final String createStream = "/api/create/container/stream";
+    private final String boundary = "detectionBoundary";
     private final String update = "/api/update/container";
     private final String delete = "/api/delete/container";
     private final String list = "/api/list/container";
@@ -188,6 +198,157 @@ class ContainerControllerTest {
         assertThat(recordService.count()).isEqualTo(451);
     }
 
+    /**
+     * create Container from a streamed upload.
+     *
+     * @throws Exception Exception.
+     */
+    @Test
+    @WithMockUser(authorities = authority)
+    void createContainerStreaming() throws Exception {
+
+        // arrange
+        getAuthentication(true);
+        AzureBlobService blobService = containerController.azureBlobService;
+        AzureBlobService mockBlobService = Mockito.mock(AzureBlobService.class);
+        when(mockBlobService.getFps("output.mp4", connection.getDefaultContainer()))
+                .thenReturn(29.97);
+        containerController.setAzureBlobService(mockBlobService);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, "blobName", "output.mp4");
+        writeField(body, "projectId", projectId.toString());
+        writeField(body, "description", "desc");
+        writeField(body, "name", "test");
+        writeFile(body, classMultiPartFile);
+        writeFile(body, csvMultipartFile);
+        body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        // act and assert
+        try {
+            mvc.perform(post(createStream)
+                    .contentType("multipart/form-data; boundary=" + boundary)
+                    .content(body.toByteArray()))
+                    .andExpect(status().isOk());
+        } finally {
+            containerController.setAzureBlobService(blobService);
+        }
+
+        List<Container> containers = containerService.findAll();
+        Container created = containerService.findById(containers.get(2).getId());
+
+        assertThat(created.getFrameRate()).isEqualTo(29.97);
+        assertThat(created.getCsvName()).isEqualTo("detected.csv");
+        assertThat(created.getClasses().size()).isEqualTo(13);
+        assertThat(containerService.count()).isEqualTo(3);
+        assertThat(persistentRecordService.count()).isEqualTo(451);
+        assertThat(recordService.count()).isEqualTo(451);
+    }
+
+    /**
+     * create Container from a streamed upload where the csv comes before the classes.
+     *
+     * @throws Exception Exception.
+     */
+    @Test
+    @WithMockUser(authorities = authority)
+    void createContainerStreamingCsvFirst() throws Exception {
+
+        // arrange
+        getAuthentication(true);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, "projectId", projectId.toString());
+        writeFile(body, csvMultipartFile);
+        writeFile(body, classMultiPartFile);
+        body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        // act and assert
+        mvc.perform(post(createStream)
+                .contentType("multipart/form-data; boundary=" + boundary)
+                .content(body.toByteArray()))
+                .andExpect(status().isBadRequest());
+
+        assertThat(containerService.count()).isEqualTo(2);
+        assertThat(recordService.count()).isEqualTo(0);
+    }
+
+    /**
+     * create Container from a streamed upload with a csv over the file size limit.
+     *
+     * @throws Exception Exception.
+     */
+    @Test
+    @WithMockUser(authorities = authority)
+    void createContainerStreamingTooLarge() throws Exception {
+
+        // arrange
+        getAuthentication(true);
+        AzureBlobService blobService = containerController.azureBlobService;
+        AzureBlobService mockBlobService = Mockito.mock(AzureBlobService.class);
+        when(mockBlobService.getFps("output.mp4", connection.getDefaultContainer()))
+                .thenReturn(29.97);
+        containerController.setAzureBlobService(mockBlobService);
+
+        MultipartProperties multipartProperties = containerController.multipartProperties;
+        MultipartProperties limited = new MultipartProperties();
+        limited.setMaxFileSize(DataSize.ofKilobytes(1));
+        containerController.setMultipartProperties(limited);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, "blobName", "output.mp4");
+        writeField(body, "projectId", projectId.toString());
+        writeField(body, "description", "desc");
+        writeField(body, "name", "test");
+        writeFile(body, classMultiPartFile);
+        writeFile(body, csvMultipartFile);
+        body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        // act and assert
+        try {
+            mvc.perform(post(createStream)
+                    .contentType("multipart/form-data; boundary=" + boundary)
+                    .content(body.toByteArray()))
+                    .andExpect(status().isPayloadTooLarge());
+        } finally {
+            containerController.setAzureBlobService(blobService);
+            containerController.setMultipartProperties(multipartProperties);
+        }
+    }
+
+    /**
+     * Write a form field of a multipart body.
+     *
+     * @param body  body
+     * @param name  name
+     * @param value value
+     * @throws IOException IOException
+     */
+    private void writeField(ByteArrayOutputStream body, String name, String value)
+            throws IOException {
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write a file part of a multipart body.
+     *
+     * @param body body
+     * @param file file
+     * @throws IOException IOException
+     */
+    private void writeFile(ByteArrayOutputStream body, MockMultipartFile file)
+            throws IOException {
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + file.getName()
+                + "\"; filename=\"" + file.getOriginalFilename() + "\"\r\n"
+                + "Content-Type: " + file.getContentType() + "\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        body.write(file.getBytes());
+        body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Null container.
      *
@@ -412,6 +573,44 @@ class ContainerControllerTest {
                 .andExpect(content().json(expected));
     }
 
+    /**
+     * Get classes with the version the client already has, and after they changed.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    @WithMockUser(authorities = authority)
+    public void getClassesNotModified() throws Exception {
+
+        // arrange
+        getAuthentication(true);
+        ContainerDto containerDto = new ContainerDto(containerId);
+        csvService.register(new Csv(), containerDto);
+        containerJson = objectWriter.writeValueAsString(containerDto);
+
+        String etag = mvc.perform(post(classes)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // act and assert
+        mvc.perform(post(classes)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isNotModified());
+
+        containerService.registerClasses(new ArrayList<>(List.of("changed")), containerDto);
+
+        mvc.perform(post(classes)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"changed\"]"));
+    }
+
     /**
      * Get Authentication context.
      */
@@ -5,10 +5,12 @@ import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuild
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -26,6 +28,7 @@ import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.servicebeans.ContainerJpaService;
 import nl.tudelft.sp.modelchecker.services.servicebeans.CsvJpaService;
 import nl.tudelft.sp.modelchecker.services.servicebeans.RecordJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.RecordResponseJpaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +38,7 @@ import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -55,9 +59,11 @@ class CsvControllerTest {
     final String authority = "APPROLE_ADMIN";
     private final String get = "/api/get/csv";
     private final String records = "/api/records/csv";
+    private final String frames = "/api/records/csv/frames";
     private final String delete = "/api/delete/csv";
     private final String list = "/api/list/csv";
     private final String save = "/api/save/csv";
+    private final String patch = "/api/patch/csv";
     private final String deleteRecords = "/api/delete/records";
     @Autowired
     WebApplicationContext context;
@@ -67,6 +73,8 @@ class CsvControllerTest {
     @Autowired
     CsvJpaService csvJpaService;
     @Autowired
+    RecordResponseJpaService recordResponseJpaService;
+    @Autowired
     RecordJpaService recordJpaService;
     @Autowired
     ContainerJpaService containerJpaService;
@@ -275,6 +283,221 @@ class CsvControllerTest {
 
     }
 
+    /**
+     * get records in Csv gzipped, when the client accepts gzip.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getGzippedRecordDtosInCsv() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        recordResponseJpaService.writeCachedRecordsInCsv(csvDto, true, gzipped);
+
+        // act and assert
+        mvc.perform(post(records)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(gzipped.toByteArray()));
+    }
+
+    /**
+     * get records in Csv gzipped only when gzip is accepted with a quality above 0.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInCsvAcceptEncoding() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+
+        // act and assert
+        for (String refused : new String[]{"gzip;q=0", "deflate, gzip; q=0.0", "*;q=0",
+            "identity", "gzip;q=x", "gzipped", "*, gzip;q=0"}) {
+            mvc.perform(post(records)
+                    .header(HttpHeaders.ACCEPT_ENCODING, refused)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(containerJson))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        for (String accepted : new String[]{"gzip;q=0.5", "GZIP", "*", "x-gzip",
+            "deflate;q=1, gzip;q=0.1", "gzip;q=0, x-gzip"}) {
+            mvc.perform(post(records)
+                    .header(HttpHeaders.ACCEPT_ENCODING, accepted)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(containerJson))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        }
+    }
+
+    /**
+     * get records in Csv with the version the client already has.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInCsvNotModified() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        String etag = mvc.perform(post(records)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // act and assert
+        mvc.perform(post(records)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * get records in Csv with the ETag of the gzipped records, without accepting gzip.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInCsvEtagPerEncoding() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        String gzipEtag = mvc.perform(post(records)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // act
+        String plainEtag = mvc.perform(post(records)
+                .header(HttpHeaders.IF_NONE_MATCH, gzipEtag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // assert
+        assertThat(plainEtag).isNotEqualTo(gzipEtag);
+    }
+
+    /**
+     * get records in Csv after they changed since the version the client has.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInCsvModified() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        String etag = mvc.perform(post(records)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        recordJpaService.delete(List.of(new RecordDto(record1)));
+        String result = objectWriter.writeValueAsString(csvJpaService.getRecordsInCsv(csvDto));
+
+        // act
+        String modified = mvc.perform(post(records)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(containerJson))
+                .andExpect(status().isOk())
+                .andExpect(content().json(result))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // assert
+        assertThat(modified).isNotEqualTo(etag);
+    }
+
+    /**
+     * patch the records of a container.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void patchCsv() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        long version = csvJpaService.getVersion(csvDto);
+        RecordPatchDto recordPatchDto = new RecordPatchDto(container.getId(), version,
+                List.of(), List.of(new RecordDto(record1)));
+
+        // act
+        mvc.perform(post(patch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(recordPatchDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(String.valueOf(version + 1)));
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(1);
+    }
+
+    /**
+     * patch the records of a container based on an outdated version.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void patchCsvConflict() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        long version = csvJpaService.getVersion(csvDto);
+        RecordPatchDto recordPatchDto = new RecordPatchDto(container.getId(), version - 1,
+                List.of(), List.of(new RecordDto(record1)));
+
+        // act
+        mvc.perform(post(patch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(recordPatchDto)))
+                .andExpect(status().isConflict());
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(2);
+    }
+
+    /**
+     * patch the records of a container with a record of another csv.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void patchCsvOtherCsv() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        long version = csvJpaService.getVersion(csvDto);
+        RecordDto recordDto = new RecordDto(record1);
+        recordDto.setCsvId(csv.getId() + 1);
+        RecordPatchDto recordPatchDto = new RecordPatchDto(container.getId(), version,
+                List.of(recordDto), List.of());
+
+        // act
+        mvc.perform(post(patch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(recordPatchDto)))
+                .andExpect(status().isBadRequest());
+
+        // assert
+        assertThat(csvJpaService.getVersion(csvDto)).isEqualTo(version);
+        assertThat(recordJpaService.count()).isEqualTo(2);
+    }
+
     /**
      * get records in Csv without authorization.
      *
@@ -295,6 +518,63 @@ class CsvControllerTest {
                 .andExpect(content().json(result));
     }
 
+    /**
+     * get the records of a window of frames in Csv.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInFrameWindow() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        Record later = recordJpaService.register(Record.builder().frameNum(30)
+                .objectId(7).label("testLabel3").build(), csvDto);
+
+        List<RecordDto> recordDtos = csvJpaService.getRecordsInCsv(csvDto);
+        recordDtos.removeIf(dto -> dto.getId().equals(later.getId()));
+        String result = objectWriter.writeValueAsString(recordDtos);
+        String window = objectWriter.writeValueAsString(
+                new FrameWindowDto(container.getId(), 0, 10));
+
+        // act and assert
+        mvc.perform(post(frames)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(window))
+                .andExpect(status().isOk())
+                .andExpect(content().json(result, true));
+    }
+
+    /**
+     * get the records of a window of timestamps in Csv.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInTimeWindow() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        Record later = recordJpaService.register(Record.builder().frameNum(30)
+                .objectId(7).label("testLabel3").build(), csvDto);
+
+        List<RecordDto> recordDtos = new ArrayList<>();
+        recordDtos.add(modelMapper.map(recordJpaService.findById(later.getId()),
+                RecordDto.class));
+        String result = objectWriter.writeValueAsString(recordDtos);
+
+        // frames 23 up to and including 46 at 23 frames per second
+        String window = objectWriter.writeValueAsString(
+                new FrameWindowDto(container.getId(), 1.0, 2.0));
+
+        // act and assert
+        mvc.perform(post(frames)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(window))
+                .andExpect(status().isOk())
+                .andExpect(content().json(result, true));
+    }
+
     /**
      * test save csv.
      */
@@ -11,11 +11,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.SecurityFilter.MockSpringSecurityFilter;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
+import nl.tudelft.sp.modelchecker.dto.FrameWindowDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Csv;
@@ -52,6 +55,7 @@ import org.springframework.web.multipart.MultipartFile;
 class PersistentCsvControllerTest {
 
     private final String records = "/api/records/persistentCsv";
+    private final String frames = "/api/records/persistentCsv/frames";
 
     @Autowired
     WebApplicationContext context;
@@ -126,11 +130,11 @@ class PersistentCsvControllerTest {
         persistentCsvDto = new CsvDto(persistentCsv);
 
         record = Record.builder().frameNum(2)
-                .objectId(1).trackerL(3).label("testLabel1")
+                .objectId(1001).trackerL(3).label("testLabel1")
                 .trackerH(3).trackerW(5).trackerT(3).build();
 
         record1 = Record.builder().frameNum(2)
-                .objectId(4).trackerL(6).label("testLabel2")
+                .objectId(1004).trackerL(6).label("testLabel2")
                 .trackerH(3).trackerW(7).trackerT(3).build();
 
         record = recordJpaService.register(record, csvDto);
@@ -166,12 +170,45 @@ class PersistentCsvControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(expected));
 
-        assertThat(persistentRecordService.findById(record.getId())).isNull();
-        assertThat(persistentRecordService.findById(record1.getId())).isNull();
+        // records and persistent records are numbered by their own sequences
+        assertThat(recordDtos.stream().noneMatch(dto -> dto.getObjectId() == 1001
+                || dto.getObjectId() == 1004)).isTrue();
         assertThat(recordJpaService.count()).isEqualTo(453);
         assertThat(persistentRecordService.count()).isEqualTo(451);
     }
 
+    /**
+     * get the records of a window of frames in persistent csv test.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void getRecordDtosInFrameWindow() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+
+        List<RecordDto> recordDtos = persistentCsvService
+                .getRecordsInPersistentCsv(persistentCsvDto).stream()
+                .filter(dto -> dto.getFrameNum() >= 100 && dto.getFrameNum() <= 200)
+                .sorted(Comparator.comparing(RecordDto::getFrameNum)
+                        .thenComparing(RecordDto::getId))
+                .collect(Collectors.toList());
+
+        assertThat(recordDtos.size()).isGreaterThan(0);
+        assertThat(recordDtos.size()).isLessThan(451);
+
+        String expected = objectWriter.writeValueAsString(recordDtos);
+        String window = objectWriter.writeValueAsString(
+                new FrameWindowDto(container.getId(), 100, 200));
+
+        // act and assert
+        mvc.perform(post(frames)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(window))
+                .andExpect(status().isOk())
+                .andExpect(content().json(expected, true));
+    }
 
     /**
      * Get Authentication context.
@@ -18,6 +18,7 @@ import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.SecurityFilter.MockSpringSecurityFilter;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectHolderDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
@@ -414,6 +415,55 @@ class ProjectControllerTest {
                 .andExpect(content().json(expected));
     }
 
+    /**
+     * list a page of projects.
+     *
+     * @throws Exception Exception
+     */
+    @WithMockUser(authorities = authority)
+    @Test
+    void getProjectsPage() throws Exception {
+
+        // arrange
+        getAuthentication(true);
+        project1 = projectJpaService
+                .register(new Project("new title", "new project"),
+                        projectHolderDto1,
+                        adminDto);
+        PageDto<Long> pageDto = new PageDto<>(1, project.getId());
+        expected = objectWriter.writeValueAsString(
+                projectJpaService.findDtoPage(ProjectDto.class, pageDto));
+
+        // act and assert
+        mvc.perform(post(list)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(pageDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(expected, true))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(project1.getId()));
+    }
+
+    /**
+     * list a page of projects sorted by an unknown attribute.
+     *
+     * @throws Exception Exception
+     */
+    @WithMockUser(authorities = authority)
+    @Test
+    void getProjectsPageUnknownSort() throws Exception {
+
+        // arrange
+        getAuthentication(true);
+        PageDto<Long> pageDto = new PageDto<>(1, null, "unknown", false);
+
+        // act and assert
+        mvc.perform(post(list)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(pageDto)))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * list projects without authorization.
      *
@@ -53,6 +53,7 @@ class SubmissionControllerTest {
 
     final String create = "/api/create/submission";
     final String delete = "/api/delete/submission";
+    final String patch = "/api/patch/submission";
 
     @Autowired
     WebApplicationContext context;
@@ -276,6 +277,62 @@ class SubmissionControllerTest {
                         .isInstanceOf(AuthorityException.class));
     }
 
+    /**
+     * create submission from a patch of the records of its container.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void patchTest() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        long version = csvJpaService.getVersion(csvDto);
+        RecordDto recordDto = csvJpaService.getRecordsInCsv(csvDto).get(0);
+        recordDto.setLabel("patched");
+
+        RecordPatchDto recordPatchDto = new RecordPatchDto(container.getId(), version,
+                List.of(recordDto), List.of());
+
+        // act
+        mvc.perform(post(patch)
+                .header("oid", basicUser.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(recordPatchDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(version + 1));
+
+        // assert
+        assertThat(recordJpaService.findById(recordDto.getId()).getLabel()).isEqualTo("patched");
+        assertThat(recordJpaService.count()).isEqualTo(399);
+        assertThat(submissionJpaService.count()).isEqualTo(1);
+    }
+
+    /**
+     * create submission from a patch based on an outdated version.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void patchConflictTest() throws Exception {
+
+        // arrange
+        getAuthentication(false);
+        long version = csvJpaService.getVersion(csvDto);
+        RecordDto recordDto = csvJpaService.getRecordsInCsv(csvDto).get(0);
+
+        RecordPatchDto recordPatchDto = new RecordPatchDto(container.getId(), version - 1,
+                List.of(), List.of(recordDto));
+
+        // act and assert
+        mvc.perform(post(patch)
+                .header("oid", basicUser.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectWriter.writeValueAsString(recordPatchDto)))
+                .andExpect(status().isConflict());
+        assertThat(recordJpaService.count()).isEqualTo(399);
+    }
+
     /**
      * delete submission.
      *
@@ -0,0 +1,193 @@
+package nl.tudelft.sp.modelchecker.database;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import javassist.NotFoundException;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import nl.tudelft.sp.modelchecker.Application;
+import nl.tudelft.sp.modelchecker.dto.CacheStatisticsDto;
+import nl.tudelft.sp.modelchecker.dto.ProjectDto;
+import nl.tudelft.sp.modelchecker.dto.ProjectHolderDto;
+import nl.tudelft.sp.modelchecker.dto.UserDto;
+import nl.tudelft.sp.modelchecker.entities.Admin;
+import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Project;
+import nl.tudelft.sp.modelchecker.entities.ProjectHolder;
+import nl.tudelft.sp.modelchecker.exceptions.DateException;
+import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.services.servicebeans.AdminJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.CacheJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.ContainerJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.CsvJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.ProjectHolderJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.ProjectJpaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional
+public class DatabaseCacheTest {
+
+    private static final String PROJECT = "nl.tudelft.sp.modelchecker.entities.Project";
+    private static final String CONTAINERS = PROJECT + ".containers";
+
+    @Autowired
+    CacheJpaService cacheJpaService;
+
+    @Autowired
+    AdminJpaService adminJpaService;
+
+    @Autowired
+    ProjectHolderJpaService projectHolderJpaService;
+
+    @Autowired
+    ProjectJpaService projectJpaService;
+
+    @Autowired
+    ContainerJpaService containerJpaService;
+
+    @Autowired
+    CsvJpaService csvJpaService;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private Project project;
+    private ProjectDto projectDto;
+
+    /**
+     * Set Up test environment.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     * @throws DateException     DateException
+     */
+    @BeforeEach
+    public void setUp() throws ExistsException, NotFoundException, DateException {
+
+        // arrange
+        Admin admin = adminJpaService.registerUser(new Admin("cache", "cache",
+                "cache@gmail.com", Date.valueOf(LocalDate.now())));
+        ProjectHolder projectHolder = projectHolderJpaService.register(new ProjectHolder());
+
+        project = projectJpaService.register(new Project("title", "description"),
+                new ProjectHolderDto(projectHolder), new UserDto(admin));
+        projectDto = new ProjectDto(project);
+
+        containerJpaService.register(new Container(42.0, "cache", "cache"), projectDto);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Get the statistics of a region.
+     *
+     * @param region region
+     * @return statistics
+     */
+    private CacheStatisticsDto statistics(String region) {
+        return cacheJpaService.getStatistics().stream()
+                .filter(statistics -> statistics.getRegion().equals(region))
+                .findFirst().orElseThrow();
+    }
+
+    /**
+     * test a project that is not cached yet is counted as a miss.
+     */
+    @Test
+    public void projectCacheMissTest() {
+
+        // arrange
+        long misses = statistics(PROJECT).getMisses();
+
+        // act
+        Project found = projectJpaService.findById(project.getId());
+
+        // assert
+        assertThat(found.getTitle()).isEqualTo("title");
+        assertThat(statistics(PROJECT).getMisses()).isEqualTo(misses + 1);
+    }
+
+    /**
+     * test the containers of a project are read from the cache once they are loaded.
+     */
+    @Test
+    public void containersCacheHitTest() {
+
+        // arrange
+        projectJpaService.findById(project.getId()).getContainers().size();
+        entityManager.clear();
+        long hits = statistics(CONTAINERS).getHits();
+
+        // act
+        int size = projectJpaService.findById(project.getId()).getContainers().size();
+
+        // assert
+        assertThat(size).isEqualTo(1);
+        assertThat(statistics(CONTAINERS).getHits()).isEqualTo(hits + 1);
+    }
+
+    /**
+     * test registering a container evicts the cached containers of its project.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void registerContainerEvictsContainersTest()
+            throws ExistsException, NotFoundException {
+
+        // arrange
+        projectJpaService.findById(project.getId()).getContainers().size();
+        entityManager.clear();
+
+        // act
+        containerJpaService.register(new Container(24.0, "evict", "evict"), projectDto);
+        entityManager.flush();
+        entityManager.clear();
+
+        // assert
+        assertThat(projectJpaService.findById(project.getId()).getContainers().size())
+                .isEqualTo(2);
+    }
+
+    /**
+     * test incrementing the version of a csv evicts only that csv from the cache.
+     *
+     * @throws ExistsException ExistsException
+     */
+    @Test
+    public void incrementVersionEvictsOnlyCsvTest() throws ExistsException {
+
+        // arrange
+        Csv csv = csvJpaService.register(new Csv());
+        Csv other = csvJpaService.register(new Csv());
+        entityManager.flush();
+        entityManager.clear();
+        csvJpaService.findById(csv.getId());
+        csvJpaService.findById(other.getId());
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+
+        // act
+        csvJpaService.incrementVersion(csv.getId());
+
+        // assert
+        assertThat(cache.contains(Csv.class, csv.getId())).isFalse();
+        assertThat(cache.contains(Csv.class, other.getId())).isTrue();
+    }
+}
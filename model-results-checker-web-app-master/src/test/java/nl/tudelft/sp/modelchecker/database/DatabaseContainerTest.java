@@ -12,6 +12,8 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import javassist.NotFoundException;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.dto.*;
 import nl.tudelft.sp.modelchecker.entities.*;
@@ -19,6 +21,8 @@ import nl.tudelft.sp.modelchecker.entities.Record;
 import nl.tudelft.sp.modelchecker.exceptions.DateException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.servicebeans.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -66,6 +70,9 @@ public class DatabaseContainerTest {
     @Autowired
     ModelMapper modelMapper;
 
+    @PersistenceContext
+    EntityManager entityManager;
+
     private Admin admin;
     private UserDto adminDto;
 
@@ -156,7 +163,7 @@ public class DatabaseContainerTest {
 
         // assert
         assertThat(container.getProject()).isEqualTo(project);
-        assertThat(project.getContainers().toArray()[1]).isEqualTo(container);
+        assertThat(project.getContainers().contains(container)).isTrue();
 
     }
 
@@ -170,8 +177,8 @@ public class DatabaseContainerTest {
         assertThat(container1.getProject()).isEqualTo(project);
         assertThat(project.getContainers().size()).isEqualTo(2);
 
-        assertThat(project.getContainers().toArray()[1]).isEqualTo(container);
-        assertThat(project.getContainers().toArray()[0]).isEqualTo(container1);
+        assertThat(project.getContainers().contains(container)).isTrue();
+        assertThat(project.getContainers().contains(container1)).isTrue();
     }
 
     /**
@@ -368,4 +375,79 @@ public class DatabaseContainerTest {
         assertThat(returnedCsv.getRecords().size()).isEqualTo(452);
         assertThat(recordJpaService.findById(randomId).getLabel()).isEqualTo(record2.getLabel());
     }
+
+    /**
+     * Enable statistics on an empty persistence context and second level cache.
+     *
+     * @return statistics
+     */
+    private Statistics statistics() {
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    /**
+     * The container dtos of a project are read with a single query, without
+     * loading the project, the containers, the csvs or their records.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void containerDtosInProjectQueryCountTest() throws Exception {
+
+        // arrange
+        containerJpaService.fillContainer(multipartFileCsv, multipartFileClasses,
+                new Container(35.0, "test", "desc"), projectDto);
+        Statistics statistics = statistics();
+
+        // act
+        List<ContainerDto> containerDtos;
+        try {
+            containerDtos = projectJpaService.getContainerDtosInProject(projectDto);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // assert
+        assertThat(containerDtos.size()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+        assertThat(statistics.getCollectionFetchCount()).isEqualTo(0);
+    }
+
+    /**
+     * Loading a csv does not load its records.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void csvDtoQueryCountTest() throws Exception {
+
+        // arrange
+        Container container2 = containerJpaService.fillContainer(multipartFileCsv,
+                multipartFileClasses, new Container(35.0, "test", "desc"), projectDto);
+        Long csvId = container2.getCsv().getId();
+        Statistics statistics = statistics();
+
+        // act
+        CsvDto dto;
+        try {
+            dto = new CsvDto(csvJpaService.findById(csvId));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // assert
+        assertThat(dto.getContainerId()).isEqualTo(container2.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isEqualTo(0);
+    }
 }
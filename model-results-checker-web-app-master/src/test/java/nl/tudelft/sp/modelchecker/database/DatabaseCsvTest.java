@@ -3,18 +3,26 @@ package nl.tudelft.sp.modelchecker.database;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.List;
+import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
 import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Csv;
 import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.servicebeans.ContainerJpaService;
 import nl.tudelft.sp.modelchecker.services.servicebeans.CsvJpaService;
@@ -50,6 +58,9 @@ public class DatabaseCsvTest {
     @Autowired
     ModelMapper modelMapper;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     private Csv csv;
     private Csv csv1;
     private CsvDto csvdto;
@@ -86,8 +97,8 @@ public class DatabaseCsvTest {
         csv1 = new Csv();
         csvdto = modelMapper.map(csv, CsvDto.class);
 
-        record = recordJpaService.register(new Record(), csvdto);
-        record2 = recordJpaService.register(new Record(), csvdto);
+        record = recordJpaService.register(Record.builder().objectId(1).build(), csvdto);
+        record2 = recordJpaService.register(Record.builder().objectId(2).build(), csvdto);
 
         recordDto = modelMapper.map(record, RecordDto.class);
         record2Dto = modelMapper.map(record2, RecordDto.class);
@@ -184,6 +195,61 @@ public class DatabaseCsvTest {
         });
     }
 
+    /**
+     * Write records in csv streams the same records as getRecordsInCsv.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void writeRecordsInCsvTest() throws Exception {
+
+        // arrange
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        List<RecordDto> expected = csvJpaService.getRecordsInCsv(csvdto);
+
+        // act
+        csvJpaService.writeRecordsInCsv(csvdto, outputStream);
+        List<RecordDto> recordDtos = objectMapper.readValue(outputStream.toByteArray(),
+                new TypeReference<List<RecordDto>>() {});
+
+        // assert
+        assertThat(recordDtos.size()).isEqualTo(2);
+        assertThat(recordDtos).isEqualTo(expected);
+    }
+
+    /**
+     * Get records in csv orders them by frame and object id, like an overlay csv.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void getRecordsInCsvOrderTest() throws Exception {
+
+        // arrange
+        recordJpaService.register(Record.builder().frameNum(3).objectId(5).build(), csvdto);
+        recordJpaService.register(Record.builder().frameNum(1).objectId(7).build(), csvdto);
+        recordJpaService.register(Record.builder().frameNum(1).objectId(6).build(), csvdto);
+
+        // act
+        List<Integer> objectIds = csvJpaService.getRecordsInCsv(csvdto).stream()
+                .map(RecordDto::getObjectId).collect(Collectors.toList());
+
+        // assert
+        assertThat(objectIds).isEqualTo(List.of(1, 2, 6, 7, 5));
+    }
+
+    /**
+     * Write records in csv of a non existing csv test.
+     */
+    @Test
+    public void writeRecordsInCsvNotFoundTest() {
+
+        // act and assert
+        assertThrows(NotFoundException.class, () -> {
+            csvJpaService.writeRecordsInCsv(new CsvDto(10000L), new ByteArrayOutputStream());
+        });
+    }
+
     /**
      * Get records in csv test.
      */
@@ -196,6 +262,30 @@ public class DatabaseCsvTest {
         });
     }
 
+    /**
+     * Delete records in csv leaves the records of other csvs alone.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void deleteRecordsInCsvOtherCsvTest() throws Exception {
+
+        // arrange
+        container1 = containerJpaService.register(container1);
+        csv1 = csvJpaService.register(csv1, modelMapper.map(container1, ContainerDto.class));
+        final Record other = recordJpaService.register(Record.builder().objectId(7).build(),
+                modelMapper.map(csv1, CsvDto.class));
+
+        // act
+        csv = csvJpaService.deleteRecordsInCsv(csvdto);
+
+        // assert
+        assertThat(csv.getRecords().size()).isEqualTo(0);
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(recordJpaService.findById(other.getId())).isNotNull();
+        assertThat(csvJpaService.findById(csv1.getId()).getRecords().size()).isEqualTo(1);
+    }
+
     /**
      * Register existing csv with another container.
      *
@@ -266,6 +356,154 @@ public class DatabaseCsvTest {
         assertThat(containerJpaService.count()).isEqualTo(1);
     }
 
+    /**
+     * Every write to the records of a csv increments its version.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void recordWritesIncrementVersionTest() throws Exception {
+
+        // arrange
+        final long registered = csvJpaService.getVersion(csvdto);
+        RecordDto saved = new RecordDto(record);
+        saved.setLabel("saved");
+
+        // act
+        recordJpaService.save(List.of(saved), csvdto);
+        final long afterSave = csvJpaService.getVersion(csvdto);
+        recordJpaService.delete(List.of(new RecordDto(record2)));
+        final long afterDelete = csvJpaService.getVersion(csvdto);
+        csvJpaService.deleteRecordsInCsv(csvdto);
+        long afterDeleteAll = csvJpaService.getVersion(csvdto);
+
+        // assert
+        assertThat(registered).isEqualTo(2);
+        assertThat(afterSave).isEqualTo(3);
+        assertThat(afterDelete).isEqualTo(4);
+        assertThat(afterDeleteAll).isEqualTo(5);
+    }
+
+    /**
+     * Updating the container of a csv increments its version, other csvs keep theirs.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void updateContainerIncrementsVersionTest() throws Exception {
+
+        // arrange
+        container1 = containerJpaService.register(container1);
+        csv1 = csvJpaService.register(csv1, modelMapper.map(container1, ContainerDto.class));
+        CsvDto otherDto = new CsvDto(csv1);
+        long version = csvJpaService.getVersion(csvdto);
+
+        // act
+        containerJpaService.update(containerDto, containerDto);
+
+        // assert
+        assertThat(csvJpaService.getVersion(csvdto)).isEqualTo(version + 1);
+        assertThat(csvJpaService.getVersion(otherDto)).isEqualTo(0);
+    }
+
+    /**
+     * Get the version of a non existing csv test.
+     */
+    @Test
+    public void getVersionNotFoundTest() {
+
+        // act and assert
+        assertThrows(NotFoundException.class, () -> {
+            csvJpaService.getVersion(new CsvDto(10000L));
+        });
+    }
+
+    /**
+     * Patch the records of a container, keyed by their object id.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void patchContainerTest() throws Exception {
+
+        // arrange
+        long version = csvJpaService.getVersion(csvdto);
+        RecordDto updated = new RecordDto(record);
+        updated.setLabel("updated");
+        RecordDto created = new RecordDto(Record.builder().objectId(3).label("created").build());
+        RecordPatchDto patch = new RecordPatchDto(container.getId(), version,
+                List.of(updated, created), List.of(new RecordDto(record2)));
+
+        // act
+        long patched = containerJpaService.patchContainer(patch);
+
+        // assert
+        List<RecordDto> recordDtos = csvJpaService.getRecordsInCsv(csvdto);
+        assertThat(patched).isEqualTo(version + 1);
+        assertThat(csvJpaService.getVersion(csvdto)).isEqualTo(version + 1);
+        assertThat(recordDtos.size()).isEqualTo(2);
+        assertThat(recordDtos.stream().filter(dto -> dto.getObjectId() == 1)
+                .findFirst().orElseThrow().getLabel()).isEqualTo("updated");
+        assertThat(recordDtos.stream().filter(dto -> dto.getObjectId() == 3)
+                .findFirst().orElseThrow().getLabel()).isEqualTo("created");
+    }
+
+    /**
+     * A patch based on a version the csv no longer has is rejected as a whole.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void patchContainerStaleVersionTest() throws Exception {
+
+        // arrange
+        long version = csvJpaService.getVersion(csvdto);
+        RecordPatchDto patch = new RecordPatchDto(container.getId(), version - 1,
+                List.of(), List.of(new RecordDto(record2)));
+
+        // act and assert
+        assertThrows(ConflictException.class, () -> {
+            containerJpaService.patchContainer(patch);
+        });
+        assertThat(csvJpaService.getVersion(csvdto)).isEqualTo(version);
+        assertThat(csvJpaService.getRecordsInCsv(csvdto).size()).isEqualTo(2);
+    }
+
+    /**
+     * A patch without base version is rejected.
+     */
+    @Test
+    public void patchContainerWithoutVersionTest() {
+
+        // arrange
+        RecordPatchDto patch = new RecordPatchDto(container.getId(), null,
+                List.of(), List.of());
+
+        // act and assert
+        assertThrows(BadRequestException.class, () -> {
+            containerJpaService.patchContainer(patch);
+        });
+    }
+
+    /**
+     * A patch of a container without csv is not found.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void patchContainerWithoutCsvTest() throws Exception {
+
+        // arrange
+        container1 = containerJpaService.register(container1);
+        RecordPatchDto patch = new RecordPatchDto(container1.getId(), 0L,
+                List.of(), List.of());
+
+        // act and assert
+        assertThrows(NotFoundException.class, () -> {
+            containerJpaService.patchContainer(patch);
+        });
+    }
+
     /**
      * Delete csv out preremove.
      *
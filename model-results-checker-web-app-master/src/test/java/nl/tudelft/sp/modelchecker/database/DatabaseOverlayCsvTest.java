@@ -0,0 +1,403 @@
+package nl.tudelft.sp.modelchecker.database;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javassist.NotFoundException;
+import nl.tudelft.sp.modelchecker.Application;
+import nl.tudelft.sp.modelchecker.dto.CsvDto;
+import nl.tudelft.sp.modelchecker.dto.ProjectDto;
+import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.dto.RecordPatchDto;
+import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Project;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.ConflictException;
+import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.services.servicebeans.ContainerJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.CsvJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.PersistentCsvJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.PersistentRecordJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.ProjectJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.RecordJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.RecordResponseJpaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class, properties = "records.overlay=true")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional
+public class DatabaseOverlayCsvTest {
+
+    private static final int RECORDS = 451;
+
+    @Autowired
+    ContainerJpaService containerJpaService;
+
+    @Autowired
+    CsvJpaService csvJpaService;
+
+    @Autowired
+    RecordResponseJpaService recordResponseJpaService;
+
+    @Autowired
+    RecordJpaService recordJpaService;
+
+    @Autowired
+    PersistentCsvJpaService persistentCsvJpaService;
+
+    @Autowired
+    PersistentRecordJpaService persistentRecordJpaService;
+
+    @Autowired
+    ProjectJpaService projectJpaService;
+
+    private Container container;
+    private CsvDto csvDto;
+
+    /**
+     * Set Up test environment.
+     *
+     * @throws Exception Exception
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        // arrange
+        Project project = projectJpaService.register(new Project("title", "description"));
+
+        try (FileInputStream csv = new FileInputStream("src/test/resources/detected.csv")) {
+            container = containerJpaService.fillContainer(csv, "text/csv",
+                    new ArrayList<>(List.of("pp")), new Container(42.0, "test", "overlay"),
+                    new ProjectDto(project));
+        }
+        container = containerJpaService.findById(container.getId());
+        csvDto = new CsvDto(container.getCsv());
+    }
+
+    /**
+     * Find a record of the csv by its object id.
+     *
+     * @param objectId objectId
+     * @return record, or null if the csv has none
+     * @throws NotFoundException NotFoundException
+     */
+    private RecordDto find(int objectId) throws NotFoundException {
+        return csvJpaService.getRecordsInCsv(csvDto).stream()
+                .filter(recordDto -> recordDto.getObjectId() == objectId)
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * Create a copy of a record with another label.
+     *
+     * @param recordDto recordDto
+     * @param label     label
+     * @return changed record
+     */
+    private RecordDto relabel(RecordDto recordDto, String label) {
+        RecordDto changed = new RecordDto();
+        changed.setId(recordDto.getId());
+        changed.setFrameNum(recordDto.getFrameNum());
+        changed.setObjectId(recordDto.getObjectId());
+        changed.setLabel(label);
+        changed.setCsvId(csvDto.getId());
+        return changed;
+    }
+
+    /**
+     * test filling a container only writes the records to the persistent csv.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void fillContainerStoresOverlayTest() throws NotFoundException {
+
+        // act
+        List<RecordDto> recordDtos = csvJpaService.getRecordsInCsv(csvDto);
+
+        // assert
+        Csv csv = csvJpaService.findById(csvDto.getId());
+        assertThat(csv.isOverlay()).isTrue();
+        assertThat(recordJpaService.count()).isEqualTo(0);
+        assertThat(persistentRecordJpaService.count()).isEqualTo(RECORDS);
+        assertThat(recordDtos.size()).isEqualTo(RECORDS);
+        assertThat(recordDtos.get(0).getCsvId()).isEqualTo(csvDto.getId());
+        assertThat(recordDtos.get(0).getFrameNum()).isEqualTo(48);
+    }
+
+    /**
+     * test updating a record of the persistent csv copies it into the csv.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void updateCopiesOnWriteTest() throws NotFoundException {
+
+        // arrange
+        RecordDto recordDto = find(1);
+
+        // act
+        recordJpaService.update(recordDto, relabel(recordDto, "changed"));
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(persistentRecordJpaService.count()).isEqualTo(RECORDS);
+        assertThat(csvJpaService.getRecordsInCsv(csvDto).size()).isEqualTo(RECORDS);
+        assertThat(find(1).getLabel()).isEqualTo("changed");
+    }
+
+    /**
+     * test updating a record the csv does not have.
+     */
+    @Test
+    public void updateMissingRecordTest() {
+
+        // arrange
+        RecordDto recordDto = new RecordDto(0L);
+        recordDto.setObjectId(100000);
+        recordDto.setCsvId(csvDto.getId());
+
+        // act and assert
+        assertThrows(NotFoundException.class, () -> recordJpaService.update(recordDto,
+                relabel(recordDto, "missing")));
+    }
+
+    /**
+     * test deleting a record of the persistent csv leaves a tombstone.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void deleteLeavesTombstoneTest() throws NotFoundException {
+
+        // act
+        recordJpaService.delete(List.of(find(0)));
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(persistentRecordJpaService.count()).isEqualTo(RECORDS);
+        assertThat(csvJpaService.getRecordsInCsv(csvDto).size()).isEqualTo(RECORDS - 1);
+        assertThat(find(0)).isNull();
+    }
+
+    /**
+     * test registering a record with the object id of a tombstone revives it.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws ExistsException   ExistsException
+     */
+    @Test
+    public void registerOverTombstoneTest() throws NotFoundException, ExistsException {
+
+        // arrange
+        recordJpaService.delete(List.of(find(0)));
+
+        // act
+        recordJpaService.register(Record.builder().frameNum(48).objectId(0)
+                .label("revived").build(), csvDto);
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(csvJpaService.getRecordsInCsv(csvDto).size()).isEqualTo(RECORDS);
+        assertThat(find(0).getLabel()).isEqualTo("revived");
+    }
+
+    /**
+     * test registering a record with the object id of a record of the persistent csv.
+     */
+    @Test
+    public void registerExistingTest() {
+
+        // act and assert
+        assertThrows(ExistsException.class, () -> recordJpaService.register(
+                Record.builder().frameNum(48).objectId(0).label("exists").build(), csvDto));
+    }
+
+    /**
+     * test a patch only writes the changed, added and deleted records.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws ConflictException ConflictException
+     */
+    @Test
+    public void patchTest() throws NotFoundException, ConflictException {
+
+        // arrange
+        RecordDto added = relabel(find(2), "added");
+        added.setObjectId(100000);
+
+        RecordPatchDto recordPatchDto = new RecordPatchDto(container.getId(),
+                csvJpaService.getVersion(csvDto),
+                List.of(relabel(find(1), "changed"), added), List.of(find(0)));
+
+        // act
+        containerJpaService.patchContainer(recordPatchDto);
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(3);
+        assertThat(csvJpaService.getRecordsInCsv(csvDto).size()).isEqualTo(RECORDS);
+        assertThat(find(0)).isNull();
+        assertThat(find(1).getLabel()).isEqualTo("changed");
+        assertThat(find(100000).getLabel()).isEqualTo("added");
+    }
+
+    /**
+     * test saving a record over a tombstone revives it.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void saveOverTombstoneTest() throws NotFoundException {
+
+        // arrange
+        RecordDto recordDto = find(0);
+        recordJpaService.delete(List.of(recordDto));
+
+        // act
+        recordJpaService.save(List.of(relabel(recordDto, "saved")), csvDto);
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(find(0).getLabel()).isEqualTo("saved");
+    }
+
+    /**
+     * test a window of frames merges the csv with the persistent csv.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void frameWindowTest() throws NotFoundException {
+
+        // arrange
+        RecordDto moved = relabel(find(1), "moved");
+        moved.setFrameNum(1000000);
+        recordJpaService.update(find(1), moved);
+        recordJpaService.delete(List.of(find(2)));
+
+        // act
+        List<RecordDto> window = csvJpaService.getRecordsInCsv(csvDto, 48, 54);
+        List<RecordDto> moveWindow = csvJpaService.getRecordsInCsv(csvDto, 1000000, 1000000);
+
+        // assert
+        assertThat(window.size()).isEqualTo(1);
+        assertThat(window.get(0).getObjectId()).isEqualTo(0);
+        assertThat(moveWindow.size()).isEqualTo(1);
+        assertThat(moveWindow.get(0).getLabel()).isEqualTo("moved");
+    }
+
+    /**
+     * test the written records of the csv are merged with the persistent csv.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void writeRecordsTest() throws NotFoundException, IOException {
+
+        // arrange
+        recordJpaService.update(find(1), relabel(find(1), "written"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // act
+        csvJpaService.writeRecordsInCsv(csvDto, outputStream);
+
+        // assert
+        String json = outputStream.toString(StandardCharsets.UTF_8);
+        assertThat(json).contains("\"label\":\"written\"");
+        assertThat(json.split("\"objectId\"").length - 1).isEqualTo(RECORDS);
+    }
+
+    /**
+     * test deleting all records of the csv stops it from being an overlay.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void deleteRecordsInCsvDetachesTest() throws NotFoundException {
+
+        // arrange
+        recordJpaService.update(find(1), relabel(find(1), "changed"));
+
+        // act
+        Csv csv = csvJpaService.deleteRecordsInCsv(csvDto);
+
+        // assert
+        assertThat(csv.isOverlay()).isFalse();
+        assertThat(recordJpaService.count()).isEqualTo(0);
+        assertThat(csvJpaService.getRecordsInCsv(csvDto).size()).isEqualTo(0);
+        assertThat(persistentRecordJpaService.count()).isEqualTo(RECORDS);
+    }
+
+    /**
+     * test records of the persistent csv have no id in the csv, as they are no record
+     * of it, and overlaid reads are ordered by frame and object id.
+     *
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void overlaidIdsAndOrderTest() throws NotFoundException {
+
+        // arrange
+        recordJpaService.update(find(1), relabel(find(1), "changed"));
+
+        // act
+        List<RecordDto> recordDtos = csvJpaService.getRecordsInCsv(csvDto);
+
+        // assert
+        for (RecordDto recordDto : recordDtos) {
+            assertThat(recordDto.getId() != null).isEqualTo(recordDto.getObjectId() == 1);
+        }
+        List<RecordDto> sorted = new ArrayList<>(recordDtos);
+        sorted.sort(Comparator.comparingInt(RecordDto::getFrameNum)
+                .thenComparingInt(RecordDto::getObjectId));
+        assertThat(recordDtos).isEqualTo(sorted);
+        assertThat(csvJpaService.getRecordsInCsv(csvDto, 0, 1000000)).isEqualTo(recordDtos);
+    }
+
+    /**
+     * test writing a record of the persistent csv increments the version of the csv
+     * and evicts its cached records.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void persistentWriteIncrementsOverlayTest() throws NotFoundException, IOException {
+
+        // arrange
+        recordResponseJpaService.writeCachedRecordsInCsv(csvDto, false,
+                new ByteArrayOutputStream());
+        final long version = csvJpaService.getVersion(csvDto);
+        RecordDto persistent = persistentCsvJpaService.getRecordsInPersistentCsv(
+                new CsvDto(container.getPersistentCSv())).get(1);
+        persistent.setLabel("persistent");
+
+        // act
+        persistentRecordJpaService.update(persistent, persistent);
+
+        // assert
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        recordResponseJpaService.writeCachedRecordsInCsv(csvDto, false, outputStream);
+        assertThat(csvJpaService.getVersion(csvDto)).isGreaterThan(version);
+        assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                .contains("\"label\":\"persistent\"");
+    }
+}
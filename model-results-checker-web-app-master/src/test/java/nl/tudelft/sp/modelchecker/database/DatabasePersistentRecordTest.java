@@ -232,6 +232,47 @@ public class DatabasePersistentRecordTest {
         assertThat(persistentCsv.getPersistentRecords().size()).isEqualTo(2);
     }
 
+    /**
+     * test save copies every attribute of a record.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void savePersistentRecordAttributesTest()
+            throws ExistsException, NotFoundException, IOException {
+
+        // arrange
+        persistentRecordJpaService.delete(recordPersistent1Dto);
+        persistentRecordJpaService.delete(recordPersistent2Dto);
+        recordJpaService.delete(recordDto);
+
+        Record source = recordJpaService.register(Record.builder().frameNum(2)
+                .objectId(9).trackerL(3).label("copy \"me\"").modelConfidence(0.25)
+                .trackerConfidence(0.75).trackerH(4).trackerW(5).trackerT(6).build(), csvdto);
+
+        // act
+        persistentRecordJpaService.save(csvdto, persistentCsvDto);
+
+        // assert
+        List<PersistentRecord> copies = persistentRecordJpaService.findAll();
+        assertThat(copies.size()).isEqualTo(1);
+
+        PersistentRecord copy = copies.get(0);
+        assertThat(copy.getId()).isNotEqualTo(source.getId());
+        assertThat(copy.getPersistentCsv().getId()).isEqualTo(persistentCsv.getId());
+        assertThat(copy.getLabel()).isEqualTo(source.getLabel());
+        assertThat(copy.getFrameNum()).isEqualTo(source.getFrameNum());
+        assertThat(copy.getObjectId()).isEqualTo(source.getObjectId());
+        assertThat(copy.getModelConfidence()).isEqualTo(source.getModelConfidence());
+        assertThat(copy.getTrackerConfidence()).isEqualTo(source.getTrackerConfidence());
+        assertThat(copy.getTrackerL()).isEqualTo(source.getTrackerL());
+        assertThat(copy.getTrackerT()).isEqualTo(source.getTrackerT());
+        assertThat(copy.getTrackerW()).isEqualTo(source.getTrackerW());
+        assertThat(copy.getTrackerH()).isEqualTo(source.getTrackerH());
+    }
+
     /**
      * test save record with big file.
      *
@@ -9,15 +9,19 @@ import java.io.IOException;
 import java.sql.Date;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectDto;
 import nl.tudelft.sp.modelchecker.dto.ProjectHolderDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.*;
 import nl.tudelft.sp.modelchecker.exceptions.AuthorityException;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
 import nl.tudelft.sp.modelchecker.exceptions.DateException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
 import nl.tudelft.sp.modelchecker.services.servicebeans.*;
@@ -300,6 +304,83 @@ public class DatabaseProjectTest {
         });
     }
 
+    /**
+     * Walk all projects a page at a time, in the order of their ids.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void findPageTest() throws Exception {
+
+        // arrange
+        for (String name : new String[]{"d", "b", "c", "a"}) {
+            projectJpaService.register(new Project(name, desc), projectHolderDto, adminDto);
+        }
+        List<Long> expected = projectJpaService.findAll().stream().map(Project::getId)
+                .sorted().collect(Collectors.toList());
+
+        // act
+        List<Long> ids = new ArrayList<>();
+        List<Project> page = projectJpaService.findPage(new PageDto<>(2, null));
+        while (page.size() > 0) {
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            page.forEach(n -> ids.add(n.getId()));
+            page = projectJpaService.findPage(new PageDto<>(2, ids.get(ids.size() - 1)));
+        }
+
+        // assert
+        assertThat(ids).isEqualTo(expected);
+    }
+
+    /**
+     * Page through the projects in descending order of their titles.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void findPageSortedTest() throws Exception {
+
+        // arrange
+        for (String name : new String[]{"d", "b", "c", "a"}) {
+            projectJpaService.register(new Project(name, desc), projectHolderDto, adminDto);
+        }
+
+        // act
+        List<Project> first = projectJpaService.findPage(new PageDto<>(2, null, "title", true));
+        List<Project> second = projectJpaService.findPage(
+                new PageDto<>(2, first.get(1).getId(), "title", true));
+
+        // assert
+        assertThat(first.get(0).getTitle()).isEqualTo(title);
+        assertThat(first.get(1).getTitle()).isEqualTo("d");
+        assertThat(second.get(0).getTitle()).isEqualTo("c");
+        assertThat(second.get(1).getTitle()).isEqualTo("b");
+    }
+
+    /**
+     * Only attributes of a project that cannot be null can be sort keys.
+     */
+    @Test
+    public void findPageInvalidSortTest() {
+
+        // act and assert
+        assertThrows(BadRequestException.class, () ->
+                projectJpaService.findPage(new PageDto<>(2, null, "admin", false)));
+        assertThrows(BadRequestException.class, () ->
+                projectJpaService.findPage(new PageDto<>(2, null, "unknown", false)));
+    }
+
+    /**
+     * The last-seen project of a sorted page has to exist.
+     */
+    @Test
+    public void findPageLastSeenNotFoundTest() {
+
+        // act and assert
+        assertThrows(NotFoundException.class, () ->
+                projectJpaService.findPage(new PageDto<>(2, -1L, "title", false)));
+    }
+
     /**
      * Update with all null fields no change.
      *
@@ -354,6 +435,62 @@ public class DatabaseProjectTest {
 
         // assert
         assertThat(containerList.size()).isEqualTo(2);
+        assertThat(containerList.get(0)).isEqualTo(new ContainerDto(container));
+        assertThat(containerList.get(1)).isEqualTo(new ContainerDto(container1));
+    }
+
+    /**
+     * Get container Dtos in a project without containers.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void getContainerDtosInEmptyProjectTest() throws Exception {
+
+        // arrange
+        Project project1 = projectJpaService.register(new Project(title, desc),
+                projectHolderDto, adminDto);
+
+        // act
+        List<ContainerDto> containerList = projectJpaService
+                .getContainerDtosInProject(new ProjectDto(project1));
+
+        // assert
+        assertThat(containerList.size()).isEqualTo(0);
+    }
+
+    /**
+     * Get the client id of a project.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void getClientIdTest() throws Exception {
+
+        // arrange
+        ProjectHolder projectHolder1 = projectHolderJpaService.register(new ProjectHolder(),
+                basicUserDto);
+        Project project1 = projectJpaService.register(new Project(title, desc),
+                new ProjectHolderDto(projectHolder1), adminDto);
+
+        // act
+        String clientId = projectJpaService.getClientId(new ProjectDto(project1));
+
+        // assert
+        assertThat(clientId).isEqualTo(basicUser.getId());
+        assertThat(projectJpaService.getClientId(projectDto)).isNull();
+    }
+
+    /**
+     * Get the client id of a project that doesn't exist.
+     */
+    @Test
+    public void getClientIdNotFoundTest() {
+
+        // act and assert
+        assertThrows(NotFoundException.class, () -> {
+            projectJpaService.getClientId(new ProjectDto(100000L));
+        });
     }
 
     /**
@@ -9,8 +9,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import javassist.NotFoundException;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import nl.tudelft.sp.modelchecker.Application;
 import nl.tudelft.sp.modelchecker.dto.ContainerDto;
 import nl.tudelft.sp.modelchecker.dto.CsvDto;
@@ -18,10 +22,14 @@ import nl.tudelft.sp.modelchecker.dto.RecordDto;
 import nl.tudelft.sp.modelchecker.entities.Container;
 import nl.tudelft.sp.modelchecker.entities.Csv;
 import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.BadRequestException;
 import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.repositories.GenericRecordBulkRepository;
+import nl.tudelft.sp.modelchecker.repositories.RecordRepository;
 import nl.tudelft.sp.modelchecker.services.servicebeans.ContainerJpaService;
 import nl.tudelft.sp.modelchecker.services.servicebeans.CsvJpaService;
 import nl.tudelft.sp.modelchecker.services.servicebeans.RecordJpaService;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -50,9 +58,15 @@ public class DatabaseRecordTest {
     @Autowired
     ContainerJpaService containerJpaService;
 
+    @Autowired
+    RecordRepository recordRepository;
+
     @Autowired
     ModelMapper modelMapper;
 
+    @PersistenceContext
+    EntityManager entityManager;
+
     private Record record;
     private Record record1;
 
@@ -139,12 +153,12 @@ public class DatabaseRecordTest {
                 .objectId(1).trackerL(3).label("label")
                 .trackerH(3).trackerW(5).trackerT(3).build();
 
-        // act
-        recordJpaService.register(newRecord, csvdto);
+        // act and assert
+        assertThrows(ExistsException.class, () ->
+                recordJpaService.register(newRecord, csvdto));
 
-        // assert
-        assertThat(recordJpaService.count()).isEqualTo(2);
-        assertThat(csv.getRecords().size()).isEqualTo(2);
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(csv.getRecords().size()).isEqualTo(1);
     }
 
     /**
@@ -304,7 +318,7 @@ public class DatabaseRecordTest {
         // assert
         assertThat(recordJpaService.findById(recordDto.getId()))
                 .isEqualToIgnoringGivenFields(recordDto1,
-                        "id", "csv");
+                        "id", "csv", "tombstone");
 
     }
 
@@ -424,8 +438,9 @@ public class DatabaseRecordTest {
         recordDto1 = modelMapper.map(record1, RecordDto.class);
         List<RecordDto> recordDtos1 = Collections.singletonList(recordDto1);
 
-        // act
-        recordJpaService.save(recordDtos1, csvdto);
+        // act and assert
+        assertThrows(BadRequestException.class, () ->
+                recordJpaService.save(recordDtos1, csvdto));
 
         // assert
         assertThat(recordJpaService.count()).isEqualTo(2);
@@ -467,11 +482,12 @@ public class DatabaseRecordTest {
 
         List<RecordDto> recordList1Dto = Arrays.asList(recordDto, recordDto1);
 
+        Object[] records = csv.getRecords().stream()
+                .sorted(Comparator.comparingInt(Record::getObjectId)).toArray();
+
         // assert
-        assertThat(csv.getRecords().toArray()[1]).isEqualToIgnoringGivenFields(record,
-                "id", "csv");
-        assertThat(csv.getRecords().toArray()[0]).isEqualToIgnoringGivenFields(record1,
-                "id", "csv");
+        assertThat(records[0]).isEqualToIgnoringGivenFields(record, "id", "csv");
+        assertThat(records[1]).isEqualToIgnoringGivenFields(record1, "id", "csv");
 
         // arrange
         Record record2 = Record.builder().frameNum(2)
@@ -498,10 +514,11 @@ public class DatabaseRecordTest {
 
         csv2 = csvjpaService.findById(csv2.getId());
         assertThat(csv2.getRecords().size()).isEqualTo(2);
-        assertThat(csv2.getRecords().toArray()[0]).isEqualToIgnoringGivenFields(record3,
-                "id", "csv");
-        assertThat(csv2.getRecords().toArray()[1]).isEqualToIgnoringGivenFields(record2,
-                "id", "csv");
+
+        Object[] saved = csv2.getRecords().stream()
+                .sorted(Comparator.comparingInt(Record::getObjectId)).toArray();
+        assertThat(saved[0]).isEqualToIgnoringGivenFields(record2, "id", "csv");
+        assertThat(saved[1]).isEqualToIgnoringGivenFields(record3, "id", "csv");
 
     }
 
@@ -697,6 +714,25 @@ public class DatabaseRecordTest {
         assertThat(csvjpaService.getRecordsInCsv(csvdto).size()).isEqualTo(1);
     }
 
+    /**
+     * test deleting records without a csv id is rejected and deletes nothing.
+     *
+     * @throws ExistsException ExistsException
+     */
+    @Test
+    public void deleteRecordsWithoutCsvTest() throws ExistsException {
+
+        // arrange
+        record1 = recordJpaService.register(record1, csvdto);
+        RecordDto withoutCsv = new RecordDto(record1);
+        withoutCsv.setCsvId(null);
+
+        // act and assert
+        assertThrows(BadRequestException.class, () ->
+                recordJpaService.delete(List.of(recordDto, withoutCsv)));
+        assertThat(recordJpaService.count()).isEqualTo(2);
+    }
+
     /**
      * test save csv.
      *
@@ -724,4 +760,284 @@ public class DatabaseRecordTest {
 
         assertThat(recordJpaService.count()).isEqualTo(451);
     }
+
+    /**
+     * test save a csv larger than a single bulk insert batch.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void saveCsvMultipleBatchesTest()
+            throws ExistsException, NotFoundException, IOException {
+
+        // arrange
+        int rows = 2 * GenericRecordBulkRepository.BATCH_SIZE + 500;
+        StringBuilder builder = new StringBuilder("frame_num,label,object_id,model_confidence,"
+                + "tracker_confidence,tracker_l,tracker_t,tracker_w,tracker_h\n");
+        for (int i = 0; i < rows; i++) {
+            builder.append(i).append(",label,").append(i).append(",0.5,0.5,1,2,3,4\n");
+        }
+        MultipartFile largeFile = new MockMultipartFile("large.csv", "large.csv",
+                "text/csv", builder.toString().getBytes());
+
+        // act
+        recordJpaService.save(largeFile, csvdto);
+        csv = csvjpaService.findById(csvdto.getId());
+
+        // assert
+        assertThat(csv.getRecords().size()).isEqualTo(rows);
+        assertThat(recordJpaService.count()).isEqualTo(rows);
+    }
+
+    /**
+     * test a bulk insert only refreshes its csv and leaves other entities managed.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void bulkInsertKeepsPersistenceContextTest()
+            throws ExistsException, NotFoundException {
+
+        // arrange
+        Container container = containerJpaService.register(new Container(25.0, "keep", "keep"));
+        assertThat(csv.getRecords().size()).isEqualTo(1);
+
+        // act
+        recordRepository.bulkInsert(csv.getId(), List.of(record1).iterator());
+
+        // assert
+        assertThat(entityManager.contains(container)).isTrue();
+        assertThat(entityManager.contains(csv)).isTrue();
+        assertThat(entityManager.contains(record)).isTrue();
+        assertThat(csv.getRecords().size()).isEqualTo(2);
+    }
+
+    /**
+     * test a delete by object id only detaches the deleted records and leaves other
+     * entities managed.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void deleteKeepsPersistenceContextTest()
+            throws ExistsException, NotFoundException {
+
+        // arrange
+        final Container container =
+                containerJpaService.register(new Container(25.0, "keep", "keep"));
+        final Record kept = recordJpaService.register(record1, csvdto);
+        assertThat(csv.getRecords().size()).isEqualTo(2);
+        recordDto.setCsvId(csv.getId());
+
+        // act
+        recordJpaService.delete(List.of(recordDto));
+
+        // assert
+        assertThat(entityManager.contains(container)).isTrue();
+        assertThat(entityManager.contains(csv)).isTrue();
+        assertThat(entityManager.contains(kept)).isTrue();
+        assertThat(entityManager.contains(record)).isFalse();
+        assertThat(csv.getRecords().size()).isEqualTo(1);
+    }
+
+    /**
+     * test records registered around a bulk save get distinct ids.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void bulkSaveMixedWithRegisterIdsTest()
+            throws ExistsException, NotFoundException, IOException {
+
+        // arrange
+        Csv csv2 = csvjpaService.register(new Csv());
+        CsvDto csv2dto = modelMapper.map(csv2, CsvDto.class);
+
+        // act
+        recordJpaService.save(testFile1, csv2dto);
+        recordJpaService.register(record1, csvdto);
+
+        // assert
+        List<Record> records = recordJpaService.findAll();
+        assertThat(records.size()).isEqualTo(453);
+        assertThat(records.stream().map(Record::getId).distinct().count()).isEqualTo(453L);
+    }
+
+    /**
+     * test save overwrites records with the same object id and the last duplicate wins.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void saveRecordsUpsertTest()
+            throws ExistsException, NotFoundException, IOException {
+
+        // arrange
+        RecordDto updated = modelMapper.map(record, RecordDto.class);
+        updated.setLabel("updated");
+
+        RecordDto first = modelMapper.map(record1, RecordDto.class);
+        first.setObjectId(8);
+        RecordDto last = modelMapper.map(record1, RecordDto.class);
+        last.setObjectId(8);
+        last.setLabel("last");
+
+        // act
+        recordJpaService.save(Arrays.asList(updated, first, last), csvdto);
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(2);
+        assertThat(recordJpaService.findById(record.getId()).getLabel()).isEqualTo("updated");
+
+        csv = csvjpaService.findById(csv.getId());
+        Record added = csv.getRecords().stream()
+                .filter(saved -> saved.getObjectId() == 8).findFirst().orElseThrow();
+        assertThat(added.getLabel()).isEqualTo("last");
+    }
+
+    /**
+     * test save in a csv that does not exist.
+     */
+    @Test
+    public void saveRecordsCsvNotFoundTest() {
+
+        // act and assert
+        assertThrows(NotFoundException.class, () ->
+                recordJpaService.save(Collections.singletonList(recordDto1),
+                        new CsvDto(10000L)));
+    }
+
+    /**
+     * test save rejects a record with the id of another csv and leaves that csv untouched.
+     *
+     * @throws ExistsException ExistsException
+     */
+    @Test
+    public void saveRecordsOtherCsvTest() throws ExistsException {
+
+        // arrange
+        Csv other = csvjpaService.register(new Csv());
+        recordDto1.setCsvId(other.getId());
+
+        // act and assert
+        assertThrows(BadRequestException.class, () ->
+                recordJpaService.save(Collections.singletonList(recordDto1), csvdto));
+        assertThat(recordJpaService.count()).isEqualTo(1);
+        assertThat(csvjpaService.findById(other.getId()).getVersion()).isEqualTo(0);
+    }
+
+    /**
+     * test delete records of several csvs in one call.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void deleteRecordsMultipleCsvTest()
+            throws ExistsException, NotFoundException, IOException {
+
+        // arrange
+        Csv csv2 = csvjpaService.register(new Csv());
+        CsvDto csv2dto = modelMapper.map(csv2, CsvDto.class);
+        recordJpaService.save(testFile1, csv2dto);
+        record1 = recordJpaService.register(record1, csvdto);
+
+        List<RecordDto> recordDtos = new ArrayList<>(csvjpaService.getRecordsInCsv(csv2dto));
+        recordDtos.remove(0);
+        recordDtos.add(modelMapper.map(record1, RecordDto.class));
+
+        // act
+        recordJpaService.delete(recordDtos);
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(2);
+        assertThat(csvjpaService.getRecordsInCsv(csv2dto).size()).isEqualTo(1);
+        assertThat(csvjpaService.getRecordsInCsv(csvdto).size()).isEqualTo(1);
+        assertThat(recordJpaService.findById(record.getId())).isNotNull();
+    }
+
+    /**
+     * test registering a record does not load the records of its csv.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void registerRecordDoesNotLoadCsvRecordsTest()
+            throws ExistsException, NotFoundException {
+
+        // arrange
+        entityManager.flush();
+        entityManager.clear();
+
+        // act
+        record1 = recordJpaService.register(record1, csvdto);
+        csv = csvjpaService.findById(csvdto.getId());
+
+        // assert
+        assertThat(Hibernate.isInitialized(csv.getRecords())).isFalse();
+        assertThat(record1.getCsv()).isEqualTo(csv);
+        assertThat(recordJpaService.count()).isEqualTo(2);
+    }
+
+    /**
+     * test deleting a record removes it from the loaded records of its csv in place,
+     * and deleting the csv cascades to its loaded records.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     */
+    @Test
+    public void deleteRecordFromLoadedCsvTest() throws ExistsException, NotFoundException {
+
+        // arrange
+        record1 = recordJpaService.register(record1, csvdto);
+        Set<Record> records = csv.getRecords();
+        assertThat(records.size()).isEqualTo(2);
+
+        // act
+        recordJpaService.deleteById(record.getId());
+
+        // assert
+        assertThat(csv.getRecords()).isSameAs(records);
+        assertThat(records.size()).isEqualTo(1);
+        assertThat(records.contains(record1)).isTrue();
+
+        // act
+        csvjpaService.deleteById(csv.getId());
+
+        // assert
+        assertThat(recordJpaService.count()).isEqualTo(0);
+        assertThat(csvjpaService.findById(csv.getId())).isNull();
+    }
+
+    /**
+     * test records are equal by id and keep their hash code when changed.
+     */
+    @Test
+    public void recordIdentityTest() {
+
+        // arrange
+        Record found = recordJpaService.findById(record.getId());
+        int hashCode = record1.hashCode();
+
+        // act
+        record1.setLabel("changed");
+
+        // assert
+        assertThat(found).isEqualTo(record);
+        assertThat(record1.hashCode()).isEqualTo(hashCode);
+        assertThat(record1).isNotEqualTo(Record.builder().frameNum(2)
+                .objectId(4).trackerL(6).label("changed")
+                .trackerH(3).trackerW(7).trackerT(3).build());
+    }
 }
@@ -0,0 +1,383 @@
+package nl.tudelft.sp.modelchecker.database;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import javassist.NotFoundException;
+import nl.tudelft.sp.modelchecker.Application;
+import nl.tudelft.sp.modelchecker.dto.CsvDto;
+import nl.tudelft.sp.modelchecker.dto.RecordDto;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.Record;
+import nl.tudelft.sp.modelchecker.exceptions.ExistsException;
+import nl.tudelft.sp.modelchecker.services.ResponseCacheService.ResponseWriter;
+import nl.tudelft.sp.modelchecker.services.servicebeans.CsvJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.RecordJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.RecordResponseJpaService;
+import nl.tudelft.sp.modelchecker.services.servicebeans.ResponseCacheJpaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional
+public class DatabaseResponseCacheTest {
+
+    private static final int RESPONSE_SIZE = 1024;
+
+    @Autowired
+    CsvJpaService csvJpaService;
+
+    @Autowired
+    RecordResponseJpaService recordResponseJpaService;
+
+    @Autowired
+    RecordJpaService recordJpaService;
+
+    @Autowired
+    ResponseCacheJpaService responseCacheService;
+
+    @Autowired
+    ModelMapper modelMapper;
+
+    private CsvDto csvDto;
+    private RecordDto recordDto;
+
+    /**
+     * Set Up test environment.
+     *
+     * @throws ExistsException   ExistsException
+     * @throws NotFoundException NotFoundException
+     */
+    @BeforeEach
+    public void setUp() throws ExistsException, NotFoundException {
+
+        // arrange
+        Csv csv = csvJpaService.register(new Csv());
+        csvDto = modelMapper.map(csv, CsvDto.class);
+
+        Record record = recordJpaService.register(Record.builder().frameNum(2)
+                .objectId(1).trackerL(3).label("cached")
+                .trackerH(3).trackerW(5).trackerT(3).build(), csvDto);
+        recordDto = new RecordDto(record);
+    }
+
+    /**
+     * Decompress a gzipped response.
+     *
+     * @param gzipped gzipped
+     * @return response
+     * @throws IOException IOException
+     */
+    private byte[] inflate(byte[] gzipped) throws IOException {
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return json.readAllBytes();
+        }
+    }
+
+    /**
+     * Decompress a gzipped json response.
+     *
+     * @param gzipped gzipped
+     * @return response
+     * @throws IOException IOException
+     */
+    private String decompress(byte[] gzipped) throws IOException {
+        return new String(inflate(gzipped), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the gzipped records of a csv.
+     *
+     * @param csvDto csvDto
+     * @return gzipped json
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    private byte[] gzipped(CsvDto csvDto) throws NotFoundException, IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        recordResponseJpaService.writeCachedRecordsInCsv(csvDto, true, response);
+        return response.toByteArray();
+    }
+
+    /**
+     * Write a response through a cache.
+     *
+     * @param cache  cache
+     * @param csvId  csvId
+     * @param writer writer
+     * @param gzip   gzip
+     * @return response
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    private byte[] open(ResponseCacheJpaService cache, long csvId, ResponseWriter writer,
+                        boolean gzip) throws NotFoundException, IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        cache.write(Csv.class, csvId, writer, gzip, response);
+        return response.toByteArray();
+    }
+
+    /**
+     * Create a response that does not compress.
+     *
+     * @param seed seed
+     * @return response
+     */
+    private byte[] response(long seed) {
+        byte[] response = new byte[RESPONSE_SIZE];
+        new Random(seed).nextBytes(response);
+        return response;
+    }
+
+    /**
+     * Create a writer of a response that does not compress, counting its calls.
+     *
+     * @param seed  seed
+     * @param calls calls
+     * @return writer
+     */
+    private ResponseWriter writer(long seed, AtomicInteger calls) {
+        return outputStream -> {
+            calls.incrementAndGet();
+            outputStream.write(response(seed));
+        };
+    }
+
+    /**
+     * test opening the records of a csv again returns the cached response.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void repeatedOpenIsCachedTest() throws NotFoundException, IOException {
+
+        // arrange
+        byte[] gzipped = gzipped(csvDto);
+
+        // act
+        byte[] repeated = gzipped(csvDto);
+
+        // assert
+        assertThat(repeated).isEqualTo(gzipped);
+        assertThat(decompress(gzipped)).contains("cached");
+        assertThat(responseCacheService.getBytes()).isGreaterThanOrEqualTo((long) gzipped.length);
+    }
+
+    /**
+     * test registering a record evicts the response of its csv.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws ExistsException   ExistsException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void registerRecordEvictsTest()
+            throws NotFoundException, ExistsException, IOException {
+
+        // arrange
+        byte[] gzipped = gzipped(csvDto);
+
+        // act
+        recordJpaService.register(Record.builder().frameNum(3)
+                .objectId(2).trackerL(3).label("registered")
+                .trackerH(3).trackerW(5).trackerT(3).build(), csvDto);
+        byte[] registered = gzipped(csvDto);
+
+        // assert
+        assertThat(registered).isNotEqualTo(gzipped);
+        assertThat(decompress(registered)).contains("registered");
+    }
+
+    /**
+     * test deleting the records of a csv evicts its response.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void deleteRecordsEvictsTest() throws NotFoundException, IOException {
+
+        // arrange
+        gzipped(csvDto);
+
+        // act
+        recordJpaService.delete(List.of(recordDto));
+        byte[] deleted = gzipped(csvDto);
+
+        // assert
+        assertThat(decompress(deleted)).isEqualTo("[]");
+    }
+
+    /**
+     * test updating records of a csv evicts its response.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws ExistsException   ExistsException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void saveRecordsEvictsTest()
+            throws NotFoundException, ExistsException, IOException {
+
+        // arrange
+        gzipped(csvDto);
+        recordDto.setLabel("saved");
+
+        // act
+        recordJpaService.save(List.of(recordDto), csvDto);
+        byte[] saved = gzipped(csvDto);
+
+        // assert
+        assertThat(decompress(saved)).contains("saved");
+    }
+
+    /**
+     * test the least recently used response is evicted when the budget is exceeded.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void leastRecentlyUsedEvictedTest() throws NotFoundException, IOException {
+
+        // arrange
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        ResponseCacheJpaService cache = new ResponseCacheJpaService(RESPONSE_SIZE * 5 / 2);
+
+        open(cache, 1L, writer(1, first), true);
+        open(cache, 2L, writer(2, second), true);
+        open(cache, 1L, writer(1, first), true);
+        AtomicInteger third = new AtomicInteger();
+
+        // act
+        open(cache, 3L, writer(3, third), true);
+        open(cache, 1L, writer(1, first), true);
+        open(cache, 2L, writer(2, second), true);
+
+        // assert
+        assertThat(first.get()).isEqualTo(1);
+        assertThat(second.get()).isEqualTo(2);
+        assertThat(third.get()).isEqualTo(1);
+        assertThat(cache.getBytes()).isLessThanOrEqualTo(RESPONSE_SIZE * 5 / 2);
+        assertThat(cache.getBytes()).isGreaterThan((long) RESPONSE_SIZE);
+    }
+
+    /**
+     * test a response read while the records of a csv change is not cached.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void evictedWhileReadNotCachedTest() throws NotFoundException, IOException {
+
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        ResponseCacheJpaService cache = new ResponseCacheJpaService();
+
+        // act
+        open(cache, 1L, outputStream -> {
+            writer(1, calls).write(outputStream);
+            cache.evict(Csv.class, 1L);
+        }, true);
+        open(cache, 1L, writer(1, calls), true);
+
+        // assert
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(cache.getBytes()).isGreaterThan(0L);
+    }
+
+    /**
+     * test a response read while the records of another csv change is cached.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void otherCsvEvictedWhileReadCachedTest() throws NotFoundException, IOException {
+
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        ResponseCacheJpaService cache = new ResponseCacheJpaService();
+
+        // act
+        open(cache, 1L, outputStream -> {
+            writer(1, calls).write(outputStream);
+            cache.evict(Csv.class, 2L);
+        }, true);
+        open(cache, 1L, writer(1, calls), true);
+
+        // assert
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    /**
+     * test clients that do not accept gzip get the response uncompressed, from the
+     * writer and from the cache.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void plainResponseTest() throws NotFoundException, IOException {
+
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        ResponseCacheJpaService cache = new ResponseCacheJpaService();
+
+        // act
+        byte[] written = open(cache, 1L, writer(1, calls), false);
+        byte[] cached = open(cache, 1L, writer(1, calls), false);
+        byte[] gzipped = open(cache, 1L, writer(1, calls), true);
+
+        // assert
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(written).isEqualTo(response(1));
+        assertThat(cached).isEqualTo(response(1));
+        assertThat(inflate(gzipped)).isEqualTo(response(1));
+    }
+
+    /**
+     * test a response over the budget is still written completely, but not cached.
+     *
+     * @throws NotFoundException NotFoundException
+     * @throws IOException       IOException
+     */
+    @Test
+    public void overBudgetNotCachedTest() throws NotFoundException, IOException {
+
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        ResponseCacheJpaService cache = new ResponseCacheJpaService(RESPONSE_SIZE / 2);
+
+        // act
+        byte[] gzipped = open(cache, 1L, writer(1, calls), true);
+        byte[] plain = open(cache, 1L, writer(1, calls), false);
+
+        // assert
+        assertThat(inflate(gzipped)).isEqualTo(response(1));
+        assertThat(plain).isEqualTo(response(1));
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(cache.getBytes()).isEqualTo(0L);
+    }
+}
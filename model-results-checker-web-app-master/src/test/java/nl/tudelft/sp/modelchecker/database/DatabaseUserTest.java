@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.util.List;
 import javassist.NotFoundException;
 import nl.tudelft.sp.modelchecker.Application;
+import nl.tudelft.sp.modelchecker.dto.PageDto;
 import nl.tudelft.sp.modelchecker.dto.UserDto;
 import nl.tudelft.sp.modelchecker.entities.Admin;
 import nl.tudelft.sp.modelchecker.entities.BasicUser;
@@ -286,6 +287,16 @@ public class DatabaseUserTest {
         assertThat(adminJpaService.isAdmin(adminDto)).isTrue();
     }
 
+    /**
+     * Test whether an unknown user is an admin.
+     */
+    @Test
+    public void adminUnknownUserTest() {
+
+        // act and assert
+        assertThat(adminJpaService.isAdmin("unknown")).isFalse();
+    }
+
     /**
      * Delete an admin.
      *
@@ -349,6 +360,50 @@ public class DatabaseUserTest {
         assertThat(userDtoList.size()).isEqualTo(2);
     }
 
+    /**
+     * Converting basic users to dtos reads the same dtos as the users give.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void convertToBasicUserDtoProjectionTest() throws Exception {
+
+        // arrange
+        ege = basicUserJpaService.registerUser(ege);
+
+        // act
+        List<UserDto> userDtoList = basicUserJpaService.convertToUserDtos();
+
+        // assert
+        assertThat(userDtoList.get(0)).isEqualTo(new UserDto(akash));
+        assertThat(userDtoList.get(1)).isEqualTo(new UserDto(ege));
+    }
+
+    /**
+     * Convert a page of basic users, sorted by username, to dtos.
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    public void convertToBasicUserDtoPageTest() throws Exception {
+
+        // arrange
+        basicUserJpaService.registerUser(ege);
+
+        // act
+        List<UserDto> first = basicUserJpaService
+                .convertToUserDtos(new PageDto<>(1, null, "username", false));
+        List<UserDto> second = basicUserJpaService
+                .convertToUserDtos(new PageDto<>(1, first.get(0).getId(), "username", false));
+        List<UserDto> last = basicUserJpaService
+                .convertToUserDtos(new PageDto<>(1, second.get(0).getId(), "username", false));
+
+        // assert
+        assertThat(first.get(0).getUsername()).isEqualTo("akash");
+        assertThat(second.get(0).getUsername()).isEqualTo("ege");
+        assertThat(last.size()).isEqualTo(0);
+    }
+
     /**
      * Convert admins to dtos.
      */
@@ -0,0 +1,107 @@
+package nl.tudelft.sp.modelchecker.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import nl.tudelft.sp.modelchecker.entities.BasicUser;
+import nl.tudelft.sp.modelchecker.entities.Container;
+import nl.tudelft.sp.modelchecker.entities.Project;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DtoFactoryTest {
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+
+        // arrange
+        project = new Project("title", "desc");
+        project.setId(3L);
+    }
+
+    /**
+     * create test.
+     */
+    @Test
+    void createTest() {
+
+        // act
+        ProjectDto projectDto = DtoFactory.create(ProjectDto.class, project);
+
+        // assert
+        assertThat(projectDto.getId()).isEqualTo(3L);
+        assertThat(projectDto.getTitle()).isEqualTo("title");
+    }
+
+    /**
+     * the constructor for a subclass of the entity, like a proxy, is found.
+     */
+    @Test
+    void createSubclassTest() {
+
+        // arrange
+        Project subclass = new Project("title", "desc") {
+        };
+
+        // act
+        ProjectDto projectDto = DtoFactory.create(ProjectDto.class, subclass);
+
+        // assert
+        assertThat(projectDto.getTitle()).isEqualTo("title");
+    }
+
+    /**
+     * the most specific constructor is used, not the one taking any id.
+     */
+    @Test
+    void createMostSpecificTest() {
+
+        // act
+        Dto<?> dto = DtoFactory.create(Dto.class, project);
+
+        // assert
+        assertThat(dto.getId()).isEqualTo(3L);
+    }
+
+    /**
+     * the constructor for the superclass of the entity is found.
+     */
+    @Test
+    void createSuperclassTest() {
+
+        // arrange
+        BasicUser user = new BasicUser("id", "name", "email", null);
+
+        // act
+        UserDto userDto = DtoFactory.create(UserDto.class, user);
+
+        // assert
+        assertThat(userDto.getId()).isEqualTo("id");
+        assertThat(userDto.getEmail()).isEqualTo("email");
+    }
+
+    /**
+     * the constructor is looked up once per dto and entity class.
+     */
+    @Test
+    void constructorCachedTest() {
+
+        // act and assert
+        assertThat(DtoFactory.constructor(ProjectDto.class, Project.class))
+                .isSameAs(DtoFactory.constructor(ProjectDto.class, Project.class));
+    }
+
+    /**
+     * create without a matching constructor test.
+     */
+    @Test
+    void createNoConstructorTest() {
+
+        // act and assert
+        assertThrows(IllegalStateException.class, () -> {
+            DtoFactory.create(ProjectDto.class, new Container());
+        });
+    }
+}
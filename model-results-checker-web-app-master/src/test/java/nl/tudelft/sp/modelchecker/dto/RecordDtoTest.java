@@ -2,18 +2,27 @@ package nl.tudelft.sp.modelchecker.dto;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import nl.tudelft.sp.modelchecker.config.DefaultConfig;
+import nl.tudelft.sp.modelchecker.entities.Csv;
+import nl.tudelft.sp.modelchecker.entities.PersistentCsv;
+import nl.tudelft.sp.modelchecker.entities.PersistentRecord;
+import nl.tudelft.sp.modelchecker.entities.Record;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
 
 public class RecordDtoTest {
 
     private RecordDto recordDto;
 
+    private ModelMapper modelMapper;
+
     @BeforeEach
     void setUp() {
 
         // act
         recordDto = new RecordDto(1L);
+        modelMapper = new DefaultConfig().modelMapper();
     }
 
     /**
@@ -25,4 +34,84 @@ public class RecordDtoTest {
         // assert
         assertThat(recordDto.getId()).isEqualTo(1L);
     }
+
+    /**
+     * constructor from a record gives the same dto as the model mapper.
+     */
+    @Test
+    void recordConstructorTest() {
+
+        // arrange
+        Csv csv = new Csv();
+        csv.setId(7L);
+        Record record = Record.builder().id(3L).frameNum(4).objectId(5).label("pp")
+                .trackerL(1).trackerT(2).trackerW(3).trackerH(4)
+                .modelConfidence(0.5).trackerConfidence(0.75).csv(csv).build();
+
+        // act
+        RecordDto dto = new RecordDto(record);
+
+        // assert
+        assertThat(dto.getCsvId()).isEqualTo(7L);
+        assertThat(dto).isEqualTo(modelMapper.map(record, RecordDto.class));
+    }
+
+    /**
+     * constructor from a persistent record gives the same dto as the model mapper.
+     */
+    @Test
+    void persistentRecordConstructorTest() {
+
+        // arrange
+        PersistentCsv persistentCsv = new PersistentCsv();
+        persistentCsv.setId(8L);
+        PersistentRecord persistentRecord = PersistentRecord.builder().id(3L).frameNum(4)
+                .objectId(5).label("pp").trackerL(1).trackerT(2).trackerW(3).trackerH(4)
+                .modelConfidence(0.5).trackerConfidence(0.75).persistentCsv(persistentCsv)
+                .build();
+
+        // act
+        RecordDto dto = new RecordDto(persistentRecord);
+
+        // assert
+        assertThat(dto).isEqualTo(modelMapper.map(persistentRecord, RecordDto.class));
+    }
+
+    /**
+     * a record created from a dto has the same attributes as the dto.
+     */
+    @Test
+    void fromDtoTest() {
+
+        // arrange
+        recordDto.setFrameNum(4);
+        recordDto.setObjectId(5);
+        recordDto.setLabel("pp");
+        recordDto.setTrackerH(4);
+        recordDto.setModelConfidence(0.5);
+
+        // act
+        Record record = Record.fromDto(recordDto);
+
+        // assert
+        assertThat(record).isEqualTo(modelMapper.map(recordDto, Record.class));
+        assertThat(new RecordDto(record)).isEqualTo(recordDto);
+    }
+
+    /**
+     * records are ordered by id, and records without an id come last.
+     */
+    @Test
+    void compareToTest() {
+
+        // arrange
+        RecordDto other = new RecordDto(2L);
+        RecordDto withoutId = new RecordDto();
+
+        // assert
+        assertThat(recordDto.compareTo(other)).isNegative();
+        assertThat(recordDto.compareTo(withoutId)).isNegative();
+        assertThat(withoutId.compareTo(other)).isPositive();
+        assertThat(withoutId.compareTo(new RecordDto())).isZero();
+    }
 }